@@ -0,0 +1,87 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xavierroigmartin.v_integrity.domain.Block;
+
+/**
+ * {@link LedgerService#acceptReplicatedBlock(Block)}: validation (hash, Merkle root, signature)
+ * and append of the next block on a follower.
+ * <p>
+ * A leader chain of {@value #CHAIN_EVIDENCES} evidences is sealed once. Every thread replays it
+ * into its own follower, which starts over from genesis once the whole chain is accepted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AcceptReplicatedBlockBenchmark {
+
+  static final int CHAIN_EVIDENCES = 100_000;
+
+  /**
+   * The leader chain replayed by every thread.
+   */
+  @State(Scope.Benchmark)
+  public static class LeaderChain {
+
+    @Param({"10", "1000"})
+    int evidencesPerBlock;
+
+    final LedgerFixtures fixtures = new LedgerFixtures();
+    List<Block> blocks;
+
+    @Setup(Level.Trial)
+    public void seal() {
+      LedgerService leader = fixtures.leader();
+      blocks = LedgerFixtures.commitBlocks(leader, CHAIN_EVIDENCES / evidencesPerBlock,
+          evidencesPerBlock);
+      leader.close();
+    }
+  }
+
+  /**
+   * The follower of one thread and the next block it expects.
+   */
+  @State(Scope.Thread)
+  public static class Follower {
+
+    LedgerService follower;
+    int next;
+
+    @Setup(Level.Invocation)
+    public void restartWhenCaughtUp(LeaderChain chain) {
+      if (follower == null || next == chain.blocks.size()) {
+        close();
+        follower = chain.fixtures.follower();
+        next = 0;
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+      if (follower != null) {
+        follower.close();
+      }
+    }
+  }
+
+  @Benchmark
+  public void acceptReplicatedBlock(LeaderChain chain, Follower follower) {
+    follower.follower.acceptReplicatedBlock(chain.blocks.get(follower.next++));
+  }
+}
@@ -0,0 +1,73 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.infrastructure.adapter.HashingAdapter;
+
+/**
+ * Canonical block hashing ({@link CanonicalBlockEncoder}, which replaced
+ * {@code LedgerService#canonicalBlockFields}): the whole block for version 1, the header and
+ * Merkle root for version 2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CanonicalBlockEncoderBenchmark {
+
+  /**
+   * The same block in both versions.
+   */
+  @State(Scope.Benchmark)
+  public static class Blocks {
+
+    @Param({"10", "1000"})
+    int evidences;
+
+    Block version1;
+    Block version2;
+
+    @Setup(Level.Trial)
+    public void seal() {
+      LedgerService leader = new LedgerFixtures().leader();
+      version2 = LedgerFixtures.commitBlocks(leader, 1, evidences).get(0);
+      version1 = new Block(version2.height(), version2.timestamp(), version2.evidences(),
+          version2.previousHash(), version2.proposerNodeId(), version2.hash(),
+          version2.signature());
+      leader.close();
+    }
+  }
+
+  /**
+   * Encoders are not thread-safe: one per thread, like in {@link LedgerService}.
+   */
+  @State(Scope.Thread)
+  public static class Encoder {
+
+    final CanonicalBlockEncoder encoder =
+        new CanonicalBlockEncoder(new HashingAdapter().newSha256());
+  }
+
+  @Benchmark
+  public byte[] hashVersion1(Blocks blocks, Encoder encoder) {
+    return encoder.encoder.hash(blocks.version1);
+  }
+
+  @Benchmark
+  public byte[] hashVersion2(Blocks blocks, Encoder encoder) {
+    return encoder.encoder.hash(blocks.version2);
+  }
+}
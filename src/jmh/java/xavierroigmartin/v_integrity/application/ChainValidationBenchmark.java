@@ -0,0 +1,60 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xavierroigmartin.v_integrity.application.ChainValidationService.ValidationStatus;
+
+/**
+ * Full validation of the local chain ({@link ChainValidationService#validate(boolean)} with
+ * {@code full = true}), which replaced {@code LedgerService#isValidLocalChain}.
+ * <p>
+ * Runs are serialized by the service, so extra threads measure how long callers queue behind
+ * each other rather than a faster validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ChainValidationBenchmark {
+
+  private static final int EVIDENCES_PER_BLOCK = 100;
+
+  @Param({"1000", "10000"})
+  int blocks;
+
+  private LedgerService ledger;
+  private ChainValidationService validation;
+
+  @Setup(Level.Trial)
+  public void seal() {
+    LedgerFixtures fixtures = new LedgerFixtures();
+    ledger = fixtures.leader();
+    LedgerFixtures.commitBlocks(ledger, blocks, EVIDENCES_PER_BLOCK);
+    validation = fixtures.validation(ledger);
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    validation.close();
+    ledger.close();
+  }
+
+  @Benchmark
+  public ValidationStatus validateFullChain() {
+    return validation.validate(true);
+  }
+}
@@ -0,0 +1,59 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xavierroigmartin.v_integrity.domain.Block;
+
+/**
+ * {@link LedgerService#commitAsLeader(int, long)}: Merkle tree, hash, signature and append of one
+ * block.
+ * <p>
+ * The evidences of every block are submitted before the measured call. With several threads,
+ * blocks are committed concurrently and go through the commit pipeline together.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CommitBenchmark {
+
+  @Param({"10", "1000", "10000", "100000"})
+  int evidencesPerBlock;
+
+  private final LedgerFixtures fixtures = new LedgerFixtures();
+  private LedgerService ledger;
+
+  @Setup(Level.Iteration)
+  public void open() {
+    ledger = fixtures.leader();
+  }
+
+  @TearDown(Level.Iteration)
+  public void close() {
+    ledger.close();
+  }
+
+  @Setup(Level.Invocation)
+  public void fillMempool() {
+    LedgerFixtures.submit(ledger, evidencesPerBlock);
+  }
+
+  @Benchmark
+  public Block commitAsLeader() {
+    return ledger.commitAsLeader(evidencesPerBlock, Long.MAX_VALUE);
+  }
+}
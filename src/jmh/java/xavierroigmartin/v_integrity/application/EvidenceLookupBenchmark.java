@@ -0,0 +1,79 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xavierroigmartin.v_integrity.application.LedgerService.EvidenceProof;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+/**
+ * {@link LedgerService#findEvidenceByHash(String)} on large chains, for committed hashes picked
+ * at random and for unknown hashes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class EvidenceLookupBenchmark {
+
+  private static final int EVIDENCES_PER_BLOCK = 10_000;
+  private static final int UNKNOWN_HASHES = 1024;
+
+  @Param({"100000", "1000000"})
+  int chainEvidences;
+
+  private LedgerService ledger;
+  private String[] committedHashes;
+  private String[] unknownHashes;
+
+  @Setup(Level.Trial)
+  public void seal() {
+    ledger = new LedgerFixtures().leader();
+    committedHashes = new String[chainEvidences];
+    int i = 0;
+    for (Block block : LedgerFixtures.commitBlocks(ledger, chainEvidences / EVIDENCES_PER_BLOCK,
+        EVIDENCES_PER_BLOCK)) {
+      for (EvidenceRecord evidence : block.evidences()) {
+        committedHashes[i++] = evidence.hash();
+      }
+    }
+    unknownHashes = new String[UNKNOWN_HASHES];
+    for (int j = 0; j < UNKNOWN_HASHES; j++) {
+      // Never submitted, and not even in the evidence sequence range
+      unknownHashes[j] = String.format("%064x", Long.MAX_VALUE - j);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    ledger.close();
+  }
+
+  @Benchmark
+  public Optional<EvidenceProof> findCommittedHash() {
+    return ledger.findEvidenceByHash(
+        committedHashes[ThreadLocalRandom.current().nextInt(committedHashes.length)]);
+  }
+
+  @Benchmark
+  public Optional<EvidenceProof> findUnknownHash() {
+    return ledger.findEvidenceByHash(
+        unknownHashes[ThreadLocalRandom.current().nextInt(UNKNOWN_HASHES)]);
+  }
+}
@@ -0,0 +1,178 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
+import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
+import xavierroigmartin.v_integrity.application.port.out.ReplicationPort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.infrastructure.adapter.CryptoAdapter;
+import xavierroigmartin.v_integrity.infrastructure.adapter.HashingAdapter;
+import xavierroigmartin.v_integrity.infrastructure.adapter.InMemoryChainStorageAdapter;
+
+/**
+ * Ledgers and evidences for the benchmarks.
+ * <p>
+ * Ledgers use the real hashing, crypto and in-memory storage adapters, and no-op replication,
+ * logging and metrics ports, so the numbers only cover the ledger itself.
+ */
+final class LedgerFixtures {
+
+  static final String NODE_ID = "node-1";
+
+  // Evidence hashes must be unique across the whole run (duplicates are rejected)
+  private static final AtomicLong HASH_SEQUENCE = new AtomicLong();
+
+  private static final ReplicationPort NO_REPLICATION = (block, peers) -> {
+  };
+
+  private static final LogPort NO_LOGS = new LogPort() {
+    @Override
+    public boolean isBusinessEventEnabled() {
+      return false;
+    }
+
+    @Override
+    public void logBusinessEvent(String event, Map<String, Object> details) {
+    }
+
+    @Override
+    public void logBusinessError(String error, String message, Map<String, Object> details) {
+    }
+  };
+
+  private static final MetricsPort NO_METRICS = new MetricsPort() {
+    @Override
+    public void registerGauge(String name, String description, DoubleSupplier value) {
+    }
+
+    @Override
+    public void recordTime(String name, long nanos, String... tags) {
+    }
+
+    @Override
+    public void increment(String name, double amount, String... tags) {
+    }
+  };
+
+  private final NodeConfigurationPort leaderConfig;
+  private final NodeConfigurationPort followerConfig;
+  private final CryptoAdapter crypto = new CryptoAdapter();
+  private final HashingAdapter hashing = new HashingAdapter();
+
+  LedgerFixtures() {
+    KeyPair keys;
+    try {
+      keys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    Base64.Encoder base64 = Base64.getEncoder();
+    Map<String, String> allowed =
+        Map.of(NODE_ID, base64.encodeToString(keys.getPublic().getEncoded()));
+    String privateKey = base64.encodeToString(keys.getPrivate().getEncoded());
+    this.leaderConfig = new StaticNodeConfiguration(true, privateKey, allowed);
+    this.followerConfig = new StaticNodeConfiguration(false, null, allowed);
+  }
+
+  LedgerService leader() {
+    return ledger(leaderConfig);
+  }
+
+  LedgerService follower() {
+    return ledger(followerConfig);
+  }
+
+  ChainValidationService validation(LedgerService ledger) {
+    return new ChainValidationService(ledger, followerConfig, crypto, NO_LOGS);
+  }
+
+  /**
+   * Seals {@code blocks} blocks of {@code evidencesPerBlock} new evidences on the leader.
+   *
+   * @return The sealed blocks, in height order.
+   */
+  static List<Block> commitBlocks(LedgerService leader, int blocks, int evidencesPerBlock) {
+    List<Block> committed = new ArrayList<>(blocks);
+    for (int i = 0; i < blocks; i++) {
+      submit(leader, evidencesPerBlock);
+      committed.add(leader.commitAsLeader(evidencesPerBlock, Long.MAX_VALUE));
+    }
+    return committed;
+  }
+
+  /**
+   * Submits {@code count} new evidences, in batches of at most
+   * {@value LedgerService#MAX_BATCH_SIZE}.
+   */
+  static void submit(LedgerService ledger, int count) {
+    for (int submitted = 0; submitted < count; submitted += LedgerService.MAX_BATCH_SIZE) {
+      ledger.submitEvidences(evidences(Math.min(LedgerService.MAX_BATCH_SIZE, count - submitted)));
+    }
+  }
+
+  static List<EvidenceRecord> evidences(int count) {
+    List<EvidenceRecord> evidences = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      evidences.add(evidence());
+    }
+    return evidences;
+  }
+
+  static EvidenceRecord evidence() {
+    long sequence = HASH_SEQUENCE.incrementAndGet();
+    return new EvidenceRecord("EVD-" + sequence, "HOM-2025-0001", "RUN-" + (sequence % 97),
+        "report-" + sequence + ".pdf", "REPORT", "SHA-256", String.format("%064x", sequence),
+        1024L, "benchmark", null, List.of("ISO-26262", "UNECE-R155"), Instant.now());
+  }
+
+  private LedgerService ledger(NodeConfigurationPort nodeConfig) {
+    return new LedgerService(nodeConfig, hashing, crypto, NO_REPLICATION,
+        new InMemoryChainStorageAdapter(), NO_LOGS, NO_METRICS);
+  }
+
+  private record StaticNodeConfiguration(boolean leader, String privateKey,
+      Map<String, String> allowedKeys) implements NodeConfigurationPort {
+
+    @Override
+    public String getNodeId() {
+      return NODE_ID;
+    }
+
+    @Override
+    public boolean isLeader() {
+      return leader;
+    }
+
+    @Override
+    public List<String> getPeers() {
+      return List.of();
+    }
+
+    @Override
+    public String getPrivateKeyBase64() {
+      return privateKey;
+    }
+
+    @Override
+    public Map<String, String> getAllowedNodePublicKeys() {
+      return allowedKeys;
+    }
+
+    @Override
+    public int getCheckpointInterval() {
+      // Same as the default node configuration, so checkpointing is part of the append cost
+      return 1000;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+/**
+ * {@link LedgerService#submitEvidence(EvidenceRecord)} into an empty mempool.
+ * <p>
+ * Every iteration submits {@value #BATCH} evidences per thread into a fresh ledger, so the
+ * mempool size (and memory) stays the same from one iteration to the next.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = SubmitEvidenceBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = SubmitEvidenceBenchmark.BATCH)
+@Fork(1)
+public class SubmitEvidenceBenchmark {
+
+  static final int BATCH = 100_000;
+
+  /**
+   * The ledger shared by all threads.
+   */
+  @State(Scope.Benchmark)
+  public static class Ledger {
+
+    private final LedgerFixtures fixtures = new LedgerFixtures();
+    LedgerService ledger;
+
+    @Setup(Level.Iteration)
+    public void open() {
+      ledger = fixtures.leader();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+      ledger.close();
+    }
+  }
+
+  /**
+   * Evidences submitted by one thread, created before the iteration starts.
+   */
+  @State(Scope.Thread)
+  public static class Evidences {
+
+    List<EvidenceRecord> evidences;
+    int next;
+
+    @Setup(Level.Iteration)
+    public void create() {
+      evidences = LedgerFixtures.evidences(BATCH);
+      next = 0;
+    }
+  }
+
+  @Benchmark
+  public EvidenceRecord submitEvidence(Ledger ledger, Evidences evidences) {
+    return ledger.ledger.submitEvidence(evidences.evidences.get(evidences.next++));
+  }
+}
@@ -0,0 +1,60 @@
+package xavierroigmartin.v_integrity.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the ledger benchmarks once per thread count and keeps a JSON result file per run, so
+ * numbers taken before and after a change can be compared side by side.
+ * <p>
+ * Arguments are regular JMH command line options (e.g., a benchmark regex or
+ * {@code -p evidencesPerBlock=10}). System properties:
+ * <ul>
+ *     <li>{@code jmh.threads}: comma-separated thread counts (default
+ *     {@value #DEFAULT_THREADS}).</li>
+ *     <li>{@code jmh.results}: directory of the result files (default
+ *     {@value #DEFAULT_RESULTS}), named {@code threads-N.json}.</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+  private static final String DEFAULT_INCLUDE = "xavierroigmartin\\.v_integrity\\..*Benchmark";
+  private static final String DEFAULT_THREADS = "1,4,16";
+  private static final String DEFAULT_RESULTS = "target/jmh";
+
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args)
+      throws CommandLineOptionException, IOException, RunnerException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    int[] threadCounts = Arrays.stream(System.getProperty("jmh.threads", DEFAULT_THREADS)
+            .split(","))
+        .map(String::trim)
+        .filter(count -> !count.isEmpty())
+        .mapToInt(Integer::parseInt)
+        .toArray();
+    Path results = Path.of(System.getProperty("jmh.results", DEFAULT_RESULTS));
+    Files.createDirectories(results);
+
+    for (int threads : threadCounts) {
+      OptionsBuilder options = new OptionsBuilder();
+      options.parent(commandLine)
+          .threads(threads)
+          .resultFormat(ResultFormatType.JSON)
+          .result(results.resolve("threads-" + threads + ".json").toString());
+      if (commandLine.getIncludes().isEmpty()) {
+        options.include(DEFAULT_INCLUDE);
+      }
+      new Runner(options.build()).run();
+    }
+  }
+}
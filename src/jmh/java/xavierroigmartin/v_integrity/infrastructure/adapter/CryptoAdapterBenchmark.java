@@ -0,0 +1,80 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ed25519 signing and verification through {@link CryptoAdapter}, with its key cache warm, for a
+ * block-hash-sized message. The batch variant verifies {@value #BATCH} signatures per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoAdapterBenchmark {
+
+  private static final int BATCH = 100;
+
+  private final CryptoAdapter crypto = new CryptoAdapter();
+  private String privateKey;
+  private String publicKey;
+  private byte[] message;
+  private String signature;
+  private List<byte[]> batchMessages;
+  private List<String> batchSignatures;
+
+  @Setup(Level.Trial)
+  public void sign() throws Exception {
+    KeyPair keys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    privateKey = Base64.getEncoder().encodeToString(keys.getPrivate().getEncoded());
+    publicKey = Base64.getEncoder().encodeToString(keys.getPublic().getEncoded());
+    message = "ab".repeat(32).getBytes(StandardCharsets.UTF_8);
+    signature = crypto.signEd25519(message, privateKey);
+    batchMessages = new ArrayList<>(BATCH);
+    batchSignatures = new ArrayList<>(BATCH);
+    for (int i = 0; i < BATCH; i++) {
+      byte[] blockHash = String.format("%064x", i).getBytes(StandardCharsets.UTF_8);
+      batchMessages.add(blockHash);
+      batchSignatures.add(crypto.signEd25519(blockHash, privateKey));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    crypto.close();
+  }
+
+  @Benchmark
+  public String signEd25519() {
+    return crypto.signEd25519(message, privateKey);
+  }
+
+  @Benchmark
+  public boolean verifyEd25519() {
+    return crypto.verifyEd25519(message, signature, publicKey);
+  }
+
+  @Benchmark
+  public boolean[] verifyEd25519Batch() {
+    return crypto.verifyEd25519Batch(batchMessages, batchSignatures, publicKey);
+  }
+}
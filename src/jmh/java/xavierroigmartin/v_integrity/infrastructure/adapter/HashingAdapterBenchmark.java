@@ -0,0 +1,43 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link HashingAdapter#sha256Hex(String)} for evidence-sized to block-sized inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashingAdapterBenchmark {
+
+  @Param({"64", "1024", "65536"})
+  int inputChars;
+
+  private final HashingAdapter hashing = new HashingAdapter();
+  private String input;
+
+  @Setup(Level.Trial)
+  public void createInput() {
+    input = "evidence|".repeat(inputChars / 9 + 1).substring(0, inputChars);
+  }
+
+  @Benchmark
+  public String sha256Hex() {
+    return hashing.sha256Hex(input);
+  }
+}
@@ -0,0 +1,64 @@
+package xavierroigmartin.v_integrity.loadgen;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latencies of one kind and reports their percentiles.
+ * <p>
+ * Every sample is kept (a run produces at most a few million), so percentiles are exact.
+ */
+final class LatencyRecorder {
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private final String name;
+  private long[] samples = new long[1024];
+  private int count;
+  private long errors;
+
+  LatencyRecorder(String name) {
+    this.name = name;
+  }
+
+  synchronized void record(long nanos) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, count * 2);
+    }
+    samples[count++] = nanos;
+  }
+
+  synchronized void recordError() {
+    errors++;
+  }
+
+  /**
+   * @return One report line: sample and error counts, percentiles and maximum in milliseconds.
+   */
+  synchronized String report() {
+    StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-28s n=%-8d errors=%-6d",
+        name, count, errors));
+    if (count == 0) {
+      return line.toString();
+    }
+    long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    for (double percentile : PERCENTILES) {
+      int index = (int) Math.ceil(percentile / 100 * count) - 1;
+      line.append(String.format(Locale.ROOT, " p%s=%.1fms", format(percentile),
+          millis(sorted[Math.max(0, index)])));
+    }
+    line.append(String.format(Locale.ROOT, " max=%.1fms", millis(sorted[count - 1])));
+    return line.toString();
+  }
+
+  private static String format(double percentile) {
+    return percentile == Math.rint(percentile)
+        ? String.valueOf((long) percentile) : String.valueOf(percentile);
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
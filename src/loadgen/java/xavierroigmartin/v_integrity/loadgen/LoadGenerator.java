@@ -0,0 +1,285 @@
+package xavierroigmartin.v_integrity.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import xavierroigmartin.v_integrity.application.LedgerService;
+
+/**
+ * Drives a local three-node cluster ({@link LocalCluster}) with a configurable request mix and
+ * reports latency percentiles, so scaling limits can be found without a real deployment.
+ * <ul>
+ *     <li>Requests are issued at a fixed {@code rate}, each on its own virtual thread. Latencies
+ *     are measured from the time a request was due, not when it was sent, so a saturated node
+ *     cannot hide its queueing delay.</li>
+ *     <li>The mix is submits to the leader, verifies on the leader and hash lookups on a random
+ *     running node.</li>
+ *     <li>Blocks are committed every {@code commitInterval}, or sealed by the leader itself when
+ *     it is zero.</li>
+ *     <li>Every {@code killInterval}, a follower is stopped for {@code downtime} and restarted. Its
+ *     catch-up time is measured until it reaches the leader height seen at restart.</li>
+ * </ul>
+ * Usage: {@code LoadGenerator [--rate=200] [--duration=60s] [--commitInterval=250ms]
+ * [--verifyRatio=0.2] [--lookupRatio=0.1] [--killInterval=20s] [--downtime=5s]
+ * [--basePort=18081] [--businessLog=false]}.
+ */
+public final class LoadGenerator {
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+  private static final Duration REPORT_EVERY = Duration.ofSeconds(5);
+  // Submitted hashes that verifies and lookups pick from
+  private static final int RECENT_HASHES = 4096;
+
+  private final LoadOptions options;
+  private final LocalCluster cluster;
+  private final ReplicationTracker tracker;
+  private final HttpClient http = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(2))
+      .build();
+  private final LatencyRecorder submits = new LatencyRecorder("submit");
+  private final LatencyRecorder verifies = new LatencyRecorder("verify");
+  private final LatencyRecorder lookups = new LatencyRecorder("lookup");
+  private final LatencyRecorder commits = new LatencyRecorder("commit");
+  private final LatencyRecorder restarts = new LatencyRecorder("restart -> ready");
+  private final LatencyRecorder catchUps = new LatencyRecorder("restart -> caught up");
+  private final List<String> catchUpDetails = new ArrayList<>();
+  // Random run prefix: hashes never collide with a previous run sharing the same storage
+  private final long runId = ThreadLocalRandom.current().nextLong();
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicReferenceArray<String> recentHashes =
+      new AtomicReferenceArray<>(RECENT_HASHES);
+  private final AtomicLong submitted = new AtomicLong();
+
+  private LoadGenerator(LoadOptions options, LocalCluster cluster) {
+    this.options = options;
+    this.cluster = cluster;
+    this.tracker = new ReplicationTracker(cluster.followers());
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadOptions options = LoadOptions.parse(args);
+    try (LocalCluster cluster = new LocalCluster(options)) {
+      System.out.println("Starting 3 nodes from port " + options.basePort() + "...");
+      cluster.start();
+      new LoadGenerator(options, cluster).run();
+    }
+  }
+
+  private void run() throws InterruptedException {
+    System.out.println("Running " + options);
+    long start = System.nanoTime();
+    long end = start + options.duration().toNanos();
+    // Platform threads: restarting a node runs a whole Spring startup, which would pin the
+    // carrier of a virtual thread while it waits for the virtual threads of its own sync
+    Thread committer = options.commitInterval().isZero()
+        ? null : Thread.ofPlatform().name("loadgen-committer").start(() -> commitLoop(end));
+    Thread killer = options.killInterval().isZero()
+        ? null : Thread.ofPlatform().name("loadgen-killer").start(() -> killLoop(end));
+
+    try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+      long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+      long nextReport = start + REPORT_EVERY.toNanos();
+      for (long due = start; due < end; due += interval) {
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+        long dueNanos = due;
+        requests.submit(() -> request(dueNanos));
+        if (due >= nextReport) {
+          progress(due - start);
+          nextReport += REPORT_EVERY.toNanos();
+        }
+      }
+    }
+    if (committer != null) {
+      committer.join();
+    }
+    if (killer != null) {
+      killer.join();
+    }
+
+    System.out.println("Load finished, waiting for the followers to replicate everything...");
+    if (!options.commitInterval().isZero()) {
+      // Commit the tail of the mempool (automatic sealing flushes it on its own)
+      commit();
+    }
+    if (!tracker.awaitReplicated(DRAIN_TIMEOUT)) {
+      System.out.println(tracker.pendingCount() + " evidences never reached every follower");
+    }
+    tracker.close();
+    report(System.nanoTime() - start);
+  }
+
+  private void request(long dueNanos) {
+    double pick = ThreadLocalRandom.current().nextDouble();
+    String known = randomSubmittedHash();
+    if (known != null && pick < options.verifyRatio()) {
+      send(verifies, dueNanos, post(cluster.leader().url() + "/api/verify",
+          "{\"hash\":\"" + known + "\"}"), 200);
+    } else if (known != null && pick < options.verifyRatio() + options.lookupRatio()) {
+      LocalCluster.Node node = cluster.nodes()
+          .get(ThreadLocalRandom.current().nextInt(cluster.nodes().size()));
+      if (node.ledger() == null) {
+        // A killed follower: look the hash up on the leader instead
+        node = cluster.leader();
+      }
+      // Not found yet (on a lagging follower) is a valid answer
+      send(lookups, dueNanos, HttpRequest.newBuilder(
+          URI.create(node.url() + "/api/evidences/hash/" + known)).timeout(REQUEST_TIMEOUT)
+          .GET().build(), 200, 404);
+    } else {
+      submit(dueNanos);
+    }
+  }
+
+  private void submit(long dueNanos) {
+    String hash = String.format("%016x%048x", runId, sequence.incrementAndGet());
+    String body = """
+        {"homologationId":"HOM-LOAD","testRunId":"RUN-%d","artifactName":"load-%s.log",\
+        "artifactType":"LOG","hashAlgorithm":"SHA-256","hash":"%s","sizeBytes":1024,\
+        "createdBy":"loadgen","standards":["ISO-26262"]}"""
+        .formatted(ThreadLocalRandom.current().nextInt(100), hash, hash);
+    tracker.submitting(hash, dueNanos);
+    if (send(submits, dueNanos, post(cluster.leader().url() + "/api/evidences", body), 200, 201)) {
+      long n = submitted.getAndIncrement();
+      recentHashes.set((int) (n % RECENT_HASHES), hash);
+    } else {
+      tracker.failed(hash);
+    }
+  }
+
+  private void commitLoop(long end) {
+    long interval = options.commitInterval().toNanos();
+    for (long due = System.nanoTime() + interval; due < end; due += interval) {
+      LockSupport.parkNanos(due - System.nanoTime());
+      commit();
+    }
+  }
+
+  private void commit() {
+    LedgerService leader = cluster.leader().ledger();
+    if (leader != null && leader.pendingEvidences().count() > 0) {
+      send(commits, System.nanoTime(),
+          post(cluster.leader().url() + "/api/blocks/commit", ""), 201);
+    }
+  }
+
+  private void killLoop(long end) {
+    List<LocalCluster.Node> followers = cluster.followers();
+    int next = 0;
+    try {
+      while (System.nanoTime() + options.killInterval().toNanos() < end) {
+        Thread.sleep(options.killInterval());
+        LocalCluster.Node follower = followers.get(next++ % followers.size());
+        follower.stop();
+        Thread.sleep(options.downtime());
+        restart(follower);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void restart(LocalCluster.Node follower) throws InterruptedException {
+    long target = cluster.leader().ledger().latestBlock().height();
+    long behind = target - tracker.lastHeight(follower);
+    long start = System.nanoTime();
+    follower.start();
+    long ready = System.nanoTime();
+    restarts.record(ready - start);
+    long deadline = ready + DRAIN_TIMEOUT.toNanos();
+    LedgerService ledger = follower.ledger();
+    while (ledger.latestBlock().height() < target) {
+      if (System.nanoTime() > deadline) {
+        catchUps.recordError();
+        return;
+      }
+      Thread.sleep(1);
+    }
+    long caughtUp = System.nanoTime() - start;
+    catchUps.record(caughtUp);
+    synchronized (catchUpDetails) {
+      catchUpDetails.add(String.format(Locale.ROOT, "%s: %d blocks behind, caught up in %d ms",
+          follower.name(), behind, TimeUnit.NANOSECONDS.toMillis(caughtUp)));
+    }
+  }
+
+  private boolean send(LatencyRecorder recorder, long dueNanos, HttpRequest request,
+      int... okStatuses) {
+    try {
+      int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+      for (int ok : okStatuses) {
+        if (status == ok) {
+          recorder.record(System.nanoTime() - dueNanos);
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      // Connection refused, timeout: counted as an error below
+    }
+    recorder.recordError();
+    return false;
+  }
+
+  private HttpRequest post(String url, String json) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private String randomSubmittedHash() {
+    long count = submitted.get();
+    if (count == 0) {
+      return null;
+    }
+    int available = (int) Math.min(count, RECENT_HASHES);
+    return recentHashes.get(ThreadLocalRandom.current().nextInt(available));
+  }
+
+  private void progress(long elapsedNanos) {
+    StringBuilder heights = new StringBuilder();
+    for (LocalCluster.Node node : cluster.nodes()) {
+      LedgerService ledger = node.ledger();
+      heights.append(' ').append(node.name()).append('=')
+          .append(ledger == null ? "down" : String.valueOf(ledger.latestBlock().height()));
+    }
+    System.out.printf(Locale.ROOT, "[%3ds] submitted=%d awaiting replication=%d heights:%s%n",
+        TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), submitted.get(), tracker.pendingCount(),
+        heights);
+  }
+
+  private void report(long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    System.out.println();
+    System.out.printf(Locale.ROOT, "Run of %.1f s: %d evidences submitted (%.0f/s), leader "
+            + "height %d%n", seconds, submitted.get(), submitted.get() / seconds,
+        cluster.leader().ledger().latestBlock().height());
+    List<LatencyRecorder> all = new ArrayList<>(List.of(submits, verifies, lookups, commits));
+    all.addAll(tracker.recorders());
+    all.add(restarts);
+    all.add(catchUps);
+    all.forEach(recorder -> System.out.println(recorder.report()));
+    synchronized (catchUpDetails) {
+      catchUpDetails.forEach(detail -> System.out.println("  " + detail));
+    }
+  }
+}
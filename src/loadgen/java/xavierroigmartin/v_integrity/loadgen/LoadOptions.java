@@ -0,0 +1,82 @@
+package xavierroigmartin.v_integrity.loadgen;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a load generation run, read from {@code --name=value} arguments.
+ *
+ * @param rate           Requests per second against the cluster (submits, verifies and lookups).
+ * @param duration       How long load is generated.
+ * @param commitInterval Time between two {@code POST /api/blocks/commit} calls; zero lets the
+ *                       leader seal blocks on its own ({@code ledger.sealing}).
+ * @param verifyRatio    Share of requests that are {@code POST /api/verify} of a submitted hash.
+ * @param lookupRatio    Share of requests that are {@code GET /api/evidences/hash/{hash}} on a
+ *                       random node.
+ * @param killInterval   Time between two follower kills; zero never kills a follower.
+ * @param downtime       How long a killed follower stays down before it restarts.
+ * @param basePort       HTTP port of the leader; followers use the next two ports.
+ * @param businessLog    True to keep the business log of the nodes (very verbose under load).
+ */
+record LoadOptions(int rate, Duration duration, Duration commitInterval, double verifyRatio,
+    double lookupRatio, Duration killInterval, Duration downtime, int basePort,
+    boolean businessLog) {
+
+  private static final Set<String> NAMES = Set.of("rate", "duration", "commitInterval",
+      "verifyRatio", "lookupRatio", "killInterval", "downtime", "basePort", "businessLog");
+
+  LoadOptions {
+    if (rate <= 0) {
+      throw new IllegalArgumentException("rate must be positive");
+    }
+    if (verifyRatio < 0 || lookupRatio < 0 || verifyRatio + lookupRatio > 1) {
+      throw new IllegalArgumentException("verifyRatio and lookupRatio must add up to at most 1");
+    }
+  }
+
+  /**
+   * @param args {@code --name=value} pairs; durations use the {@code 500ms}, {@code 30s} or
+   *             {@code 2m} format.
+   * @throws IllegalArgumentException for an unknown name or a malformed value.
+   */
+  static LoadOptions parse(String... args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+      }
+      String name = arg.substring(2, separator);
+      if (!NAMES.contains(name)) {
+        throw new IllegalArgumentException("Unknown option: " + name + " (known: " + NAMES + ")");
+      }
+      values.put(name, arg.substring(separator + 1));
+    }
+    return new LoadOptions(
+        Integer.parseInt(values.getOrDefault("rate", "200")),
+        duration(values.getOrDefault("duration", "60s")),
+        duration(values.getOrDefault("commitInterval", "250ms")),
+        Double.parseDouble(values.getOrDefault("verifyRatio", "0.2")),
+        Double.parseDouble(values.getOrDefault("lookupRatio", "0.1")),
+        duration(values.getOrDefault("killInterval", "20s")),
+        duration(values.getOrDefault("downtime", "5s")),
+        Integer.parseInt(values.getOrDefault("basePort", "18081")),
+        Boolean.parseBoolean(values.getOrDefault("businessLog", "false")));
+  }
+
+  private static Duration duration(String value) {
+    String v = value.trim();
+    if (v.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+    }
+    long amount = Long.parseLong(v.substring(0, v.length() - 1));
+    return switch (v.charAt(v.length() - 1)) {
+      case 's' -> Duration.ofSeconds(amount);
+      case 'm' -> Duration.ofMinutes(amount);
+      default -> throw new IllegalArgumentException("Expected a duration like 500ms, 30s or 2m: "
+          + value);
+    };
+  }
+}
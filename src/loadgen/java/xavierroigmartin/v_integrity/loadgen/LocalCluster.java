@@ -0,0 +1,174 @@
+package xavierroigmartin.v_integrity.loadgen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import xavierroigmartin.v_integrity.VIntegrityApplication;
+import xavierroigmartin.v_integrity.application.LedgerService;
+
+/**
+ * A leader and two followers running in this JVM, each in its own Spring context on a localhost
+ * port, like the three nodes of {@code docker-compose.yml}.
+ * <p>
+ * The followers use the {@code node2} and {@code node3} profiles. Ports, peers, a fresh Ed25519
+ * key pair and a temporary storage directory per node are passed as command line arguments, so
+ * they override the profile files. Storage is enabled, so a restarted follower replays its block
+ * log and only syncs the blocks it missed while it was down.
+ */
+final class LocalCluster implements AutoCloseable {
+
+  private final List<Node> nodes = new ArrayList<>();
+  private final Path storage;
+
+  /**
+   * @param options Ports, commit mode (automatic sealing when {@code commitInterval} is zero) and
+   *                business log setting.
+   */
+  LocalCluster(LoadOptions options) throws IOException {
+    KeyPair keys;
+    try {
+      keys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    String privateKey = Base64.getEncoder().encodeToString(keys.getPrivate().getEncoded());
+    String publicKey = Base64.getEncoder().encodeToString(keys.getPublic().getEncoded());
+    storage = Files.createTempDirectory("v-integrity-loadgen");
+    String leaderUrl = url(options.basePort());
+    String followerUrls = url(options.basePort() + 1) + "," + url(options.basePort() + 2);
+    boolean autoSeal = options.commitInterval().isZero();
+
+    for (int i = 0; i < 3; i++) {
+      int port = options.basePort() + i;
+      String name = "node-" + (i + 1);
+      List<String> args = new ArrayList<>(List.of(
+          "--server.port=" + port,
+          "--ledger.node.nodeId=" + name,
+          "--ledger.node.leader=" + (i == 0),
+          "--ledger.node.peers=" + (i == 0 ? followerUrls : leaderUrl),
+          "--ledger.node.allowedNodePublicKeys.node-1=" + publicKey,
+          "--ledger.storage.enabled=true",
+          "--ledger.storage.directory=" + storage.resolve(name),
+          "--spring.main.banner-mode=off",
+          "--logging.level.root=WARN",
+          "--logging.level.xavierroigmartin.v_integrity=WARN",
+          "--logging.level.business-logger=" + (options.businessLog() ? "INFO" : "OFF")));
+      if (i == 0) {
+        args.add("--ledger.node.privateKeyBase64=" + privateKey);
+        args.add("--ledger.sealing.enabled=" + autoSeal);
+      }
+      nodes.add(new Node(name, i == 0 ? null : "node" + (i + 1), url(port), args));
+    }
+  }
+
+  /**
+   * Starts the leader, then the followers.
+   */
+  void start() {
+    nodes.forEach(Node::start);
+  }
+
+  Node leader() {
+    return nodes.get(0);
+  }
+
+  List<Node> followers() {
+    return nodes.subList(1, nodes.size());
+  }
+
+  List<Node> nodes() {
+    return nodes;
+  }
+
+  /**
+   * Stops the followers, then the leader, and deletes the block logs.
+   */
+  @Override
+  public void close() throws IOException {
+    for (int i = nodes.size() - 1; i >= 0; i--) {
+      nodes.get(i).stop();
+    }
+    try (Stream<Path> files = Files.walk(storage)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  private static String url(int port) {
+    return "http://localhost:" + port;
+  }
+
+  /**
+   * One node and its current Spring context, if it is running.
+   */
+  static final class Node {
+
+    private final String name;
+    private final String profile;
+    private final String url;
+    private final List<String> args;
+    private volatile ConfigurableApplicationContext context;
+
+    private Node(String name, String profile, String url, List<String> args) {
+      this.name = name;
+      this.profile = profile;
+      this.url = url;
+      this.args = args;
+    }
+
+    String name() {
+      return name;
+    }
+
+    String url() {
+      return url;
+    }
+
+    /**
+     * Starts the node and returns once it is ready, which for a follower includes its startup
+     * sync from the leader.
+     */
+    synchronized void start() {
+      SpringApplicationBuilder builder = new SpringApplicationBuilder(VIntegrityApplication.class);
+      if (profile != null) {
+        builder.profiles(profile);
+      }
+      context = builder.run(args.toArray(String[]::new));
+    }
+
+    synchronized void stop() {
+      ConfigurableApplicationContext running = context;
+      context = null;
+      if (running != null) {
+        running.close();
+      }
+    }
+
+    /**
+     * @return The node's ledger, or null while the node is down.
+     */
+    LedgerService ledger() {
+      ConfigurableApplicationContext running = context;
+      if (running == null) {
+        return null;
+      }
+      try {
+        return running.getBean(LedgerService.class);
+      } catch (IllegalStateException e) {
+        // Stopped concurrently
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package xavierroigmartin.v_integrity.loadgen;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import xavierroigmartin.v_integrity.application.LedgerService;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+/**
+ * Measures the end-to-end latency from submitting an evidence to the leader until it is in a
+ * block on the first follower and on every follower.
+ * <p>
+ * A background thread reads the new blocks of every running follower straight from its ledger,
+ * every {@value #POLL_MILLIS} ms. Evidences submitted while a follower is down are only counted
+ * once that follower has caught up again, so kills show up in the tail of the latency.
+ */
+final class ReplicationTracker implements AutoCloseable {
+
+  private static final long POLL_MILLIS = 2;
+  private static final int BLOCKS_PER_POLL = 1000;
+
+  private final List<LocalCluster.Node> followers;
+  private final AtomicLongArray nextHeight;
+  private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+  private final LatencyRecorder firstFollower = new LatencyRecorder("submit -> first follower");
+  private final LatencyRecorder allFollowers = new LatencyRecorder("submit -> all followers");
+  private final Thread poller;
+
+  ReplicationTracker(List<LocalCluster.Node> followers) {
+    this.followers = followers;
+    this.nextHeight = new AtomicLongArray(followers.size());
+    for (int i = 0; i < followers.size(); i++) {
+      nextHeight.set(i, 1);
+    }
+    this.poller = Thread.ofPlatform().daemon().name("replication-tracker").start(this::poll);
+  }
+
+  /**
+   * Registers an evidence before it is submitted, so a fast commit cannot replicate it before it
+   * is known.
+   */
+  void submitting(String hash, long startNanos) {
+    pending.put(hash, new Pending(startNanos));
+  }
+
+  /**
+   * Forgets an evidence whose submission failed.
+   */
+  void failed(String hash) {
+    pending.remove(hash);
+  }
+
+  /**
+   * @return The height of the last block seen on the follower (0 before the first one).
+   */
+  long lastHeight(LocalCluster.Node follower) {
+    return nextHeight.get(followers.indexOf(follower)) - 1;
+  }
+
+  int pendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Waits until every submitted evidence reached all followers.
+   *
+   * @return true if nothing is pending any more before the timeout.
+   */
+  boolean awaitReplicated(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (!pending.isEmpty()) {
+      if (System.nanoTime() > deadline) {
+        return false;
+      }
+      Thread.sleep(10);
+    }
+    return true;
+  }
+
+  List<LatencyRecorder> recorders() {
+    return List.of(firstFollower, allFollowers);
+  }
+
+  @Override
+  public void close() {
+    poller.interrupt();
+  }
+
+  private void poll() {
+    try {
+      while (true) {
+        for (int i = 0; i < followers.size(); i++) {
+          LedgerService ledger = followers.get(i).ledger();
+          if (ledger != null) {
+            readNewBlocks(i, ledger);
+          }
+        }
+        TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void readNewBlocks(int follower, LedgerService ledger) {
+    List<Block> blocks = ledger.getBlocksFromHeight(nextHeight.get(follower), BLOCKS_PER_POLL);
+    long now = System.nanoTime();
+    for (Block block : blocks) {
+      for (EvidenceRecord evidence : block.evidences()) {
+        Pending entry = pending.get(evidence.hash());
+        if (entry == null) {
+          continue;
+        }
+        int seen = entry.followers.incrementAndGet();
+        if (seen == 1) {
+          firstFollower.record(now - entry.startNanos);
+        }
+        if (seen == followers.size()) {
+          allFollowers.record(now - entry.startNanos);
+          pending.remove(evidence.hash());
+        }
+      }
+      nextHeight.set(follower, block.height() + 1);
+    }
+  }
+
+  /**
+   * A submitted evidence and the number of followers that have it so far.
+   */
+  private static final class Pending {
+
+    private final long startNanos;
+    private final AtomicInteger followers = new AtomicInteger();
+
+    private Pending(long startNanos) {
+      this.startNanos = startNanos;
+    }
+  }
+}
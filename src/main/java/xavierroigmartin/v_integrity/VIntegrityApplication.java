@@ -9,10 +9,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.BusinessLogProperties;
 import xavierroigmartin.v_integrity.infrastructure.config.NodeProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.ReplicationProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.SealingProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.StorageProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(NodeProperties.class)
+@EnableConfigurationProperties({NodeProperties.class, StorageProperties.class,
+    ReplicationProperties.class, SealingProperties.class, BusinessLogProperties.class})
 public class VIntegrityApplication {
 
   private static final Logger logger = LoggerFactory.getLogger(VIntegrityApplication.class);
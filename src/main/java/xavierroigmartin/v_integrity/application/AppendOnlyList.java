@@ -0,0 +1,115 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Chunked, append-only list with a single writer and lock-free readers.
+ * <p>
+ * Elements live in fixed-size chunks that are never moved once allocated, and the number of
+ * published elements is a volatile field. The writer stores an element (and, when needed, a grown
+ * chunk directory) before incrementing the size, so any reader that observes a size can read every
+ * element below it without locking. {@link #snapshot()} captures the current size and returns an
+ * immutable view that later appends do not affect.
+ *
+ * @param <E> The element type.
+ */
+final class AppendOnlyList<E> {
+
+  private static final int CHUNK_BITS = 10;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private volatile Object[][] chunks = new Object[16][];
+  private volatile int size;
+
+  /**
+   * Appends an element. Must only be called by the single writer.
+   *
+   * @param element The element to append.
+   */
+  void add(E element) {
+    int n = size;
+    int chunk = n >>> CHUNK_BITS;
+    Object[][] directory = chunks;
+    if (chunk == directory.length) {
+      Object[][] grown = new Object[directory.length * 2][];
+      System.arraycopy(directory, 0, grown, 0, directory.length);
+      directory = grown;
+      chunks = grown;
+    }
+    if (directory[chunk] == null) {
+      directory[chunk] = new Object[CHUNK_SIZE];
+    }
+    directory[chunk][n & CHUNK_MASK] = element;
+    size = n + 1;
+  }
+
+  /**
+   * @param index The element index, which must be lower than a previously observed size.
+   * @return The element at that index.
+   */
+  @SuppressWarnings("unchecked")
+  E get(int index) {
+    return (E) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+  }
+
+  /**
+   * @return The number of published elements.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return true if no element has been published yet.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return The last published element, or null if the list is empty.
+   */
+  E last() {
+    int n = size;
+    return n == 0 ? null : get(n - 1);
+  }
+
+  /**
+   * @return An immutable view of the elements published so far.
+   */
+  List<E> snapshot() {
+    int n = size;
+    return new Snapshot<>(chunks, n);
+  }
+
+  /**
+   * Immutable, fixed-size view over the chunks captured at snapshot time.
+   */
+  private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+
+    private final Object[][] chunks;
+    private final int size;
+
+    Snapshot(Object[][] chunks, int size) {
+      this.chunks = chunks;
+      this.size = size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+      }
+      return (E) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
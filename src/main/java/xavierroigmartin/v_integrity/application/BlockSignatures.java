@@ -0,0 +1,62 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import xavierroigmartin.v_integrity.application.port.out.CryptoPort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.HexCodec;
+
+/**
+ * Verifies the proposer signatures of a run of blocks with as few batch calls as possible.
+ * <p>
+ * Blocks are grouped by proposer and each group is handed to
+ * {@link CryptoPort#verifyEd25519Batch(List, List, String)}, so consecutive blocks from the same
+ * leader (the common case during catch-up and validation) are verified in parallel.
+ */
+final class BlockSignatures {
+
+  private BlockSignatures() {
+  }
+
+  /**
+   * @param blocks      The blocks to verify.
+   * @param allowedKeys Public keys of the authorized proposers, by node id.
+   * @param crypto      The crypto port.
+   * @return For each block, true if its proposer is authorized and its signature is valid.
+   */
+  static boolean[] verify(List<Block> blocks, Map<String, String> allowedKeys,
+      CryptoPort crypto) {
+    Map<String, List<Integer>> byProposer = new LinkedHashMap<>();
+    for (int i = 0; i < blocks.size(); i++) {
+      byProposer.computeIfAbsent(blocks.get(i).proposerNodeId(), p -> new ArrayList<>()).add(i);
+    }
+
+    boolean[] valid = new boolean[blocks.size()];
+    for (Map.Entry<String, List<Integer>> group : byProposer.entrySet()) {
+      String pubKey = allowedKeys.get(group.getKey());
+      if (pubKey == null || pubKey.isBlank()) {
+        continue;
+      }
+      List<Integer> indexes = new ArrayList<>(group.getValue().size());
+      List<byte[]> messages = new ArrayList<>(indexes.size());
+      List<String> signatures = new ArrayList<>(indexes.size());
+      for (int index : group.getValue()) {
+        Block block = blocks.get(index);
+        byte[] hash = HexCodec.tryDecode(block.hash());
+        // A malformed hash cannot carry a valid signature; the hash check reports it
+        if (hash != null) {
+          indexes.add(index);
+          messages.add(hash);
+          signatures.add(block.signature());
+        }
+      }
+      boolean[] groupValid = crypto.verifyEd25519Batch(messages, signatures, pubKey);
+      for (int i = 0; i < indexes.size(); i++) {
+        valid[indexes.get(i)] = groupValid[i];
+      }
+    }
+    return valid;
+  }
+}
@@ -0,0 +1,384 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import xavierroigmartin.v_integrity.application.port.out.IncrementalDigest;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+/**
+ * Streams the canonical form of a block into an {@link IncrementalDigest}.
+ * <p>
+ * The canonical evidence form is the comma-separated list of its fields followed by its sorted
+ * standards joined with {@code +}. Block hashes are the SHA-256 of the UTF-8 encoding of:
+ * <ul>
+ *     <li>version 1: {@code height=H|ts=T|prev=P|proposer=N|evidences=E1;E2;...}, with the
+ *     evidences sorted by evidenceId;</li>
+ *     <li>version 2: {@code version=2|height=H|ts=T|prev=P|proposer=N|merkle=R}, where R is the
+ *     {@link MerkleTree} root over the evidences.</li>
+ * </ul>
+ * These forms must never change: existing chains would stop validating.
+ * <p>
+ * Instead of building the form as a {@code String} and encoding it again, fields are encoded
+ * straight into a reusable byte buffer that is flushed into the digest whenever it fills up.
+ * Timestamps are written in the {@link Instant#toString()} format without allocating. Instances
+ * are not thread-safe; {@link LedgerService} keeps one per thread.
+ */
+final class CanonicalBlockEncoder {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final Comparator<EvidenceRecord> BY_EVIDENCE_ID =
+      Comparator.comparing(EvidenceRecord::evidenceId);
+
+  // Range where Instant#toString() prints a plain four-digit year: [0000-01-01, 10000-01-01)
+  private static final long MIN_FAST_EPOCH_SECOND = -62_167_219_200L;
+  private static final long MAX_FAST_EPOCH_SECOND = 253_402_300_800L;
+  private static final long SECONDS_PER_DAY = 86_400L;
+
+  private final IncrementalDigest digest;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private EvidenceRecord[] sortBuffer = new EvidenceRecord[16];
+  private String[] standardsBuffer = new String[4];
+
+  CanonicalBlockEncoder(IncrementalDigest digest) {
+    this.digest = digest;
+  }
+
+  /**
+   * @param block The block whose content to hash (the Merkle root of a version 2 block is taken
+   *              as is, see {@link MerkleTree} to check it against the evidences).
+   * @return The SHA-256 of the block's canonical form.
+   * @throws IllegalArgumentException if the block version is unknown.
+   */
+  byte[] hash(Block block) {
+    return switch (block.version()) {
+      case Block.VERSION_1 -> hash(block.height(), block.timestamp(), block.evidences(),
+          block.previousHash(), block.proposerNodeId());
+      case Block.VERSION_2 -> headerHash(block.height(), block.timestamp(),
+          block.previousHash(), block.proposerNodeId(), block.merkleRoot());
+      default -> throw new IllegalArgumentException(
+          "Unsupported block version: " + block.version());
+    };
+  }
+
+  /**
+   * Computes the SHA-256 of a version 2 block header.
+   *
+   * @param merkleRoot The Merkle root of the block evidences (lowercase hex).
+   * @return The 32-byte digest.
+   */
+  byte[] headerHash(long height, Instant timestamp, String previousHash, String proposer,
+      String merkleRoot) {
+    position = 0;
+    writeAscii("version=2|height=");
+    writeLong(height);
+    writeAscii("|ts=");
+    writeInstant(timestamp);
+    writeAscii("|prev=");
+    writeString(previousHash);
+    writeAscii("|proposer=");
+    writeString(proposer);
+    writeAscii("|merkle=");
+    writeString(merkleRoot);
+    flush();
+    return digest.digest();
+  }
+
+  /**
+   * Computes a Merkle leaf hash: SHA-256 of {@code 0x00} followed by the canonical evidence form.
+   *
+   * @return The 32-byte digest.
+   */
+  byte[] leafHash(EvidenceRecord evidence) {
+    position = 0;
+    try {
+      writeByte(MerkleTree.LEAF_PREFIX);
+      writeEvidenceFields(evidence);
+      flush();
+      return digest.digest();
+    } catch (RuntimeException e) {
+      digest.digest();
+      throw e;
+    }
+  }
+
+  /**
+   * Computes a Merkle interior node hash: SHA-256 of {@code 0x01 || left || right}.
+   *
+   * @return The 32-byte digest.
+   */
+  byte[] nodeHash(byte[] left, int leftOffset, byte[] right, int rightOffset) {
+    position = 0;
+    writeByte(MerkleTree.NODE_PREFIX);
+    System.arraycopy(left, leftOffset, buffer, position, MerkleTree.HASH_BYTES);
+    position += MerkleTree.HASH_BYTES;
+    System.arraycopy(right, rightOffset, buffer, position, MerkleTree.HASH_BYTES);
+    position += MerkleTree.HASH_BYTES;
+    flush();
+    return digest.digest();
+  }
+
+  /**
+   * @return The SHA-256 of the empty input (root of a tree without leaves).
+   */
+  byte[] emptyHash() {
+    return digest.digest();
+  }
+
+  /**
+   * Computes the SHA-256 of the canonical form of a block's content.
+   *
+   * @return The 32-byte digest.
+   */
+  byte[] hash(long height, Instant timestamp, List<EvidenceRecord> evidences,
+      String previousHash, String proposer) {
+    position = 0;
+    try {
+      writeAscii("height=");
+      writeLong(height);
+      writeAscii("|ts=");
+      writeInstant(timestamp);
+      writeAscii("|prev=");
+      writeString(previousHash);
+      writeAscii("|proposer=");
+      writeString(proposer);
+      writeAscii("|evidences=");
+
+      int count = evidences.size();
+      EvidenceRecord[] sorted = sortedEvidences(evidences, count);
+      for (int i = 0; i < count; i++) {
+        writeEvidence(sorted[i]);
+      }
+      Arrays.fill(sorted, 0, count, null);
+
+      flush();
+      return digest.digest();
+    } catch (RuntimeException e) {
+      // Leave the digest clean for the next block
+      digest.digest();
+      throw e;
+    }
+  }
+
+  private EvidenceRecord[] sortedEvidences(List<EvidenceRecord> evidences, int count) {
+    if (sortBuffer.length < count) {
+      sortBuffer = new EvidenceRecord[Math.max(count, sortBuffer.length * 2)];
+    }
+    EvidenceRecord[] sorted = sortBuffer;
+    for (int i = 0; i < count; i++) {
+      sorted[i] = evidences.get(i);
+    }
+    // Stable, like List#sort, so evidences sharing an id keep their relative order
+    Arrays.sort(sorted, 0, count, BY_EVIDENCE_ID);
+    return sorted;
+  }
+
+  private void writeEvidence(EvidenceRecord e) {
+    writeEvidenceFields(e);
+    writeByte(';');
+  }
+
+  private void writeEvidenceFields(EvidenceRecord e) {
+    writeString(e.evidenceId());
+    writeByte(',');
+    writeString(e.homologationId());
+    writeByte(',');
+    writeString(e.testRunId());
+    writeByte(',');
+    writeString(e.artifactName());
+    writeByte(',');
+    writeString(e.artifactType());
+    writeByte(',');
+    writeString(e.hashAlgorithm());
+    writeByte(',');
+    writeString(e.hash());
+    writeByte(',');
+    if (e.sizeBytes() != null) {
+      writeLong(e.sizeBytes());
+    }
+    writeByte(',');
+    writeString(e.createdBy());
+    writeByte(',');
+    if (e.storageUri() != null) {
+      writeString(e.storageUri());
+    }
+    writeByte(',');
+    writeInstant(e.createdAt());
+    writeByte(',');
+    writeStandards(e.standards());
+  }
+
+  private void writeStandards(List<String> standards) {
+    int count = standards == null ? 0 : standards.size();
+    if (count == 0) {
+      return;
+    }
+    if (count == 1) {
+      writeString(standards.get(0));
+      return;
+    }
+    if (standardsBuffer.length < count) {
+      standardsBuffer = new String[Math.max(count, standardsBuffer.length * 2)];
+    }
+    String[] sorted = standardsBuffer;
+    for (int i = 0; i < count; i++) {
+      sorted[i] = standards.get(i);
+    }
+    Arrays.sort(sorted, 0, count, String::compareTo);
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        writeByte('+');
+      }
+      writeString(sorted[i]);
+    }
+    Arrays.fill(sorted, 0, count, null);
+  }
+
+  /**
+   * Writes a timestamp exactly as {@link Instant#toString()} would.
+   */
+  private void writeInstant(Instant instant) {
+    long epochSecond = instant.getEpochSecond();
+    if (epochSecond < MIN_FAST_EPOCH_SECOND || epochSecond >= MAX_FAST_EPOCH_SECOND) {
+      writeAscii(instant.toString());
+      return;
+    }
+
+    long days = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+    // Civil date from days since 1970-01-01 (proleptic Gregorian calendar)
+    long z = days + 719_468;
+    long era = Math.floorDiv(z, 146_097);
+    long dayOfEra = z - era * 146_097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long mp = (5 * dayOfYear + 2) / 153;
+    int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+    int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+    int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+    writeDigits(year, 4);
+    writeByte('-');
+    writeDigits(month, 2);
+    writeByte('-');
+    writeDigits(day, 2);
+    writeByte('T');
+    writeDigits(secondOfDay / 3600, 2);
+    writeByte(':');
+    writeDigits(secondOfDay / 60 % 60, 2);
+    writeByte(':');
+    writeDigits(secondOfDay % 60, 2);
+
+    int nano = instant.getNano();
+    if (nano > 0) {
+      writeByte('.');
+      if (nano % 1_000_000 == 0) {
+        writeDigits(nano / 1_000_000, 3);
+      } else if (nano % 1_000 == 0) {
+        writeDigits(nano / 1_000, 6);
+      } else {
+        writeDigits(nano, 9);
+      }
+    }
+    writeByte('Z');
+  }
+
+  private void writeDigits(int value, int width) {
+    ensureCapacity(width);
+    for (int i = position + width - 1; i >= position; i--) {
+      buffer[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    position += width;
+  }
+
+  private void writeLong(long value) {
+    if (value < 0) {
+      writeAscii(Long.toString(value));
+      return;
+    }
+    int width = 1;
+    for (long v = value / 10; v > 0; v /= 10) {
+      width++;
+    }
+    ensureCapacity(width);
+    for (int i = position + width - 1; i >= position; i--) {
+      buffer[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    position += width;
+  }
+
+  /**
+   * Writes a string known to contain only ASCII characters.
+   */
+  private void writeAscii(String s) {
+    int length = s.length();
+    for (int i = 0; i < length; i++) {
+      writeByte(s.charAt(i));
+    }
+  }
+
+  /**
+   * UTF-8 encodes a string the way {@link String#getBytes(java.nio.charset.Charset)} does,
+   * including replacing unpaired surrogates with {@code '?'}. Null is written as {@code "null"}.
+   */
+  private void writeString(String s) {
+    if (s == null) {
+      writeAscii("null");
+      return;
+    }
+    int length = s.length();
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        writeByte(c);
+      } else if (c < 0x800) {
+        ensureCapacity(2);
+        buffer[position++] = (byte) (0xC0 | (c >> 6));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(s.charAt(i + 1))) {
+          int cp = Character.toCodePoint(c, s.charAt(++i));
+          ensureCapacity(4);
+          buffer[position++] = (byte) (0xF0 | (cp >> 18));
+          buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+          buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+          buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+          writeByte('?');
+        }
+      } else {
+        ensureCapacity(3);
+        buffer[position++] = (byte) (0xE0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  private void writeByte(int b) {
+    if (position == BUFFER_SIZE) {
+      flush();
+    }
+    buffer[position++] = (byte) b;
+  }
+
+  private void ensureCapacity(int bytes) {
+    if (position + bytes > BUFFER_SIZE) {
+      flush();
+    }
+  }
+
+  private void flush() {
+    if (position > 0) {
+      digest.update(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import xavierroigmartin.v_integrity.application.port.out.IncrementalDigest;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+
+/**
+ * Running digest of the chain, extended on every append (see {@link Checkpoint} for the
+ * definition).
+ * <p>
+ * The digest of every height is kept (32 bytes per block), so the digest at any height is an O(1)
+ * lookup: checkpoints and peers can compare prefixes of the chain without touching its blocks.
+ * Same threading model as {@link AppendOnlyList}: a single writer, lock-free readers.
+ */
+final class ChainAccumulator {
+
+  static final int DIGEST_BYTES = 32;
+
+  private final IncrementalDigest digest;
+  private final AppendOnlyList<byte[]> digests = new AppendOnlyList<>();
+
+  /**
+   * @param digest A SHA-256 digest owned by the accumulator (used by the writer only).
+   */
+  ChainAccumulator(IncrementalDigest digest) {
+    this.digest = digest;
+  }
+
+  /**
+   * Extends the digest with the next block. Must only be called by the single writer, in height
+   * order.
+   */
+  void append(Block block) {
+    digests.add(next(tip(), block));
+  }
+
+  /**
+   * Computes the digest the chain would have after appending the blocks, without appending them.
+   * Must only be called by the single writer.
+   *
+   * @param blocks The blocks following the current tip, in height order.
+   * @return The digest after the last of them.
+   */
+  byte[] peek(List<Block> blocks) {
+    byte[] current = tip();
+    for (Block block : blocks) {
+      current = next(current, block);
+    }
+    return current;
+  }
+
+  /**
+   * @return The highest height with a digest (-1 before the genesis block).
+   */
+  long height() {
+    return digests.size() - 1L;
+  }
+
+  /**
+   * @param height A height up to {@link #height()}.
+   * @return The digest of the chain up to that height. Callers must not modify it.
+   */
+  byte[] at(long height) {
+    return digests.get((int) height);
+  }
+
+  private byte[] tip() {
+    return digests.isEmpty() ? new byte[DIGEST_BYTES] : digests.last();
+  }
+
+  private byte[] next(byte[] previous, Block block) {
+    byte[] hash = block.hash().getBytes(StandardCharsets.UTF_8);
+    digest.update(previous, 0, previous.length);
+    digest.update(hash, 0, hash.length);
+    return digest.digest();
+  }
+}
@@ -0,0 +1,317 @@
+package xavierroigmartin.v_integrity.application;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+import xavierroigmartin.v_integrity.application.port.out.CryptoPort;
+import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+
+/**
+ * Validates the integrity of the local chain.
+ * <p>
+ * Works on an immutable snapshot of the chain, so commits and replication are never blocked. The
+ * expensive per-block checks are independent: the chain is processed in windows whose hashes are
+ * recomputed in parallel on a fork-join pool and whose signatures are verified with
+ * {@link CryptoPort#verifyEd25519Batch(List, List, String)}. Only the cheap height and
+ * previousHash links are then checked sequentially.
+ * <p>
+ * The service remembers the highest height verified so far. Since the chain is append-only, an
+ * incremental run only checks the blocks appended since then (plus the link to the last verified
+ * block); a full run re-checks everything. A run from the latest trusted checkpoint (see
+ * {@link LedgerService#latestTrustedCheckpoint()}) only checks the blocks after it, since the
+ * checkpoint's chain digest already proves every block hash below it unchanged; only a full run
+ * re-hashes the contents of those blocks. Runs can be synchronous or started in the background,
+ * with progress exposed by {@link #status()}. Only one run executes at a time.
+ */
+@Service
+public class ChainValidationService {
+
+  // Blocks hashed by a single fork-join leaf task
+  private static final int BLOCKS_PER_TASK = 64;
+  // Blocks checked between two progress updates
+  private static final int WINDOW_BLOCKS = 1024;
+
+  private final LedgerService ledger;
+  private final NodeConfigurationPort nodeConfig;
+  private final CryptoPort crypto;
+  private final LogPort logger;
+  private final ForkJoinPool pool;
+
+  private final Object runLock = new Object();
+  private final AtomicLong checkedBlocks = new AtomicLong();
+  private volatile long lastVerifiedHeight = -1;
+  private volatile ValidationStatus status = ValidationStatus.idle(-1);
+
+  public ChainValidationService(LedgerService ledger, NodeConfigurationPort nodeConfig,
+      CryptoPort crypto, LogPort logger) {
+    this.ledger = ledger;
+    this.nodeConfig = nodeConfig;
+    this.crypto = crypto;
+    this.logger = logger;
+    this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Validates the chain and waits for the result.
+   *
+   * @param full true to re-check the whole chain, false to only check blocks appended since the
+   *             last successful run.
+   * @return The final status of the run.
+   */
+  public ValidationStatus validate(boolean full) {
+    synchronized (runLock) {
+      return run(full ? Mode.FULL : Mode.INCREMENTAL);
+    }
+  }
+
+  /**
+   * Validates the blocks after the latest trusted checkpoint and waits for the result. Without a
+   * trusted checkpoint, the whole chain is checked.
+   *
+   * @return The final status of the run; {@code checkpointHeight} tells where it started from.
+   */
+  public ValidationStatus validateFromCheckpoint() {
+    synchronized (runLock) {
+      return run(Mode.FROM_CHECKPOINT);
+    }
+  }
+
+  /**
+   * Starts a validation in the background, unless one is already running.
+   *
+   * @param full true to re-check the whole chain.
+   * @return The status right after the request (the already running job, if any).
+   */
+  public ValidationStatus startValidation(boolean full) {
+    synchronized (runLock) {
+      if (status.state() == State.RUNNING) {
+        return status();
+      }
+      // Mark as running before the thread starts so a second request does not start another job
+      checkedBlocks.set(0);
+      status = ValidationStatus.running(0, 0, 0, lastVerifiedHeight, null, Instant.now());
+    }
+    Thread.ofPlatform().name("chain-validation").daemon().start(() -> validate(full));
+    return status();
+  }
+
+  /**
+   * @return The progress of the current run, or the result of the last one.
+   */
+  public ValidationStatus status() {
+    ValidationStatus current = status;
+    if (current.state() == State.RUNNING) {
+      return current.withCheckedBlocks(checkedBlocks.get());
+    }
+    return current;
+  }
+
+  /**
+   * @return The highest height known to be valid (-1 if nothing was verified yet).
+   */
+  public long lastVerifiedHeight() {
+    return lastVerifiedHeight;
+  }
+
+  @PreDestroy
+  public void close() {
+    pool.shutdownNow();
+  }
+
+  private ValidationStatus run(Mode mode) {
+    // Looked up before the snapshot, so the checkpoint is always within it
+    Optional<Checkpoint> checkpoint = mode == Mode.FROM_CHECKPOINT
+        ? ledger.latestTrustedCheckpoint()
+        : Optional.empty();
+    Long checkpointHeight = checkpoint.map(Checkpoint::height).orElse(null);
+    List<Block> snapshot = ledger.chain();
+    Instant startedAt = Instant.now();
+    long tipHeight = snapshot.size() - 1;
+    // Genesis (height 0) is fixed and unsigned: the first block to check is height 1
+    int from = (int) switch (mode) {
+      case FULL -> 1;
+      case INCREMENTAL -> Math.max(1, lastVerifiedHeight + 1);
+      case FROM_CHECKPOINT -> checkpointHeight == null ? 1 : checkpointHeight + 1;
+    };
+    int to = snapshot.size();
+    int total = Math.max(0, to - from);
+
+    checkedBlocks.set(0);
+    status = ValidationStatus.running(from, tipHeight, total, lastVerifiedHeight,
+        checkpointHeight, startedAt);
+
+    AtomicLong firstInvalid = new AtomicLong(Long.MAX_VALUE);
+    for (int start = from; start < to && start < firstInvalid.get(); start += WINDOW_BLOCKS) {
+      checkWindow(snapshot, start, Math.min(to, start + WINDOW_BLOCKS), firstInvalid);
+    }
+    // Sequential part: heights and previousHash links (cheap field comparisons)
+    for (int i = from; i < to && i < firstInvalid.get(); i++) {
+      Block prev = snapshot.get(i - 1);
+      Block cur = snapshot.get(i);
+      if (cur.height() != prev.height() + 1 || !Objects.equals(cur.previousHash(), prev.hash())) {
+        firstInvalid.accumulateAndGet(i, Math::min);
+        break;
+      }
+    }
+
+    boolean valid = !snapshot.isEmpty() && firstInvalid.get() == Long.MAX_VALUE;
+    long verifiedUpTo = valid ? tipHeight : firstInvalid.get() - 1;
+    if (verifiedUpTo > lastVerifiedHeight || mode != Mode.INCREMENTAL) {
+      lastVerifiedHeight = verifiedUpTo;
+    }
+
+    Long invalidHeight = valid || snapshot.isEmpty() ? null : firstInvalid.get();
+    ValidationStatus result = new ValidationStatus(valid ? State.COMPLETED : State.FAILED, valid,
+        from, tipHeight, total, checkedBlocks.get(), invalidHeight, lastVerifiedHeight,
+        checkpointHeight, startedAt, Instant.now());
+    status = result;
+
+    if (valid) {
+      logger.logBusinessEvent("CHAIN_VALIDATION", Map.of(
+          "valid", true,
+          "height", tipHeight,
+          "checkedBlocks", result.checkedBlocks(),
+          "mode", mode.name(),
+          "checkpointHeight", String.valueOf(checkpointHeight)
+      ));
+    } else {
+      logger.logBusinessError("CHAIN_VALIDATION_FAILED", "Local chain is invalid",
+          Map.of("firstInvalidHeight", String.valueOf(invalidHeight), "mode", mode.name()));
+    }
+    return result;
+  }
+
+  private void checkWindow(List<Block> snapshot, int start, int end, AtomicLong firstInvalid) {
+    pool.invoke(new HashCheckTask(snapshot, start, end, firstInvalid));
+
+    // Signatures only matter below the first invalid hash
+    int signedEnd = (int) Math.min(end, firstInvalid.get());
+    boolean[] signatureValid = BlockSignatures.verify(snapshot.subList(start, signedEnd),
+        nodeConfig.getAllowedNodePublicKeys(), crypto);
+    int verified = signatureValid.length;
+    for (int i = 0; i < signatureValid.length; i++) {
+      if (!signatureValid[i]) {
+        firstInvalid.accumulateAndGet(start + i, Math::min);
+        verified = i;
+        break;
+      }
+    }
+    checkedBlocks.addAndGet(verified);
+  }
+
+  private boolean hasValidHeader(Block block, int index) {
+    if (block.height() != index) {
+      return false;
+    }
+    String pubKey = nodeConfig.getAllowedNodePublicKeys().get(block.proposerNodeId());
+    if (pubKey == null || pubKey.isBlank()) {
+      return false;
+    }
+    return ledger.hasValidHash(block);
+  }
+
+  /**
+   * Checks heights, proposers and hashes of a range of blocks, splitting it in halves down to
+   * {@value #BLOCKS_PER_TASK} blocks.
+   */
+  private final class HashCheckTask extends RecursiveAction {
+
+    private final List<Block> snapshot;
+    private final int from;
+    private final int to;
+    private final AtomicLong firstInvalid;
+
+    HashCheckTask(List<Block> snapshot, int from, int to, AtomicLong firstInvalid) {
+      this.snapshot = snapshot;
+      this.from = from;
+      this.to = to;
+      this.firstInvalid = firstInvalid;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= BLOCKS_PER_TASK) {
+        for (int i = from; i < to; i++) {
+          // Blocks above a known failure cannot change the result
+          if (i > firstInvalid.get()) {
+            return;
+          }
+          if (!hasValidHeader(snapshot.get(i), i)) {
+            firstInvalid.accumulateAndGet(i, Math::min);
+            return;
+          }
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new HashCheckTask(snapshot, from, mid, firstInvalid),
+          new HashCheckTask(snapshot, mid, to, firstInvalid));
+    }
+  }
+
+  /**
+   * Which blocks a run checks.
+   */
+  private enum Mode {
+    FULL,
+    INCREMENTAL,
+    FROM_CHECKPOINT
+  }
+
+  /**
+   * Lifecycle of a validation run.
+   */
+  public enum State {
+    IDLE,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  /**
+   * Progress or result of a validation run.
+   *
+   * @param state              Current state.
+   * @param valid              Whether the checked range is valid (meaningful once finished).
+   * @param fromHeight         First height checked by the run.
+   * @param toHeight           Chain tip height when the run started.
+   * @param totalBlocks        Number of blocks the run checks.
+   * @param checkedBlocks      Number of blocks whose hash and signature were verified so far.
+   * @param firstInvalidHeight Lowest invalid height found, or null.
+   * @param lastVerifiedHeight Highest height known to be valid.
+   * @param checkpointHeight   Height of the trusted checkpoint the run started from, or null.
+   * @param startedAt          When the run started (null if no run happened yet).
+   * @param finishedAt         When the run finished (null while running).
+   */
+  public record ValidationStatus(State state, boolean valid, long fromHeight, long toHeight,
+                                 long totalBlocks, long checkedBlocks, Long firstInvalidHeight,
+                                 long lastVerifiedHeight, Long checkpointHeight,
+                                 Instant startedAt, Instant finishedAt) {
+
+    static ValidationStatus idle(long lastVerifiedHeight) {
+      return new ValidationStatus(State.IDLE, false, 0, 0, 0, 0, null, lastVerifiedHeight, null,
+          null, null);
+    }
+
+    static ValidationStatus running(long fromHeight, long toHeight, long totalBlocks,
+        long lastVerifiedHeight, Long checkpointHeight, Instant startedAt) {
+      return new ValidationStatus(State.RUNNING, false, fromHeight, toHeight, totalBlocks, 0,
+          null, lastVerifiedHeight, checkpointHeight, startedAt, null);
+    }
+
+    ValidationStatus withCheckedBlocks(long checked) {
+      return new ValidationStatus(state, valid, fromHeight, toHeight, totalBlocks, checked,
+          firstInvalidHeight, lastVerifiedHeight, checkpointHeight, startedAt, finishedAt);
+    }
+  }
+}
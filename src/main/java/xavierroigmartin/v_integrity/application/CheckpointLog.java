@@ -0,0 +1,127 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import xavierroigmartin.v_integrity.application.port.out.ChainStoragePort;
+import xavierroigmartin.v_integrity.application.port.out.CryptoPort;
+import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+import xavierroigmartin.v_integrity.domain.HexCodec;
+
+/**
+ * The checkpoints of the local chain, one every {@code checkpointInterval} blocks.
+ * <p>
+ * A checkpoint is only recorded when a block is appended through a checked path (sealed by this
+ * leader or accepted after its hash and signature were verified), never for blocks replayed from
+ * storage. Nodes with a signing key sign their checkpoints and persist them, so they survive
+ * restarts and can be verified by anyone holding the node's public key. Checkpoints of nodes
+ * without a key are unsigned and only kept in memory.
+ */
+final class CheckpointLog {
+
+  private static final String SIGNATURE_CONTEXT = "v-integrity-checkpoint";
+
+  private final int interval;
+  private final NodeConfigurationPort nodeConfig;
+  private final CryptoPort crypto;
+  private final ChainStoragePort storage;
+  private final NavigableMap<Long, Checkpoint> checkpoints = new ConcurrentSkipListMap<>();
+
+  CheckpointLog(NodeConfigurationPort nodeConfig, CryptoPort crypto, ChainStoragePort storage) {
+    this.interval = nodeConfig.getCheckpointInterval();
+    this.nodeConfig = nodeConfig;
+    this.crypto = crypto;
+    this.storage = storage;
+  }
+
+  /**
+   * Loads the persisted checkpoints that are within the restored chain.
+   *
+   * @param tipHeight Height of the restored chain.
+   */
+  void restore(long tipHeight) {
+    for (Checkpoint checkpoint : storage.checkpoints()) {
+      if (checkpoint.height() <= tipHeight) {
+        checkpoints.put(checkpoint.height(), checkpoint);
+      }
+    }
+  }
+
+  /**
+   * Records a checkpoint if the block is at a checkpoint height. Must only be called by the
+   * ledger writer, for checked blocks.
+   *
+   * @param block       The block just appended.
+   * @param accumulator The chain digest at its height.
+   */
+  void blockAppended(Block block, byte[] accumulator) {
+    if (interval <= 0 || block.height() == 0 || block.height() % interval != 0) {
+      return;
+    }
+    String privateKey = nodeConfig.getPrivateKeyBase64();
+    boolean canSign = privateKey != null && !privateKey.isBlank();
+    Checkpoint unsigned = new Checkpoint(block.height(), HexCodec.encode(accumulator),
+        block.hash(), nodeConfig.getNodeId(), null, Instant.now());
+    if (!canSign) {
+      checkpoints.put(block.height(), unsigned);
+      return;
+    }
+    Checkpoint signed = new Checkpoint(unsigned.height(), unsigned.accumulator(),
+        unsigned.blockHash(), unsigned.signerNodeId(),
+        crypto.signEd25519(signedBytes(unsigned), privateKey), unsigned.createdAt());
+    storage.appendCheckpoint(signed);
+    checkpoints.put(signed.height(), signed);
+  }
+
+  /**
+   * Keeps a checkpoint signed by another node (the snapshot a follower was bootstrapped from),
+   * so it is trusted by quick validation and can be served to other followers. Must only be
+   * called by the ledger writer, once the chain reaches the checkpoint.
+   *
+   * @param checkpoint A signed checkpoint of the local chain.
+   */
+  void install(Checkpoint checkpoint) {
+    storage.appendCheckpoint(checkpoint);
+    checkpoints.put(checkpoint.height(), checkpoint);
+  }
+
+  /**
+   * @return The checkpoint at a height, or null.
+   */
+  Checkpoint at(long height) {
+    return checkpoints.get(height);
+  }
+
+  /**
+   * @return Every checkpoint, newest first.
+   */
+  List<Checkpoint> newestFirst() {
+    return List.copyOf(checkpoints.descendingMap().values());
+  }
+
+  /**
+   * @return true if the checkpoint is unsigned (recorded by this process) or signed with the
+   * allowed key of its signer.
+   */
+  boolean hasValidSignature(Checkpoint checkpoint) {
+    if (!checkpoint.signed()) {
+      return true;
+    }
+    String pubKey = nodeConfig.getAllowedNodePublicKeys().get(checkpoint.signerNodeId());
+    return pubKey != null && !pubKey.isBlank()
+        && crypto.verifyEd25519(signedBytes(checkpoint), checkpoint.signature(), pubKey);
+  }
+
+  /**
+   * @return The bytes covered by a checkpoint signature.
+   */
+  private static byte[] signedBytes(Checkpoint checkpoint) {
+    return String.join("\n", SIGNATURE_CONTEXT, String.valueOf(checkpoint.height()),
+            checkpoint.accumulator(), checkpoint.blockHash(), checkpoint.signerNodeId())
+        .getBytes(StandardCharsets.UTF_8);
+  }
+}
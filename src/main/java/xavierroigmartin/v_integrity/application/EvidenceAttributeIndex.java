@@ -0,0 +1,134 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+/**
+ * Secondary indexes over {@link EvidenceRecord} attributes used by auditors.
+ * <p>
+ * For every indexed attribute value the index keeps the packed locations (see {@link
+ * EvidenceHashIndex#height(long)} and {@link EvidenceHashIndex#position(long)}) of the matching
+ * evidences, in chain order. The index is maintained incrementally as blocks are appended.
+ * <p>
+ * Concurrency: a single writer and any number of lock-free readers.
+ */
+public final class EvidenceAttributeIndex {
+
+  /**
+   * Evidence attributes that can be queried through the index.
+   */
+  public enum Attribute {
+    HOMOLOGATION_ID,
+    TEST_RUN_ID,
+    CREATED_BY,
+    STANDARD
+  }
+
+  private final Map<Attribute, Map<String, LocationList>> postings = new EnumMap<>(Attribute.class);
+
+  public EvidenceAttributeIndex() {
+    for (Attribute attribute : Attribute.values()) {
+      postings.put(attribute, new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Indexes an evidence at its location in the chain.
+   *
+   * @param evidence    The evidence to index.
+   * @param blockHeight The height of the block containing the evidence.
+   * @param position    The position of the evidence inside the block.
+   */
+  public void add(EvidenceRecord evidence, long blockHeight, int position) {
+    long location = EvidenceHashIndex.pack(blockHeight, position);
+    add(Attribute.HOMOLOGATION_ID, evidence.homologationId(), location);
+    add(Attribute.TEST_RUN_ID, evidence.testRunId(), location);
+    add(Attribute.CREATED_BY, evidence.createdBy(), location);
+    List<String> standards = evidence.standards();
+    for (int i = 0; i < standards.size(); i++) {
+      String standard = standards.get(i);
+      // Avoid double-counting an evidence that lists the same standard twice
+      if (standard != null && standards.indexOf(standard) == i) {
+        add(Attribute.STANDARD, standard, location);
+      }
+    }
+  }
+
+  /**
+   * @param attribute The attribute to query.
+   * @param value     The exact attribute value.
+   * @return The number of evidences with that value.
+   */
+  public int count(Attribute attribute, String value) {
+    LocationList list = value == null ? null : postings.get(attribute).get(value);
+    return list == null ? 0 : list.size();
+  }
+
+  /**
+   * Returns a slice of the packed locations of the evidences matching a value, in chain order.
+   *
+   * @param attribute The attribute to query.
+   * @param value     The exact attribute value.
+   * @param offset    The index of the first match to return.
+   * @param limit     The maximum number of matches to return.
+   * @return The packed locations (possibly empty).
+   */
+  public long[] locations(Attribute attribute, String value, int offset, int limit) {
+    LocationList list = value == null ? null : postings.get(attribute).get(value);
+    if (list == null) {
+      return new long[0];
+    }
+    return list.slice(offset, limit);
+  }
+
+  private void add(Attribute attribute, String value, long location) {
+    if (value == null) {
+      return;
+    }
+    postings.get(attribute).computeIfAbsent(value, v -> new LocationList()).append(location);
+  }
+
+  /**
+   * Append-only list of longs with a single writer and lock-free readers.
+   * <p>
+   * The writer publishes a grown array before the new size, so a reader that observes a size also
+   * observes an array holding at least that many elements.
+   */
+  private static final class LocationList {
+
+    private volatile long[] values = new long[4];
+    private volatile int size;
+
+    void append(long value) {
+      long[] current = values;
+      int n = size;
+      if (n == current.length) {
+        long[] grown = new long[n * 2];
+        System.arraycopy(current, 0, grown, 0, n);
+        values = grown;
+        current = grown;
+      }
+      current[n] = value;
+      size = n + 1;
+    }
+
+    int size() {
+      return size;
+    }
+
+    long[] slice(int offset, int limit) {
+      int n = size;
+      long[] current = values;
+      if (offset >= n || limit <= 0) {
+        return new long[0];
+      }
+      int end = (int) Math.min((long) offset + limit, n);
+      long[] out = new long[end - offset];
+      System.arraycopy(current, offset, out, 0, out.length);
+      return out;
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.security.SecureRandom;
+
+/**
+ * Index from an evidence SHA-256 hash to its location (block height, position in the block).
+ * <p>
+ * Implemented as an open-addressing hash table over primitive arrays: each key is the 32 raw
+ * digest bytes packed into four {@code long}s and each location is packed into a single
+ * {@code long}, so an entry costs 40 bytes and no per-entry objects.
+ * <p>
+ * Concurrency: a single writer (the ledger append path) and any number of lock-free readers. A
+ * slot's key words are written before its location is published with release semantics, and a
+ * resize builds a new table that is published through a volatile field, so readers never observe
+ * a half-written entry.
+ * <p>
+ * Evidence hashes are supplied by clients, so the slot is derived from all four key words mixed
+ * with a per-process random seed: keys sharing a prefix cannot be crafted to pile up in one probe
+ * sequence.
+ */
+public final class EvidenceHashIndex {
+
+  private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final int KEY_WORDS = 4;
+  private static final int POSITION_BITS = 24;
+  private static final long MAX_POSITION = (1L << POSITION_BITS) - 1;
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  private static final long SEED = new SecureRandom().nextLong();
+
+  private volatile Table table = new Table(INITIAL_CAPACITY);
+  private int size;
+
+  /**
+   * Records the location of an evidence hash, keeping the first location if the hash is already
+   * indexed. Hashes that are not 64 lowercase hex characters are ignored.
+   *
+   * @param hashHex     The evidence hash (lowercase hex SHA-256).
+   * @param blockHeight The height of the block containing the evidence.
+   * @param position    The position of the evidence inside {@link
+   *                    xavierroigmartin.v_integrity.domain.Block#evidences()}.
+   * @return true if the hash was added, false if it was already present or not indexable.
+   */
+  public boolean putIfAbsent(String hashHex, long blockHeight, int position) {
+    if (!isLowerHexSha256(hashHex)) {
+      return false;
+    }
+    if (position < 0 || position > MAX_POSITION) {
+      throw new IllegalArgumentException("Evidence position out of range: " + position);
+    }
+
+    long k0 = word(hashHex, 0);
+    long k1 = word(hashHex, 1);
+    long k2 = word(hashHex, 2);
+    long k3 = word(hashHex, 3);
+
+    Table t = table;
+    if ((size + 1) * 4L > t.capacity() * 3L) {
+      t = resize(t);
+    }
+    if (!t.insert(k0, k1, k2, k3, pack(blockHeight, position))) {
+      return false;
+    }
+    size++;
+    return true;
+  }
+
+  /**
+   * Looks up the location of an evidence hash.
+   *
+   * @param hashHex The evidence hash (lowercase hex SHA-256).
+   * @return The packed location, or -1 if the hash is not indexed.
+   * @see #height(long)
+   * @see #position(long)
+   */
+  public long find(String hashHex) {
+    if (!isLowerHexSha256(hashHex)) {
+      return -1;
+    }
+    return table.find(word(hashHex, 0), word(hashHex, 1), word(hashHex, 2), word(hashHex, 3));
+  }
+
+  /**
+   * @return The number of indexed hashes.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param location A packed location returned by {@link #find(String)}.
+   * @return The block height part of the location.
+   */
+  public static long height(long location) {
+    return location >>> POSITION_BITS;
+  }
+
+  /**
+   * @param location A packed location returned by {@link #find(String)}.
+   * @return The evidence position part of the location.
+   */
+  public static int position(long location) {
+    return (int) (location & MAX_POSITION);
+  }
+
+  static long pack(long blockHeight, int position) {
+    return (blockHeight << POSITION_BITS) | position;
+  }
+
+  /**
+   * @return The longest distance between an entry and its home slot in the current table.
+   */
+  int longestProbe() {
+    return table.longestProbe();
+  }
+
+  private Table resize(Table old) {
+    Table bigger = new Table(old.capacity() * 2);
+    old.copyInto(bigger);
+    table = bigger;
+    return bigger;
+  }
+
+  private static boolean isLowerHexSha256(String hex) {
+    if (hex == null || hex.length() != 64) {
+      return false;
+    }
+    for (int i = 0; i < 64; i++) {
+      char c = hex.charAt(i);
+      if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long word(String hex, int index) {
+    long value = 0;
+    int from = index * 16;
+    for (int i = from; i < from + 16; i++) {
+      char c = hex.charAt(i);
+      value = (value << 4) | (c <= '9' ? c - '0' : c - 'a' + 10);
+    }
+    return value;
+  }
+
+  /**
+   * Fixed-capacity open-addressing table with linear probing.
+   * <p>
+   * Locations are stored incremented by one so that zero marks an empty slot.
+   */
+  private static final class Table {
+
+    private final long[] keys;
+    private final long[] locations;
+    private final int mask;
+
+    Table(int capacity) {
+      this.keys = new long[capacity * KEY_WORDS];
+      this.locations = new long[capacity];
+      this.mask = capacity - 1;
+    }
+
+    int capacity() {
+      return locations.length;
+    }
+
+    boolean insert(long k0, long k1, long k2, long k3, long location) {
+      int slot = slotOf(k0, k1, k2, k3);
+      while (true) {
+        long stored = (long) LONGS.getAcquire(locations, slot);
+        if (stored == 0) {
+          int base = slot * KEY_WORDS;
+          keys[base] = k0;
+          keys[base + 1] = k1;
+          keys[base + 2] = k2;
+          keys[base + 3] = k3;
+          LONGS.setRelease(locations, slot, location + 1);
+          return true;
+        }
+        if (matches(slot, k0, k1, k2, k3)) {
+          return false;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    long find(long k0, long k1, long k2, long k3) {
+      int slot = slotOf(k0, k1, k2, k3);
+      while (true) {
+        long stored = (long) LONGS.getAcquire(locations, slot);
+        if (stored == 0) {
+          return -1;
+        }
+        if (matches(slot, k0, k1, k2, k3)) {
+          return stored - 1;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    void copyInto(Table target) {
+      for (int slot = 0; slot < locations.length; slot++) {
+        long stored = locations[slot];
+        if (stored != 0) {
+          int base = slot * KEY_WORDS;
+          target.insert(keys[base], keys[base + 1], keys[base + 2], keys[base + 3], stored - 1);
+        }
+      }
+    }
+
+    int longestProbe() {
+      int longest = 0;
+      for (int slot = 0; slot < locations.length; slot++) {
+        if (locations[slot] != 0) {
+          int base = slot * KEY_WORDS;
+          int home = slotOf(keys[base], keys[base + 1], keys[base + 2], keys[base + 3]);
+          longest = Math.max(longest, (slot - home) & mask);
+        }
+      }
+      return longest;
+    }
+
+    private boolean matches(int slot, long k0, long k1, long k2, long k3) {
+      int base = slot * KEY_WORDS;
+      return keys[base] == k0 && keys[base + 1] == k1 && keys[base + 2] == k2
+          && keys[base + 3] == k3;
+    }
+
+    private int slotOf(long k0, long k1, long k2, long k3) {
+      long h = mix(SEED ^ k0);
+      h = mix(h ^ k1);
+      h = mix(h ^ k2);
+      h = mix(h ^ k3);
+      return (int) h & mask;
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long h) {
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return h;
+    }
+  }
+}
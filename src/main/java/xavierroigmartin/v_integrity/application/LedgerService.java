@@ -1,66 +1,132 @@
 package xavierroigmartin.v_integrity.application;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
+import xavierroigmartin.v_integrity.application.port.out.ChainStoragePort;
 import xavierroigmartin.v_integrity.application.port.out.CryptoPort;
 import xavierroigmartin.v_integrity.application.port.out.HashingPort;
 import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
 import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
 import xavierroigmartin.v_integrity.application.port.out.ReplicationPort;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
 import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.domain.HexCodec;
 
 /**
  * Core application service that manages the blockchain ledger state.
  * <p>
  * This service is responsible for:
  * <ul>
- *     <li>Maintaining the in-memory blockchain (PoC).</li>
+ *     <li>Maintaining the in-memory blockchain, backed by a {@link ChainStoragePort}.</li>
  *     <li>Managing the mempool of pending evidences.</li>
  *     <li>Creating new blocks (mining/committing) if the node is a leader.</li>
- *     <li>Validating and accepting blocks replicated from other nodes.</li>
+ *     <li>Validating and accepting blocks replicated from other nodes, or whole snapshots.</li>
+ *     <li>Maintaining the running chain digest and the chain checkpoints.</li>
  * </ul>
+ * <p>
+ * Concurrency model: writers (the append stage of the leader commit pipeline and the replicated
+ * block paths) are serialized on the service monitor. Building, hashing and signing leader blocks
+ * happens on earlier pipeline stages, outside the monitor (see
+ * {@link #sealAsLeader(int, long)}). Readers never take that monitor: the chain and its indexes
+ * are single-writer structures that publish appended blocks through volatile writes, so reads see
+ * an immutable, consistent prefix of the chain. The {@link Mempool} is a concurrent structure, so
+ * submissions do not contend on the service monitor either.
  */
 @Service
 public class LedgerService {
 
+  static final int MAX_PAGE_SIZE = 500;
+  public static final int MAX_BATCH_SIZE = 10_000;
+  // Blocks that may wait in front of each commit pipeline stage
+  static final int COMMIT_PIPELINE_DEPTH = 4;
+  // Merkle trees of recently proven or sealed blocks
+  private static final int MERKLE_CACHE_SIZE = 32;
+
   private final NodeConfigurationPort nodeConfig;
-  private final HashingPort hashing;
   private final CryptoPort crypto;
   private final ReplicationPort replication;
+  private final ChainStoragePort storage;
   private final LogPort logger;
+  private final MetricsPort metrics;
 
-  // In-memory state (PoC)
-  private final List<Block> chain = new ArrayList<>();
-  private final List<EvidenceRecord> mempool = new ArrayList<>();
+  // In-memory working copy of the chain (persisted through ChainStoragePort)
+  private final AppendOnlyList<Block> chain = new AppendOnlyList<>();
+  private final Mempool mempool = new Mempool();
+  private final EvidenceHashIndex evidenceIndex = new EvidenceHashIndex();
+  private final EvidenceAttributeIndex attributeIndex = new EvidenceAttributeIndex();
+  private final ChainAccumulator accumulator;
+  private final CheckpointLog checkpoints;
   private final AtomicLong evidenceSequence = new AtomicLong(0);
+  private final Object sealLock = new Object();
+  // Last block signed by the commit pipeline, possibly not appended yet
+  private final AtomicReference<Block> lastSigned = new AtomicReference<>();
+  private final StagedPipeline<BlockDraft> commitPipeline;
+  // Appended leader blocks waiting for the storage flush that makes them durable
+  private final List<BlockDraft> awaitingFlush = new ArrayList<>();
+  // Block hashing buffers are reused per thread (commit, replication and validation threads)
+  private final ThreadLocal<CanonicalBlockEncoder> blockEncoders;
+  private final Map<Long, MerkleTree> merkleTrees =
+      Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, MerkleTree> eldest) {
+          return size() > MERKLE_CACHE_SIZE;
+        }
+      });
 
   public LedgerService(NodeConfigurationPort nodeConfig, HashingPort hashing, CryptoPort crypto,
-      ReplicationPort replication, LogPort logger) {
+      ReplicationPort replication, ChainStoragePort storage, LogPort logger,
+      MetricsPort metrics) {
     this.nodeConfig = nodeConfig;
-    this.hashing = hashing;
+    this.blockEncoders =
+        ThreadLocal.withInitial(() -> new CanonicalBlockEncoder(hashing.newSha256()));
     this.crypto = crypto;
     this.replication = replication;
+    this.storage = storage;
     this.logger = logger;
-    chain.add(createGenesis());
+    this.metrics = metrics;
+    this.accumulator = new ChainAccumulator(hashing.newSha256());
+    this.checkpoints = new CheckpointLog(nodeConfig, crypto, storage);
+    restoreChain();
+    this.commitPipeline = new StagedPipeline<>("commit", COMMIT_PIPELINE_DEPTH,
+        List.of(this::buildMerkleTree, this::signBlock, this::appendSealedBlock),
+        this::abandonDraft);
+
+    metrics.registerGauge("ledger.chain.height", "Height of the latest block",
+        () -> latest().height());
+    metrics.registerGauge("ledger.mempool.evidences", "Evidences waiting for a block",
+        mempool::unsealedCount);
+    metrics.registerGauge("ledger.mempool.bytes",
+        "Estimated size of the evidences waiting for a block", mempool::unsealedBytes);
   }
 
   /**
-   * Returns a read-only copy of the current blockchain.
+   * Returns an immutable snapshot of the current blockchain.
+   * <p>
+   * Lock-free: blocks appended after the call are not visible through the returned list.
    *
    * @return List of blocks in the chain.
    */
-  public synchronized List<Block> chain() {
-    return List.copyOf(chain);
+  public List<Block> chain() {
+    return chain.snapshot();
   }
 
   /**
@@ -68,7 +134,7 @@ public class LedgerService {
    *
    * @return The most recent block.
    */
-  public synchronized Block latestBlock() {
+  public Block latestBlock() {
     return latest();
   }
 
@@ -79,7 +145,7 @@ public class LedgerService {
    * @param limit               The maximum number of blocks to return.
    * @return A list of blocks.
    */
-  public synchronized List<Block> getBlocksFromHeight(long fromHeightInclusive, int limit) {
+  public List<Block> getBlocksFromHeight(long fromHeightInclusive, int limit) {
     if (fromHeightInclusive < 0) {
       throw new IllegalArgumentException("fromHeight must be >= 0");
     }
@@ -87,13 +153,112 @@ public class LedgerService {
       limit = 100;
     }
 
+    List<Block> snapshot = chain.snapshot();
+    if (fromHeightInclusive >= snapshot.size()) {
+      return List.of();
+    }
+
     int startIndex = (int) fromHeightInclusive;
-    if (startIndex >= chain.size()) {
+    int endIndex = (int) Math.min((long) startIndex + limit, snapshot.size());
+    return snapshot.subList(startIndex, endIndex);
+  }
+
+  /**
+   * Returns the blocks of a height range as a view of the current chain snapshot. Nothing is
+   * copied, so the cost does not depend on the length of the range; later appends are not visible
+   * through the returned list.
+   *
+   * @param fromHeightInclusive The starting height (inclusive).
+   * @param toHeightInclusive   The last height (inclusive); heights past the tip are ignored.
+   * @return The blocks of the range, possibly empty.
+   */
+  public List<Block> blocksBetween(long fromHeightInclusive, long toHeightInclusive) {
+    if (fromHeightInclusive < 0) {
+      throw new IllegalArgumentException("fromHeight must be >= 0");
+    }
+    List<Block> snapshot = chain.snapshot();
+    long endExclusive = Math.min(snapshot.size() - 1L, toHeightInclusive) + 1;
+    if (fromHeightInclusive >= endExclusive) {
       return List.of();
     }
+    return snapshot.subList((int) fromHeightInclusive, (int) endExclusive);
+  }
+
+  /**
+   * Returns the running digest of the whole chain, which commits to every block hash. Two nodes
+   * with the same digest at a height have the same chain up to that height.
+   *
+   * @return The digest at the latest block.
+   */
+  public ChainDigest digest() {
+    return digestAt(accumulator.height()).orElseThrow();
+  }
+
+  /**
+   * Returns the running chain digest at a given height, in O(1).
+   *
+   * @param height The height.
+   * @return The digest, or empty if the height is past the tip.
+   */
+  public Optional<ChainDigest> digestAt(long height) {
+    if (height < 0 || height > accumulator.height()) {
+      return Optional.empty();
+    }
+    return Optional.of(new ChainDigest(height, chain.get((int) height).hash(),
+        HexCodec.encode(accumulator.at(height))));
+  }
+
+  /**
+   * Returns the checkpoints of the local chain, newest first.
+   *
+   * @return The checkpoints.
+   */
+  public List<Checkpoint> checkpoints() {
+    return checkpoints.newestFirst();
+  }
+
+  /**
+   * Returns the newest checkpoint that can be trusted: its signature is valid (or it was recorded
+   * unsigned by this process) and its block hash and chain digest match the local chain, which
+   * proves every block up to it unchanged.
+   * <p>
+   * Checkpoints that fail the check are reported and skipped.
+   *
+   * @return The checkpoint, or empty if none can be trusted.
+   */
+  public Optional<Checkpoint> latestTrustedCheckpoint() {
+    for (Checkpoint checkpoint : checkpoints.newestFirst()) {
+      long height = checkpoint.height();
+      boolean matches = height <= accumulator.height()
+          && HexCodec.matches(accumulator.at(height), checkpoint.accumulator())
+          && chain.get((int) height).hash().equals(checkpoint.blockHash());
+      if (matches && checkpoints.hasValidSignature(checkpoint)) {
+        return Optional.of(checkpoint);
+      }
+      logger.logBusinessError("CHECKPOINT_MISMATCH", "Checkpoint does not match the local chain",
+          Map.of("height", height, "digestMatches", matches));
+    }
+    return Optional.empty();
+  }
 
-    int endIndex = Math.min(startIndex + limit, chain.size());
-    return new ArrayList<>(chain.subList(startIndex, endIndex));
+  /**
+   * Returns the snapshots this node can serve: its signed checkpoints, newest first. The snapshot
+   * at a checkpoint is the chain up to the checkpoint's height.
+   *
+   * @return The snapshot checkpoints.
+   */
+  public List<Checkpoint> snapshots() {
+    return checkpoints.newestFirst().stream().filter(Checkpoint::signed).toList();
+  }
+
+  /**
+   * Returns the snapshot at a height.
+   *
+   * @param height The snapshot height.
+   * @return The signed checkpoint at that height, or empty if there is none.
+   */
+  public Optional<Checkpoint> snapshotAt(long height) {
+    return Optional.ofNullable(checkpoints.at(height)).filter(Checkpoint::signed);
   }
 
   /**
@@ -101,8 +266,22 @@ public class LedgerService {
    *
    * @return List of pending evidences.
    */
-  public synchronized List<EvidenceRecord> mempool() {
-    return List.copyOf(mempool);
+  public List<EvidenceRecord> mempool() {
+    return List.copyOf(mempool.snapshot());
+  }
+
+  /**
+   * Returns the number, estimated size and age of the pending evidences not yet taken for a
+   * block, without copying them.
+   *
+   * @return The current mempool statistics.
+   */
+  public PendingEvidences pendingEvidences() {
+    OptionalLong oldest = mempool.oldestUnsealedNanos();
+    Duration oldestAge = oldest.isPresent()
+        ? Duration.ofNanos(Math.max(0, System.nanoTime() - oldest.getAsLong()))
+        : Duration.ZERO;
+    return new PendingEvidences(mempool.unsealedCount(), mempool.unsealedBytes(), oldestAge);
   }
 
   /**
@@ -112,10 +291,118 @@ public class LedgerService {
    *
    * @param evidence The evidence record to submit.
    * @return The normalized evidence record as stored in the mempool.
+   * @throws IllegalArgumentException if the hash algorithm is not supported, the hash format is
+   *                                  invalid, an evidence with the same id is already pending, or
+   *                                  the same hash is already pending or committed.
+   */
+  public EvidenceRecord submitEvidence(EvidenceRecord evidence) {
+    EvidenceRecord normalized = normalize(evidence);
+    admit(normalized);
+    evidenceSequence.incrementAndGet();
+
+    if (logger.isBusinessEventEnabled()) {
+      logger.logBusinessEvent("EVIDENCE_SUBMITTED", Map.of(
+          "evidenceId", normalized.evidenceId(),
+          "hash", normalized.hash(),
+          "createdBy", normalized.createdBy()
+      ));
+    }
+
+    return normalized;
+  }
+
+  /**
+   * Submits a batch of evidence records to the mempool.
+   * <p>
+   * Every entry is validated and normalized like in {@link #submitEvidence(EvidenceRecord)}; an
+   * invalid or duplicate entry is rejected on its own without affecting the others. A single
+   * summary business event is logged for the whole batch.
+   *
+   * @param evidences The evidence records, at most {@value #MAX_BATCH_SIZE}.
+   * @return One result per entry, in the same order.
+   * @throws IllegalArgumentException if the batch is larger than {@value #MAX_BATCH_SIZE}.
+   */
+  public List<SubmissionResult> submitEvidences(List<EvidenceRecord> evidences) {
+    if (evidences.size() > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException("A batch holds at most " + MAX_BATCH_SIZE + " evidences");
+    }
+    List<SubmissionResult> results = new ArrayList<>(evidences.size());
+    int accepted = 0;
+    for (EvidenceRecord evidence : evidences) {
+      EvidenceRecord normalized;
+      try {
+        normalized = normalize(evidence);
+      } catch (IllegalArgumentException e) {
+        results.add(SubmissionResult.rejected(e.getMessage()));
+        continue;
+      }
+      try {
+        admit(normalized);
+      } catch (IllegalArgumentException e) {
+        results.add(SubmissionResult.rejected(e.getMessage()));
+        continue;
+      }
+      results.add(new SubmissionResult(normalized, null));
+      accepted++;
+    }
+    evidenceSequence.addAndGet(accepted);
+
+    if (logger.isBusinessEventEnabled()) {
+      logger.logBusinessEvent("EVIDENCE_BATCH_SUBMITTED", Map.of(
+          "submitted", evidences.size(),
+          "accepted", accepted,
+          "rejected", evidences.size() - accepted
+      ));
+    }
+
+    return results;
+  }
+
+  /**
+   * Adds a normalized evidence to the mempool unless its evidenceId is already pending or its hash
+   * is already pending or committed.
+   * <p>
+   * Committed hashes are looked up in the evidence hash index (constant time, kept in memory and
+   * rebuilt when the chain is restored); pending ones are claimed atomically by the mempool.
+   *
+   * @throws IllegalArgumentException if the evidence is a duplicate.
+   */
+  private void admit(EvidenceRecord normalized) {
+    String hash = normalized.hash();
+    rejectIfCommitted(hash);
+    switch (mempool.add(normalized)) {
+      case DUPLICATE_ID -> throw new IllegalArgumentException(
+          "Evidence " + normalized.evidenceId() + " is already pending in the mempool.");
+      case DUPLICATE_HASH -> throw new IllegalArgumentException(
+          "An evidence with hash " + hash + " is already pending in the mempool.");
+      case ADDED -> {
+      }
+    }
+    // An earlier copy may have been committed between both checks. Blocks are indexed before
+    // their evidences leave the mempool, so looking again closes that gap.
+    try {
+      rejectIfCommitted(hash);
+    } catch (IllegalArgumentException e) {
+      mempool.removeAll(List.of(normalized));
+      throw e;
+    }
+  }
+
+  private void rejectIfCommitted(String hash) {
+    long location = evidenceIndex.find(hash);
+    if (location >= 0) {
+      throw new IllegalArgumentException("An evidence with hash " + hash
+          + " is already committed in block " + EvidenceHashIndex.height(location) + ".");
+    }
+  }
+
+  /**
+   * Validates an evidence submission and normalizes its hash fields.
+   *
    * @throws IllegalArgumentException if the hash algorithm is not supported or the hash format is
    *                                  invalid.
    */
-  public EvidenceRecord submitEvidence(EvidenceRecord evidence) {
+  private static EvidenceRecord normalize(EvidenceRecord evidence) {
     // Minimal PoC validations
     String algo = normalizeAlgo(evidence.hashAlgorithm());
     if (!"SHA-256".equals(algo)) {
@@ -126,7 +413,7 @@ public class LedgerService {
           "Invalid hash: must be a 64-character hex string (SHA-256)");
     }
 
-    EvidenceRecord normalized = new EvidenceRecord(
+    return new EvidenceRecord(
         evidence.evidenceId(),
         evidence.homologationId(),
         evidence.testRunId(),
@@ -140,30 +427,62 @@ public class LedgerService {
         evidence.standards(),
         evidence.createdAt()
     );
-
-    synchronized (this) {
-      mempool.add(normalized);
-      evidenceSequence.incrementAndGet();
-    }
-
-    logger.logBusinessEvent("EVIDENCE_SUBMITTED", Map.of(
-        "evidenceId", normalized.evidenceId(),
-        "hash", normalized.hash(),
-        "createdBy", normalized.createdBy()
-    ));
-
-    return normalized;
   }
 
   /**
-   * Leader only: Seals pending evidences from the mempool into a new signed block and replicates
-   * it.
+   * Leader only: Seals all pending evidences from the mempool into a new signed block and hands it
+   * to the replication port, which delivers it to the peers asynchronously.
    *
    * @return The newly created and committed block.
    * @throws IllegalStateException if the node is not a leader, has no private key, or the mempool
    *                               is empty.
    */
   public Block commitAsLeader() {
+    return commitAsLeader(Integer.MAX_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * Leader only: Seals the oldest pending evidences into a new signed block of bounded size; the
+   * rest stay in the mempool for the next block. Waits until the block is appended.
+   *
+   * @param maxEvidences Maximum number of evidences in the block.
+   * @param maxBytes     Maximum estimated size of the block evidences. A single evidence larger
+   *                     than this is still sealed, alone.
+   * @return The newly created and committed block.
+   * @throws IllegalStateException if the node is not a leader, has no private key, or the mempool
+   *                               is empty.
+   */
+  public Block commitAsLeader(int maxEvidences, long maxBytes) {
+    try {
+      return sealAsLeader(maxEvidences, maxBytes).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Block commit failed", e.getCause());
+    }
+  }
+
+  /**
+   * Leader only: Reserves the oldest pending evidences for a new block and hands it to the commit
+   * pipeline without waiting for it.
+   * <p>
+   * The pipeline builds the Merkle tree, hashes and signs, then appends (and persists) blocks on
+   * separate stages connected by bounded queues, so under sustained load several blocks are in
+   * flight at once. Blocks are appended in the order they were sealed. Appended blocks are flushed
+   * to storage in groups, and only then enqueued for replication (which runs asynchronously per
+   * peer) and completed. If a block fails, its evidences go back to the mempool.
+   *
+   * @param maxEvidences Maximum number of evidences in the block.
+   * @param maxBytes     Maximum estimated size of the block evidences.
+   * @return Completes with the block once appended, or exceptionally if it could not be committed.
+   * @throws IllegalStateException if the node is not a leader, has no private key, no evidence
+   *                               is waiting for a block, or the service is closed.
+   */
+  public CompletableFuture<Block> sealAsLeader(int maxEvidences, long maxBytes) {
+    if (maxEvidences <= 0 || maxBytes <= 0) {
+      throw new IllegalArgumentException("Block limits must be positive");
+    }
     if (!nodeConfig.isLeader()) {
       throw new IllegalStateException("This node is not a leader; cannot commit blocks.");
     }
@@ -171,43 +490,172 @@ public class LedgerService {
       throw new IllegalStateException("Missing ledger.node.privateKeyBase64 to sign blocks.");
     }
 
-    final Block newBlock;
-    final List<String> peerUrls = nodeConfig.getPeers();
-
-    synchronized (this) {
-      if (mempool.isEmpty()) {
+    // Reserving and queueing together keeps blocks in the pipeline in evidence order
+    synchronized (sealLock) {
+      List<EvidenceRecord> evidences = List.copyOf(mempool.take(maxEvidences, maxBytes));
+      if (evidences.isEmpty()) {
         throw new IllegalStateException("No pending evidences in mempool.");
       }
+      BlockDraft draft = new BlockDraft(evidences, Instant.now(), nodeConfig.getPeers());
+      try {
+        commitPipeline.submit(draft);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        mempool.release(evidences);
+        throw new IllegalStateException("Interrupted while sealing a block", e);
+      } catch (IllegalStateException e) {
+        // The pipeline is closed
+        mempool.release(evidences);
+        throw e;
+      }
+      return draft.result;
+    }
+  }
 
-      Block prev = latest();
-      long height = prev.height() + 1;
-      Instant ts = Instant.now();
-      List<EvidenceRecord> evidences = List.copyOf(mempool);
-      String previousHash = prev.hash();
-      String proposer = nodeConfig.getNodeId();
+  /**
+   * Stops the commit pipeline. Blocks still in flight fail: their futures complete exceptionally
+   * and their evidences go back to the mempool. Sealing afterwards is rejected. Blocks already
+   * appended are flushed and released.
+   */
+  @PreDestroy
+  public void close() {
+    commitPipeline.close();
+    releaseDurableDrafts();
+  }
 
-      String canonical = canonicalBlockFields(height, ts, evidences, previousHash, proposer);
-      String hashHex = hashing.sha256Hex(canonical);
-      byte[] hashBytes = hexToBytes(hashHex);
+  /**
+   * Commit stage 1: builds the Merkle tree over the block evidences.
+   */
+  private void buildMerkleTree(BlockDraft draft) {
+    draft.tree = MerkleTree.build(draft.evidences, blockEncoders.get());
+  }
 
-      String signature = crypto.signEd25519(hashBytes, nodeConfig.getPrivateKeyBase64());
+  /**
+   * Commit stage 2: links the block to the last signed one, then hashes and signs its header.
+   */
+  private void signBlock(BlockDraft draft) {
+    Block prev = lastSigned.get();
+    Block appended = latest();
+    if (prev == null || prev.height() < appended.height()) {
+      prev = appended;
+    }
+    long height = prev.height() + 1;
+    String proposer = nodeConfig.getNodeId();
+    String merkleRoot = draft.tree.root();
+    byte[] hashBytes = blockEncoders.get()
+        .headerHash(height, draft.timestamp, prev.hash(), proposer, merkleRoot);
+    String signature = crypto.signEd25519(hashBytes, nodeConfig.getPrivateKeyBase64());
 
-      newBlock = new Block(height, ts, evidences, previousHash, proposer, hashHex, signature);
+    draft.block = new Block(height, draft.timestamp, draft.evidences, prev.hash(), proposer,
+        HexCodec.encode(hashBytes), signature, Block.VERSION_2, merkleRoot);
+    lastSigned.set(draft.block);
+  }
 
+  /**
+   * Commit stage 3: appends and persists the block. It is replicated and completed once a flush
+   * covers it: when the storage completes a group on its own, or when no further block is on its
+   * way to this stage.
+   */
+  private void appendSealedBlock(BlockDraft draft) {
+    Block newBlock = draft.block;
+    synchronized (this) {
+      if (!Objects.equals(newBlock.previousHash(), latest().hash())) {
+        throw new IllegalStateException(
+            "Chain changed while block " + newBlock.height() + " was being sealed.");
+      }
       // append-only
-      chain.add(newBlock);
-      mempool.clear();
+      appendBlock(newBlock);
+      // The block is committed from here on: nothing below may hand its evidences back
+      draft.appended = true;
+      mempool.removeAll(newBlock.evidences());
+      merkleTrees.put(newBlock.height(), draft.tree);
+      awaitingFlush.add(draft);
+      recordCheckpoint(newBlock);
+    }
+    if (storage.isFlushed() || commitPipeline.pending() == 0) {
+      releaseDurableDrafts();
     }
+  }
 
-    logger.logBusinessEvent("BLOCK_COMMITTED", Map.of(
-        "height", newBlock.height(),
-        "hash", newBlock.hash(),
-        "evidencesCount", newBlock.evidences().size(),
-        "proposer", newBlock.proposerNodeId()
-    ));
+  /**
+   * Flushes the storage, then replicates and completes the blocks waiting for that flush. A leader
+   * block never leaves the node before it is durable, so a crash cannot lose a block that peers or
+   * clients have already seen. If the flush fails, the blocks are not replicated and their results
+   * fail.
+   */
+  private void releaseDurableDrafts() {
+    List<BlockDraft> released;
+    synchronized (this) {
+      if (awaitingFlush.isEmpty()) {
+        return;
+      }
+      released = List.copyOf(awaitingFlush);
+      awaitingFlush.clear();
+      try {
+        storage.flush();
+      } catch (RuntimeException e) {
+        logger.logBusinessError("BLOCK_FLUSH_FAILED", String.valueOf(e.getMessage()),
+            Map.of("blocks", released.size()));
+        released.forEach(draft -> draft.result.completeExceptionally(e));
+        return;
+      }
+      // Only enqueues the blocks; doing it under the lock keeps peer queues in height order
+      for (BlockDraft draft : released) {
+        replication.replicateBlockToPeers(draft.block, draft.peerUrls);
+      }
+    }
+
+    for (BlockDraft draft : released) {
+      Block block = draft.block;
+      metrics.recordTime("ledger.block.commit", System.nanoTime() - draft.sealedNanos);
+      if (logger.isBusinessEventEnabled()) {
+        logger.logBusinessEvent("BLOCK_COMMITTED", Map.of(
+            "height", block.height(),
+            "hash", block.hash(),
+            "evidencesCount", block.evidences().size(),
+            "proposer", block.proposerNodeId()
+        ));
+      }
+      draft.result.complete(block);
+    }
+  }
+
+  /**
+   * Takes a checkpoint of an appended block if it falls on the checkpoint interval. A failure
+   * only costs this checkpoint: the block stays committed and the next interval retries.
+   */
+  private void recordCheckpoint(Block block) {
+    try {
+      checkpoints.blockAppended(block, accumulator.at(block.height()));
+    } catch (RuntimeException e) {
+      logger.logBusinessError("CHECKPOINT_FAILED", String.valueOf(e.getMessage()),
+          Map.of("height", block.height()));
+    }
+  }
 
-    replication.replicateBlockToPeers(newBlock, peerUrls);
-    return newBlock;
+  /**
+   * Gives the evidences of a block that failed in the commit pipeline back to the mempool.
+   * A block that was already appended is committed: its evidences are not released again.
+   */
+  private void abandonDraft(BlockDraft draft, Exception e) {
+    if (draft.appended) {
+      // Its result completes with the flush group it is waiting in
+      logger.logBusinessError("BLOCK_RELEASE_FAILED", String.valueOf(e.getMessage()),
+          Map.of("height", draft.block.height()));
+    } else {
+      if (draft.block != null) {
+        // Blocks signed after this one link to it: relink the next ones to the appended chain
+        lastSigned.set(null);
+      }
+      mempool.release(draft.evidences);
+      logger.logBusinessError("BLOCK_COMMIT_FAILED", String.valueOf(e.getMessage()),
+          Map.of("evidencesCount", draft.evidences.size()));
+      draft.result.completeExceptionally(e);
+    }
+    // This block would have closed the flush group of the blocks appended before it
+    if (commitPipeline.pending() == 0) {
+      releaseDurableDrafts();
+    }
   }
 
   /**
@@ -217,15 +665,135 @@ public class LedgerService {
    * @throws IllegalArgumentException if the block is invalid (height, hash, signature, etc.).
    */
   public synchronized void acceptReplicatedBlock(Block incoming) {
+    long start = System.nanoTime();
+    accept(incoming, false);
+    metrics.recordTime("ledger.block.accept", System.nanoTime() - start);
+  }
+
+  /**
+   * Followers: accepts a run of consecutive blocks, typically a catch-up batch.
+   * <p>
+   * Hashes (and Merkle roots) are recomputed in parallel and signatures are verified with one
+   * batch call per proposer, outside the writer monitor. Blocks are then applied in order with
+   * the same checks as {@link #acceptReplicatedBlock(Block)}; a block that failed
+   * pre-verification goes through the full checks again so it is rejected with the usual error.
+   *
+   * @param blocks The blocks, in ascending height order.
+   * @throws IllegalArgumentException at the first invalid block; the blocks before it stay
+   *                                  applied.
+   */
+  public void acceptReplicatedBlocks(List<Block> blocks) {
+    if (blocks.isEmpty()) {
+      return;
+    }
+    boolean[] hashValid = new boolean[blocks.size()];
+    IntStream.range(0, blocks.size()).parallel()
+        .forEach(i -> hashValid[i] = hasValidHash(blocks.get(i)));
+    boolean[] signatureValid =
+        BlockSignatures.verify(blocks, nodeConfig.getAllowedNodePublicKeys(), crypto);
+
+    synchronized (this) {
+      for (int i = 0; i < blocks.size(); i++) {
+        accept(blocks.get(i), hashValid[i] && signatureValid[i]);
+      }
+    }
+  }
+
+  /**
+   * Followers: installs a snapshot, i.e. the blocks up to a checkpoint signed by an allowed node,
+   * with one signature check for the whole range instead of one per block.
+   * <p>
+   * Hashes (and Merkle roots) are recomputed in parallel and the links checked as usual, but block
+   * signatures are not verified: the checkpoint signature covers the chain digest at its height,
+   * which commits to every block hash up to it. Nothing is appended until the whole range has been
+   * checked against that digest.
+   *
+   * @param snapshot The signed checkpoint the blocks end at.
+   * @param blocks   The blocks after the local tip, up to the snapshot height, in order.
+   * @return The number of blocks appended (0 if the local chain already reaches the snapshot).
+   * @throws IllegalArgumentException if the snapshot or a block is invalid; nothing is appended.
+   */
+  public int installSnapshot(Checkpoint snapshot, List<Block> blocks) {
+    long start = System.nanoTime();
+    if (!snapshot.signed() || !checkpoints.hasValidSignature(snapshot)) {
+      logger.logBusinessError("INVALID_SNAPSHOT_SIGNATURE", "Snapshot signature verification failed",
+          Map.of("height", snapshot.height(), "signer", String.valueOf(snapshot.signerNodeId())));
+      throw rejected("snapshot_signature",
+          "Invalid signature for snapshot at height " + snapshot.height());
+    }
+    boolean[] hashValid = new boolean[blocks.size()];
+    IntStream.range(0, blocks.size()).parallel()
+        .forEach(i -> hashValid[i] = hasValidHash(blocks.get(i)));
+
+    synchronized (this) {
+      Block prev = latest();
+      if (prev.height() >= snapshot.height()) {
+        return 0;
+      }
+      if (blocks.size() != snapshot.height() - prev.height()) {
+        throw rejected("snapshot_range", "Snapshot at height " + snapshot.height()
+            + " needs the blocks after height " + prev.height() + ", got " + blocks.size());
+      }
+      Map<String, String> allowedKeys = nodeConfig.getAllowedNodePublicKeys();
+      for (int i = 0; i < blocks.size(); i++) {
+        Block block = blocks.get(i);
+        if (block.height() != prev.height() + 1
+            || !Objects.equals(block.previousHash(), prev.hash())) {
+          throw rejected("previous_hash",
+              "Snapshot block " + block.height() + " does not extend the chain.");
+        }
+        String pubKey = allowedKeys.get(block.proposerNodeId());
+        if (pubKey == null || pubKey.isBlank()) {
+          throw rejected("proposer", "Unauthorized Proposer: " + block.proposerNodeId());
+        }
+        if (!hashValid[i]) {
+          throw rejected("hash", "Invalid Hash in snapshot block " + block.height() + ".");
+        }
+        prev = block;
+      }
+      if (!prev.hash().equals(snapshot.blockHash())
+          || !HexCodec.matches(accumulator.peek(blocks), snapshot.accumulator())) {
+        logger.logBusinessError("SNAPSHOT_MISMATCH", "Snapshot blocks do not match its digest",
+            Map.of("height", snapshot.height(), "signer", snapshot.signerNodeId()));
+        throw rejected("snapshot_digest",
+            "Snapshot blocks do not match the signed chain digest.");
+      }
+
+      for (Block block : blocks) {
+        appendBlock(block);
+        mempool.removeAll(block.evidences());
+      }
+      checkpoints.install(snapshot);
+    }
+
+    if (logger.isBusinessEventEnabled()) {
+      logger.logBusinessEvent("SNAPSHOT_INSTALLED", Map.of(
+          "height", snapshot.height(),
+          "blocks", blocks.size(),
+          "signer", snapshot.signerNodeId(),
+          "millis", (System.nanoTime() - start) / 1_000_000
+      ));
+    }
+    return blocks.size();
+  }
+
+  /**
+   * Validates and appends a replicated block.
+   *
+   * @param preverified true if the hash and signature were already checked for this block.
+   */
+  private void accept(Block incoming, boolean preverified) {
     Block prev = latest();
 
     // Idempotency check: if we already have this block (same height, same hash), ignore it.
     if (incoming.height() <= prev.height()) {
       if (incoming.height() == prev.height() && incoming.hash().equals(prev.hash())) {
-        logger.logBusinessEvent("BLOCK_IGNORED", Map.of(
-            "reason", "Already exists",
-            "height", incoming.height()
-        ));
+        if (logger.isBusinessEventEnabled()) {
+          logger.logBusinessEvent("BLOCK_IGNORED", Map.of(
+              "reason", "Already exists",
+              "height", incoming.height()
+          ));
+        }
         return;
       }
       // If height is lower or same but different hash -> Fork or old block.
@@ -238,7 +806,7 @@ public class LedgerService {
          return;
       } else {
          // Conflict/Fork
-         throw new IllegalArgumentException("Block height " + incoming.height() + " already exists with different hash.");
+         throw rejected("conflict", "Block height " + incoming.height() + " already exists with different hash.");
       }
     }
 
@@ -247,119 +815,221 @@ public class LedgerService {
           "Invalid Height. Expected " + (prev.height() + 1) + " but received " + incoming.height();
       logger.logBusinessError("INVALID_BLOCK_HEIGHT", msg,
           Map.of("proposer", incoming.proposerNodeId()));
-      throw new IllegalArgumentException(msg);
+      throw rejected("height", msg);
     }
     if (!Objects.equals(incoming.previousHash(), prev.hash())) {
-      throw new IllegalArgumentException("Invalid previousHash.");
+      throw rejected("previous_hash", "Invalid previousHash.");
     }
 
     String pubKey = nodeConfig.getAllowedNodePublicKeys().get(incoming.proposerNodeId());
     if (pubKey == null || pubKey.isBlank()) {
-      throw new IllegalArgumentException("Unauthorized Proposer: " + incoming.proposerNodeId());
+      throw rejected("proposer", "Unauthorized Proposer: " + incoming.proposerNodeId());
     }
 
-    // Recompute hash
-    String canonical = canonicalBlockFields(
-        incoming.height(),
-        incoming.timestamp(),
-        incoming.evidences(),
-        incoming.previousHash(),
-        incoming.proposerNodeId()
-    );
-    String recomputedHash = hashing.sha256Hex(canonical);
+    if (!preverified) {
+      verifyHashAndSignature(incoming, pubKey);
+    }
+
+    // append-only
+    appendBlock(incoming);
 
-    if (!Objects.equals(recomputedHash, incoming.hash())) {
+    // Remove confirmed evidences from the mempool (matched by evidenceId, O(block size))
+    mempool.removeAll(incoming.evidences());
+    recordCheckpoint(incoming);
+
+    if (logger.isBusinessEventEnabled()) {
+      logger.logBusinessEvent("BLOCK_ACCEPTED", Map.of(
+          "height", incoming.height(),
+          "hash", incoming.hash(),
+          "proposer", incoming.proposerNodeId()
+      ));
+    }
+  }
+
+  /**
+   * Counts a rejected replicated block and builds the exception to throw.
+   *
+   * @param reason Short reason tag (e.g., "signature").
+   */
+  private IllegalArgumentException rejected(String reason, String message) {
+    metrics.increment("ledger.blocks.rejected", 1, "reason", reason);
+    return new IllegalArgumentException(message);
+  }
+
+  private void verifyHashAndSignature(Block incoming, String pubKey) {
+    // Recompute hash (and, for version 2 blocks, the Merkle root it covers)
+    CanonicalBlockEncoder encoder = blockEncoders.get();
+    if (incoming.version() == Block.VERSION_2) {
+      MerkleTree tree = MerkleTree.build(incoming.evidences(), encoder);
+      if (!tree.hasRoot(incoming.merkleRoot())) {
+        logger.logBusinessError("INVALID_BLOCK_MERKLE_ROOT", "Merkle root mismatch",
+            Map.of("received", String.valueOf(incoming.merkleRoot()), "computed", tree.root()));
+        throw rejected("merkle_root", "Invalid Merkle root (does not match evidences).");
+      }
+      merkleTrees.put(incoming.height(), tree);
+    } else if (incoming.version() != Block.VERSION_1) {
+      throw rejected("version", "Unsupported block version: " + incoming.version());
+    }
+    byte[] hashBytes = encoder.hash(incoming);
+
+    if (!HexCodec.matches(hashBytes, incoming.hash())) {
       logger.logBusinessError("INVALID_BLOCK_HASH", "Hash mismatch",
-          Map.of("received", incoming.hash(), "computed", recomputedHash));
-      throw new IllegalArgumentException("Invalid Hash (does not match recomputed hash).");
+          Map.of("received", String.valueOf(incoming.hash()),
+              "computed", HexCodec.encode(hashBytes)));
+      throw rejected("hash", "Invalid Hash (does not match recomputed hash).");
     }
 
-    // Verify signature
-    byte[] hashBytes = hexToBytes(incoming.hash());
+    // Verify signature over the recomputed digest: it equals the received hash
     boolean okSig = crypto.verifyEd25519(hashBytes, incoming.signature(), pubKey);
     if (!okSig) {
       logger.logBusinessError("INVALID_BLOCK_SIGNATURE", "Signature verification failed",
           Map.of("proposer", incoming.proposerNodeId()));
-      throw new IllegalArgumentException(
+      throw rejected("signature",
           "Invalid signature for proposer " + incoming.proposerNodeId());
     }
+  }
 
-    // append-only
-    chain.add(incoming);
+  /**
+   * Searches for an evidence by its hash in the entire chain.
+   * <p>
+   * Uses the hash index maintained on every append, so the lookup cost does not depend on the
+   * chain length.
+   *
+   * @param hashHex The SHA-256 hash of the evidence.
+   * @return An Optional containing the EvidenceProof (evidence + block) if found.
+   */
+  public Optional<EvidenceProof> findEvidenceByHash(String hashHex) {
+    long start = System.nanoTime();
+    String h = hashHex == null ? "" : hashHex.trim().toLowerCase(Locale.ROOT);
 
-    // PoC: remove confirmed evidences from mempool if they exist
-    mempool.removeAll(incoming.evidences());
+    long location = evidenceIndex.find(h);
+    metrics.recordTime("ledger.evidence.lookup", System.nanoTime() - start,
+        "found", String.valueOf(location >= 0));
+    boolean logged = logger.isBusinessEventEnabled();
+    if (location >= 0) {
+      Block b = chain.get((int) EvidenceHashIndex.height(location));
+      EvidenceRecord e = b.evidences().get(EvidenceHashIndex.position(location));
+      if (logged) {
+        logger.logBusinessEvent("EVIDENCE_VERIFIED",
+            Map.of("hash", h, "found", true, "blockHeight", b.height()));
+      }
+      return Optional.of(new EvidenceProof(e, b, EvidenceHashIndex.position(location)));
+    }
+    if (logged) {
+      logger.logBusinessEvent("EVIDENCE_VERIFIED", Map.of("hash", h, "found", false));
+    }
+    return Optional.empty();
+  }
 
-    logger.logBusinessEvent("BLOCK_ACCEPTED", Map.of(
-        "height", incoming.height(),
-        "hash", incoming.hash(),
-        "proposer", incoming.proposerNodeId()
-    ));
+  /**
+   * Computes the Merkle inclusion path of a committed evidence.
+   * <p>
+   * Trees are rebuilt on demand and the most recently used ones are cached, so repeated proofs
+   * against the same block cost O(log n).
+   *
+   * @param proof An evidence located by {@link #findEvidenceByHash(String)}.
+   * @return The inclusion proof, or empty if the block predates Merkle roots (version 1).
+   */
+  public Optional<MerkleTree.InclusionProof> inclusionProof(EvidenceProof proof) {
+    Block b = proof.block();
+    if (b.version() != Block.VERSION_2) {
+      return Optional.empty();
+    }
+    MerkleTree tree = merkleTrees.get(b.height());
+    if (tree == null) {
+      tree = MerkleTree.build(b.evidences(), blockEncoders.get());
+      merkleTrees.put(b.height(), tree);
+    }
+    return Optional.of(tree.proof(proof.position()));
   }
 
   /**
-   * Validates the integrity of the entire local blockchain.
+   * Returns one page of the committed evidences whose attribute equals the given value.
+   * <p>
+   * Served from the secondary indexes maintained on every append; results are in chain order.
    *
-   * @return true if the chain is valid, false otherwise.
+   * @param attribute The attribute to filter on.
+   * @param value     The exact attribute value.
+   * @param page      Zero-based page number.
+   * @param size      Page size (1 to {@value #MAX_PAGE_SIZE}).
+   * @return The requested page.
+   * @throws IllegalArgumentException if the paging parameters are out of range.
    */
-  public synchronized boolean isValidLocalChain() {
-    if (chain.isEmpty()) {
-      return false;
+  public EvidencePage findEvidences(EvidenceAttributeIndex.Attribute attribute,
+      String value, int page, int size) {
+    if (page < 0) {
+      throw new IllegalArgumentException("page must be >= 0");
+    }
+    if (size <= 0 || size > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
     }
 
-    for (int i = 1; i < chain.size(); i++) {
-      Block prev = chain.get(i - 1);
-      Block cur = chain.get(i);
+    int total = attributeIndex.count(attribute, value);
+    long offset = (long) page * size;
+    long[] locations = offset >= total
+        ? new long[0]
+        : attributeIndex.locations(attribute, value, (int) offset, size);
 
-      if (cur.height() != prev.height() + 1) {
-        return false;
-      }
-      if (!Objects.equals(cur.previousHash(), prev.hash())) {
-        return false;
-      }
+    List<LocatedEvidence> items = new ArrayList<>(locations.length);
+    for (long location : locations) {
+      Block b = chain.get((int) EvidenceHashIndex.height(location));
+      EvidenceRecord e = b.evidences().get(EvidenceHashIndex.position(location));
+      items.add(new LocatedEvidence(e, b.height(), b.hash()));
+    }
+    return new EvidencePage(items, page, size, total);
+  }
 
-      String pubKey = nodeConfig.getAllowedNodePublicKeys().get(cur.proposerNodeId());
-      if (pubKey == null || pubKey.isBlank()) {
-        return false;
-      }
+  /**
+   * Rebuilds the in-memory chain from local storage, or starts a new chain from genesis.
+   */
+  private void restoreChain() {
+    storage.replay(0, this::publish);
 
-      String canonical = canonicalBlockFields(cur.height(), cur.timestamp(), cur.evidences(),
-          cur.previousHash(), cur.proposerNodeId());
-      String recomputedHash = hashing.sha256Hex(canonical);
-      if (!Objects.equals(recomputedHash, cur.hash())) {
-        return false;
-      }
+    if (chain.isEmpty()) {
+      appendBlock(createGenesis());
+      return;
+    }
 
-      byte[] hashBytes = hexToBytes(cur.hash());
-      if (!crypto.verifyEd25519(hashBytes, cur.signature(), pubKey)) {
-        return false;
+    Block genesis = chain.get(0);
+    if (genesis.height() != 0 || !genesis.hash().equals(createGenesis().hash())) {
+      throw new IllegalStateException(
+          "Stored chain does not start with the expected genesis block.");
+    }
+    for (int i = 1; i < chain.size(); i++) {
+      if (chain.get(i).height() != i) {
+        throw new IllegalStateException("Stored chain has a gap at height " + i);
       }
     }
+    checkpoints.restore(latest().height());
 
-    logger.logBusinessEvent("CHAIN_VALIDATION", Map.of("valid", true, "height", latest().height()));
-    return true;
+    if (logger.isBusinessEventEnabled()) {
+      logger.logBusinessEvent("LEDGER_RESTORED", Map.of(
+          "height", latest().height(),
+          "blocks", chain.size()
+      ));
+    }
   }
 
   /**
-   * Searches for an evidence by its hash in the entire chain.
-   *
-   * @param hashHex The SHA-256 hash of the evidence.
-   * @return An Optional containing the EvidenceProof (evidence + block) if found.
+   * Persists a block and then publishes it to the in-memory chain.
    */
-  public synchronized Optional<EvidenceProof> findEvidenceByHash(String hashHex) {
-    String h = hashHex == null ? "" : hashHex.trim().toLowerCase(Locale.ROOT);
+  private void appendBlock(Block block) {
+    storage.append(block);
+    publish(block);
+  }
 
-    for (Block b : chain) {
-      for (EvidenceRecord e : b.evidences()) {
-        if (e.hash().equals(h)) {
-          logger.logBusinessEvent("EVIDENCE_VERIFIED",
-              Map.of("hash", h, "found", true, "blockHeight", b.height()));
-          return Optional.of(new EvidenceProof(e, b));
-        }
-      }
+  /**
+   * Adds a block to the in-memory chain and indexes its evidences.
+   */
+  private void publish(Block block) {
+    chain.add(block);
+    accumulator.append(block);
+    List<EvidenceRecord> evidences = block.evidences();
+    for (int i = 0; i < evidences.size(); i++) {
+      EvidenceRecord e = evidences.get(i);
+      evidenceIndex.putIfAbsent(e.hash(), block.height(), i);
+      attributeIndex.add(e, block.height(), i);
     }
-    logger.logBusinessEvent("EVIDENCE_VERIFIED", Map.of("hash", h, "found", false));
-    return Optional.empty();
   }
 
   private Block createGenesis() {
@@ -369,53 +1039,42 @@ public class LedgerService {
     String previousHash = "0".repeat(64);
     String proposer = "GENESIS";
 
-    String canonical = canonicalBlockFields(height, ts, evidences, previousHash, proposer);
-    String hash = hashing.sha256Hex(canonical);
+    String hash = HexCodec.encode(blockHash(height, ts, evidences, previousHash, proposer));
 
     return new Block(height, ts, evidences, previousHash, proposer, hash, "GENESIS");
   }
 
   private Block latest() {
-    return chain.get(chain.size() - 1);
+    return chain.last();
+  }
+
+  /**
+   * Recomputes a block's hash, including the Merkle root for version 2 blocks.
+   * <p>
+   * Thread-safe: each calling thread hashes with its own encoder.
+   *
+   * @param block The block to check.
+   * @return true if the stored hash (and Merkle root) match the block content.
+   */
+  boolean hasValidHash(Block block) {
+    CanonicalBlockEncoder encoder = blockEncoders.get();
+    if (block.version() == Block.VERSION_2) {
+      if (!MerkleTree.build(block.evidences(), encoder).hasRoot(block.merkleRoot())) {
+        return false;
+      }
+    } else if (block.version() != Block.VERSION_1) {
+      return false;
+    }
+    return HexCodec.matches(encoder.hash(block), block.hash());
   }
 
-  private String canonicalBlockFields(long height, Instant ts, List<EvidenceRecord> evidences,
+  /**
+   * Computes the SHA-256 of a version 1 block's canonical content (see
+   * {@link CanonicalBlockEncoder}).
+   */
+  private byte[] blockHash(long height, Instant ts, List<EvidenceRecord> evidences,
       String previousHash, String proposer) {
-    // Deterministic canonicalization (very important)
-    StringBuilder sb = new StringBuilder();
-    sb.append("height=").append(height).append("|");
-    sb.append("ts=").append(ts.toString()).append("|");
-    sb.append("prev=").append(previousHash).append("|");
-    sb.append("proposer=").append(proposer).append("|");
-    sb.append("evidences=");
-
-    // Deterministic sort by evidenceId
-    List<EvidenceRecord> sorted = new ArrayList<>(evidences);
-    sorted.sort(Comparator.comparing(EvidenceRecord::evidenceId));
-
-    for (EvidenceRecord e : sorted) {
-      sb.append(e.evidenceId()).append(",");
-      sb.append(e.homologationId()).append(",");
-      sb.append(e.testRunId()).append(",");
-      sb.append(e.artifactName()).append(",");
-      sb.append(e.artifactType()).append(",");
-      sb.append(e.hashAlgorithm()).append(",");
-      sb.append(e.hash()).append(",");
-      sb.append(e.sizeBytes() == null ? "" : e.sizeBytes()).append(",");
-      sb.append(e.createdBy()).append(",");
-      sb.append(e.storageUri() == null ? "" : e.storageUri()).append(",");
-      sb.append(e.createdAt().toString()).append(",");
-
-      // sorted standards
-      List<String> std = e.standards() == null ? List.of() : e.standards();
-      List<String> stdSorted = new ArrayList<>(std);
-      stdSorted.sort(String::compareTo);
-      sb.append(String.join("+", stdSorted));
-
-      sb.append(";");
-    }
-
-    return sb.toString();
+    return blockEncoders.get().hash(height, ts, evidences, previousHash, proposer);
   }
 
   private static boolean isValidHexSha256(String hex) {
@@ -440,16 +1099,99 @@ public class LedgerService {
     return algo == null ? "" : algo.trim().toUpperCase(Locale.ROOT);
   }
 
-  private static byte[] hexToBytes(String hex) {
-    int len = hex.length();
-    byte[] out = new byte[len / 2];
-    for (int i = 0; i < len; i += 2) {
-      out[i / 2] = (byte) Integer.parseInt(hex.substring(i, i + 2), 16);
+  /**
+   * A committed evidence located in the chain.
+   *
+   * @param evidence The evidence record.
+   * @param block    The block containing the evidence.
+   * @param position Position of the evidence inside {@link Block#evidences()}.
+   */
+  public record EvidenceProof(EvidenceRecord evidence, Block block, int position) {
+
+  }
+
+  /**
+   * A committed evidence together with the block that anchors it.
+   *
+   * @param evidence    The evidence record.
+   * @param blockHeight Height of the block containing the evidence.
+   * @param blockHash   Hash of the block containing the evidence.
+   */
+  public record LocatedEvidence(EvidenceRecord evidence, long blockHeight, String blockHash) {
+
+  }
+
+  /**
+   * The running chain digest at a height (see {@link Checkpoint} for its definition).
+   *
+   * @param height      The height.
+   * @param blockHash   Hash of the block at that height.
+   * @param accumulator Chain digest up to that height (lowercase hex).
+   */
+  public record ChainDigest(long height, String blockHash, String accumulator) {
+
+  }
+
+  /**
+   * Statistics of the evidences waiting in the mempool for a block.
+   *
+   * @param count     Number of waiting evidences.
+   * @param bytes     Estimated total size of the waiting evidences.
+   * @param oldestAge Time the oldest waiting evidence has been waiting (zero if none).
+   */
+  public record PendingEvidences(int count, long bytes, Duration oldestAge) {
+
+  }
+
+  /**
+   * Outcome of one entry of a batch submission.
+   *
+   * @param evidence The normalized evidence as stored in the mempool, or null if rejected.
+   * @param error    Why the entry was rejected, or null if accepted.
+   */
+  public record SubmissionResult(EvidenceRecord evidence, String error) {
+
+    static SubmissionResult rejected(String error) {
+      return new SubmissionResult(null, error);
+    }
+
+    public boolean accepted() {
+      return evidence != null;
     }
-    return out;
   }
 
-  public record EvidenceProof(EvidenceRecord evidence, Block block) {
+  /**
+   * A block moving through the commit pipeline. Each stage fills in its part.
+   */
+  private static final class BlockDraft {
+
+    private final List<EvidenceRecord> evidences;
+    private final Instant timestamp;
+    private final List<String> peerUrls;
+    private final CompletableFuture<Block> result = new CompletableFuture<>();
+    private final long sealedNanos = System.nanoTime();
+    private MerkleTree tree;
+    private Block block;
+    // Set by the append stage once the block is in the chain
+    private boolean appended;
+
+    BlockDraft(List<EvidenceRecord> evidences, Instant timestamp, List<String> peerUrls) {
+      this.evidences = evidences;
+      this.timestamp = timestamp;
+      this.peerUrls = peerUrls;
+    }
+  }
+
+  /**
+   * One page of an indexed evidence query.
+   *
+   * @param evidences     The evidences on this page.
+   * @param page          Zero-based page number.
+   * @param size          Requested page size.
+   * @param totalElements Total number of matching evidences.
+   */
+  public record EvidencePage(List<LocatedEvidence> evidences, int page, int size,
+                             long totalElements) {
 
   }
 }
@@ -0,0 +1,230 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+/**
+ * Concurrent pool of evidences waiting to be sealed into a block.
+ * <p>
+ * Entries are keyed by evidenceId and by hash in {@link ConcurrentHashMap}s, whose internally
+ * striped bins let submissions from many threads proceed without a shared lock. Both keys are
+ * unique: claiming them with {@code putIfAbsent} makes two concurrent submissions of the same
+ * evidenceId or hash race for one slot, and only one of them gets in.
+ * Submission order is kept in a lock-free queue so blocks still contain evidences in arrival order.
+ * <p>
+ * Removal is O(1) per evidence: the entry is dropped from the maps and marked as removed; the
+ * queue node is unlinked lazily by the next traversal.
+ * <p>
+ * Sealing takes evidences in two steps: {@link #take(int, long)} reserves them for a block in
+ * progress, and they stay pending (visible in {@link #snapshot()}) until the block is appended
+ * and they are removed, or the block fails and they are released. Reserved evidences are skipped
+ * by later takes, so several blocks can be sealed concurrently. Take, release and remove are
+ * serialized on the pool monitor; submissions stay lock-free.
+ * <p>
+ * The pool also tracks the count, approximate size and oldest arrival time of the evidences not
+ * yet reserved, so a block can be sealed once enough data is waiting or the oldest evidence has
+ * waited too long.
+ */
+final class Mempool {
+
+  private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Entry> byHash = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger unsealedCount = new AtomicInteger();
+  private final AtomicLong unsealedBytes = new AtomicLong();
+
+  /**
+   * Outcome of {@link #add(EvidenceRecord)}.
+   */
+  enum AddResult {
+    ADDED,
+    DUPLICATE_ID,
+    DUPLICATE_HASH
+  }
+
+  /**
+   * Adds an evidence to the pool unless its evidenceId or hash is already pending.
+   *
+   * @param evidence The (normalized) evidence.
+   * @return Whether the evidence was added, or which key was already taken.
+   */
+  AddResult add(EvidenceRecord evidence) {
+    Entry entry = new Entry(evidence);
+    // Claim the hash before the entry becomes removable so a concurrent removal cannot leak it
+    if (byHash.putIfAbsent(evidence.hash(), entry) != null) {
+      return AddResult.DUPLICATE_HASH;
+    }
+    if (byId.putIfAbsent(evidence.evidenceId(), entry) != null) {
+      byHash.remove(evidence.hash(), entry);
+      return AddResult.DUPLICATE_ID;
+    }
+    unsealedCount.incrementAndGet();
+    unsealedBytes.addAndGet(entry.bytes);
+    order.add(entry);
+    return AddResult.ADDED;
+  }
+
+  /**
+   * Removes the given evidences (matched by evidenceId) if they are pending.
+   *
+   * @param evidences The evidences to remove, typically the content of a committed block.
+   * @return The number of evidences actually removed.
+   */
+  synchronized int removeAll(Collection<EvidenceRecord> evidences) {
+    int removed = 0;
+    for (EvidenceRecord evidence : evidences) {
+      Entry entry = byId.remove(evidence.evidenceId());
+      if (entry != null) {
+        entry.removed = true;
+        if (!entry.sealing) {
+          unsealedCount.decrementAndGet();
+          unsealedBytes.addAndGet(-entry.bytes);
+        }
+        byHash.remove(entry.evidence.hash(), entry);
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * @return The pending evidences in submission order.
+   */
+  List<EvidenceRecord> snapshot() {
+    List<EvidenceRecord> pending = new ArrayList<>(byId.size());
+    for (Iterator<Entry> it = order.iterator(); it.hasNext(); ) {
+      Entry entry = it.next();
+      if (entry.removed) {
+        it.remove();
+      } else {
+        pending.add(entry.evidence);
+      }
+    }
+    return pending;
+  }
+
+  /**
+   * Reserves the oldest unreserved evidences, in submission order, that fit in one block.
+   * <p>
+   * Stops at the first evidence that would exceed either limit, but always takes at least one
+   * evidence when one is available, so an oversized evidence still gets sealed on its own.
+   *
+   * @param maxEvidences Maximum number of evidences.
+   * @param maxBytes     Maximum total size, as estimated by {@link #estimatedSize(EvidenceRecord)}.
+   * @return The reserved evidences, possibly empty.
+   */
+  synchronized List<EvidenceRecord> take(int maxEvidences, long maxBytes) {
+    List<EvidenceRecord> taken = new ArrayList<>(Math.min(maxEvidences, unsealedCount.get()));
+    long bytes = 0;
+    for (Iterator<Entry> it = order.iterator(); it.hasNext() && taken.size() < maxEvidences; ) {
+      Entry entry = it.next();
+      if (entry.removed) {
+        it.remove();
+        continue;
+      }
+      if (entry.sealing) {
+        continue;
+      }
+      if (!taken.isEmpty() && bytes + entry.bytes > maxBytes) {
+        break;
+      }
+      entry.sealing = true;
+      taken.add(entry.evidence);
+      bytes += entry.bytes;
+    }
+    unsealedCount.addAndGet(-taken.size());
+    unsealedBytes.addAndGet(-bytes);
+    return taken;
+  }
+
+  /**
+   * Returns evidences reserved by {@link #take(int, long)} to the pool, for a block that could not
+   * be committed. They keep their place in submission order.
+   *
+   * @param evidences The reserved evidences.
+   */
+  synchronized void release(Collection<EvidenceRecord> evidences) {
+    for (EvidenceRecord evidence : evidences) {
+      Entry entry = byId.get(evidence.evidenceId());
+      if (entry != null && entry.sealing) {
+        entry.sealing = false;
+        unsealedCount.incrementAndGet();
+        unsealedBytes.addAndGet(entry.bytes);
+      }
+    }
+  }
+
+  /**
+   * @return The {@link System#nanoTime()} at which the oldest unreserved evidence was added, or
+   *     empty if there is none.
+   */
+  OptionalLong oldestUnsealedNanos() {
+    for (Entry entry : order) {
+      if (!entry.removed && !entry.sealing) {
+        return OptionalLong.of(entry.addedNanos);
+      }
+    }
+    return OptionalLong.empty();
+  }
+
+  /**
+   * @return The number of pending evidences not reserved for a block.
+   */
+  int unsealedCount() {
+    return unsealedCount.get();
+  }
+
+  /**
+   * @return The estimated total size of the pending evidences not reserved for a block, in bytes.
+   */
+  long unsealedBytes() {
+    return unsealedBytes.get();
+  }
+
+  /**
+   * Estimates the encoded size of an evidence: the length of its text fields plus a fixed
+   * allowance for the numeric fields and the encoding overhead.
+   *
+   * @param evidence The evidence.
+   * @return The estimated size in bytes.
+   */
+  static long estimatedSize(EvidenceRecord evidence) {
+    long size = 64 + length(evidence.evidenceId()) + length(evidence.homologationId())
+        + length(evidence.testRunId()) + length(evidence.artifactName())
+        + length(evidence.artifactType()) + length(evidence.hashAlgorithm())
+        + length(evidence.hash()) + length(evidence.createdBy()) + length(evidence.storageUri());
+    if (evidence.standards() != null) {
+      for (String standard : evidence.standards()) {
+        size += 4 + length(standard);
+      }
+    }
+    return size;
+  }
+
+  private static int length(String value) {
+    return value == null ? 0 : value.length();
+  }
+
+  private static final class Entry {
+
+    private final EvidenceRecord evidence;
+    private final long bytes;
+    private final long addedNanos = System.nanoTime();
+    private volatile boolean removed;
+    // Reserved for a block in progress; written under the pool monitor
+    private volatile boolean sealing;
+
+    Entry(EvidenceRecord evidence) {
+      this.evidence = evidence;
+      this.bytes = estimatedSize(evidence);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.domain.HexCodec;
+
+/**
+ * Merkle tree over the evidences of a block, following the RFC 6962 construction.
+ * <p>
+ * Leaves are the evidences sorted by evidenceId (stable for duplicates). A leaf hash is
+ * {@code SHA-256(0x00 || canonical evidence)} and an interior node is
+ * {@code SHA-256(0x01 || left || right)}; when a level has an odd number of nodes the last one is
+ * promoted unchanged, which yields the same root as RFC 6962's split at the largest power of two.
+ * The root of a tree without leaves is {@code SHA-256("")}.
+ * <p>
+ * Every level is kept in a single byte array so that inclusion paths are O(log n) lookups and a
+ * tree of n leaves costs about {@code 64 * n} bytes.
+ */
+public final class MerkleTree {
+
+  static final int LEAF_PREFIX = 0x00;
+  static final int NODE_PREFIX = 0x01;
+  static final int HASH_BYTES = 32;
+
+  private final byte[][] levels;
+  private final int[] leafOfPosition;
+
+  private MerkleTree(byte[][] levels, int[] leafOfPosition) {
+    this.levels = levels;
+    this.leafOfPosition = leafOfPosition;
+  }
+
+  /**
+   * Builds the tree of a block's evidences.
+   *
+   * @param evidences The evidences, in block order.
+   * @param encoder   The encoder used to hash leaves and nodes.
+   * @return The tree.
+   */
+  static MerkleTree build(List<EvidenceRecord> evidences, CanonicalBlockEncoder encoder) {
+    int count = evidences.size();
+    if (count == 0) {
+      return new MerkleTree(new byte[][] {encoder.emptyHash()}, new int[0]);
+    }
+
+    Integer[] positions = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      positions[i] = i;
+    }
+    Arrays.sort(positions, Comparator.comparing(p -> evidences.get(p).evidenceId()));
+
+    int[] leafOfPosition = new int[count];
+    byte[] leaves = new byte[count * HASH_BYTES];
+    for (int leaf = 0; leaf < count; leaf++) {
+      int position = positions[leaf];
+      leafOfPosition[position] = leaf;
+      System.arraycopy(encoder.leafHash(evidences.get(position)), 0, leaves, leaf * HASH_BYTES,
+          HASH_BYTES);
+    }
+
+    List<byte[]> levels = new ArrayList<>();
+    levels.add(leaves);
+    byte[] level = leaves;
+    int size = count;
+    while (size > 1) {
+      int parentSize = (size + 1) / 2;
+      byte[] parents = new byte[parentSize * HASH_BYTES];
+      for (int i = 0; i < parentSize; i++) {
+        int left = 2 * i * HASH_BYTES;
+        if (2 * i + 1 < size) {
+          byte[] node = encoder.nodeHash(level, left, level, left + HASH_BYTES);
+          System.arraycopy(node, 0, parents, i * HASH_BYTES, HASH_BYTES);
+        } else {
+          System.arraycopy(level, left, parents, i * HASH_BYTES, HASH_BYTES);
+        }
+      }
+      levels.add(parents);
+      level = parents;
+      size = parentSize;
+    }
+    return new MerkleTree(levels.toArray(new byte[0][]), leafOfPosition);
+  }
+
+  /**
+   * @return The number of leaves.
+   */
+  public int leafCount() {
+    return leafOfPosition.length;
+  }
+
+  /**
+   * @return The root hash (lowercase hex).
+   */
+  public String root() {
+    return HexCodec.encode(levels[levels.length - 1], 0, HASH_BYTES);
+  }
+
+  /**
+   * Checks a received root against this tree without encoding the root.
+   *
+   * @param hex A root hash (lowercase hex).
+   * @return true if it is the root of this tree.
+   */
+  public boolean hasRoot(String hex) {
+    return HexCodec.matches(levels[levels.length - 1], hex);
+  }
+
+  /**
+   * Computes the inclusion path of one evidence.
+   *
+   * @param position The position of the evidence inside the block evidences list.
+   * @return The proof that the evidence's leaf is part of this tree.
+   */
+  public InclusionProof proof(int position) {
+    if (position < 0 || position >= leafOfPosition.length) {
+      throw new IndexOutOfBoundsException("No evidence at position " + position);
+    }
+    int leafIndex = leafOfPosition[position];
+    List<Step> path = new ArrayList<>(levels.length - 1);
+    int index = leafIndex;
+    for (int depth = 0; depth < levels.length - 1; depth++) {
+      int size = levels[depth].length / HASH_BYTES;
+      int sibling = index ^ 1;
+      if (sibling < size) {
+        Side side = (index & 1) == 0 ? Side.RIGHT : Side.LEFT;
+        path.add(new Step(side,
+            HexCodec.encode(levels[depth], sibling * HASH_BYTES, HASH_BYTES)));
+      }
+      index >>>= 1;
+    }
+    return new InclusionProof(leafIndex, leafCount(),
+        HexCodec.encode(levels[0], leafIndex * HASH_BYTES, HASH_BYTES), path, root());
+  }
+
+  /**
+   * Position of a sibling hash relative to the node being proven.
+   */
+  public enum Side {
+    LEFT,
+    RIGHT
+  }
+
+  /**
+   * One level of an inclusion path.
+   *
+   * @param side Whether the sibling is the left or the right input of the parent node.
+   * @param hash The sibling hash (lowercase hex).
+   */
+  public record Step(Side side, String hash) {
+
+  }
+
+  /**
+   * Inclusion proof of one evidence in a block.
+   * <p>
+   * To verify it, start from {@code leafHash} and, for every step, compute
+   * {@code SHA-256(0x01 || sibling || current)} for a {@link Side#LEFT} sibling or
+   * {@code SHA-256(0x01 || current || sibling)} for a {@link Side#RIGHT} one. The result must
+   * equal {@code merkleRoot}, which is covered by the signed block hash.
+   *
+   * @param leafIndex  Index of the evidence among the leaves (sorted by evidenceId).
+   * @param leafCount  Number of leaves in the tree.
+   * @param leafHash   {@code SHA-256(0x00 || canonical evidence)} (lowercase hex).
+   * @param path       Sibling hashes from the leaf up to the root.
+   * @param merkleRoot The root of the tree (lowercase hex).
+   */
+  public record InclusionProof(int leafIndex, int leafCount, String leafHash, List<Step> path,
+                               String merkleRoot) {
+
+  }
+}
@@ -0,0 +1,235 @@
+package xavierroigmartin.v_integrity.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Chain of processing stages, each running on its own virtual thread and connected to the next by
+ * a bounded queue.
+ * <p>
+ * Items go through every stage in submission order, and different items can be in different
+ * stages at the same time. A full queue blocks the stage (or submitter) in front of it, so a slow
+ * stage throttles the whole chain instead of letting work pile up. An item whose stage throws is
+ * handed to the failure handler and goes no further; the following items keep flowing.
+ * <p>
+ * Closing is cooperative: workers are never interrupted, so a stage doing I/O (such as an fsync)
+ * always finishes the item it holds. Every other item that has not gone through all stages is
+ * handed to the failure handler, so no item is silently dropped.
+ *
+ * @param <T> The type of the items, which carry their own state from stage to stage.
+ */
+final class StagedPipeline<T> {
+
+  /**
+   * One processing step.
+   *
+   * @param <T> The item type.
+   */
+  @FunctionalInterface
+  interface Stage<T> {
+
+    void process(T item) throws Exception;
+  }
+
+  // Marks the end of a queue: the worker reading it exits
+  private static final Object STOP = new Object();
+
+  // Queues hold items and, once closing, STOP
+  private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+  private final List<Thread> workers = new ArrayList<>();
+  private final BiConsumer<T, Exception> onFailure;
+  // Items submitted that have not entered the last stage or failed yet
+  private final AtomicInteger pending = new AtomicInteger();
+  private volatile boolean closed;
+
+  /**
+   * Starts one worker per stage.
+   *
+   * @param name      Prefix of the worker thread names.
+   * @param capacity  Capacity of the queue in front of every stage.
+   * @param stages    The stages, in processing order.
+   * @param onFailure Called with an item whose stage threw or that was still in flight when the
+   *                  pipeline was closed (on a stage thread or the closing thread).
+   */
+  StagedPipeline(String name, int capacity, List<Stage<T>> stages,
+      BiConsumer<T, Exception> onFailure) {
+    this.onFailure = onFailure;
+    for (int i = 0; i < stages.size(); i++) {
+      queues.add(new ArrayBlockingQueue<>(capacity));
+    }
+    for (int i = 0; i < stages.size(); i++) {
+      Stage<T> stage = stages.get(i);
+      BlockingQueue<Object> in = queues.get(i);
+      BlockingQueue<Object> out = i + 1 < queues.size() ? queues.get(i + 1) : null;
+      workers.add(Thread.ofVirtual().name(name + "-" + i).start(() -> work(stage, in, out)));
+    }
+  }
+
+  /**
+   * Hands an item to the first stage, waiting while its queue is full.
+   *
+   * @param item The item.
+   * @throws InterruptedException  if interrupted while waiting.
+   * @throws IllegalStateException if the pipeline is closed; the item was not accepted.
+   */
+  void submit(T item) throws InterruptedException {
+    if (closed) {
+      throw closedException();
+    }
+    BlockingQueue<Object> first = queues.get(0);
+    pending.incrementAndGet();
+    try {
+      first.put(item);
+    } catch (InterruptedException e) {
+      pending.decrementAndGet();
+      throw e;
+    }
+    // Closed while waiting: take the item back, unless close() already drained and failed it
+    if (closed && first.remove(item)) {
+      pending.decrementAndGet();
+      throw closedException();
+    }
+  }
+
+  /**
+   * Called from the last stage, tells whether more items are on their way to it.
+   *
+   * @return The number of items submitted that have not entered the last stage (the one it is
+   *         processing excluded) and have not failed.
+   */
+  int pending() {
+    return pending.get();
+  }
+
+  /**
+   * Stops every worker and fails the items still in flight. Further submissions are rejected.
+   * <p>
+   * Queued items fail right away. Each worker then finishes the item it is processing (a stage
+   * that is not the last fails it instead of passing it on) and is stopped in stage order, so no
+   * item can be passed to a stage that has already stopped.
+   */
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    queues.forEach(this::failQueued);
+    for (int i = 0; i < workers.size(); i++) {
+      putUninterruptibly(queues.get(i), STOP);
+      joinUninterruptibly(workers.get(i));
+      if (i + 1 < queues.size()) {
+        // Passed on by worker i before it saw the pipeline closed
+        failQueued(queues.get(i + 1));
+      }
+    }
+  }
+
+  private void work(Stage<T> stage, BlockingQueue<Object> in, BlockingQueue<Object> out) {
+    while (true) {
+      Object next = takeUninterruptibly(in);
+      if (next == STOP) {
+        return;
+      }
+      @SuppressWarnings("unchecked")
+      T item = (T) next;
+      if (out == null) {
+        pending.decrementAndGet();
+      }
+      if (closed) {
+        fail(item, closedException(), out != null);
+        continue;
+      }
+      try {
+        stage.process(item);
+      } catch (Exception e) {
+        fail(item, e, out != null);
+        continue;
+      }
+      if (out != null) {
+        if (closed) {
+          fail(item, closedException(), true);
+        } else {
+          putUninterruptibly(out, item);
+        }
+      }
+    }
+  }
+
+  private void failQueued(BlockingQueue<Object> queue) {
+    List<Object> unprocessed = new ArrayList<>();
+    queue.drainTo(unprocessed);
+    for (Object next : unprocessed) {
+      @SuppressWarnings("unchecked")
+      T item = (T) next;
+      fail(item, closedException(), true);
+    }
+  }
+
+  /**
+   * @param counted true if the item still counts as {@link #pending()}.
+   */
+  private void fail(T item, Exception e, boolean counted) {
+    if (counted) {
+      pending.decrementAndGet();
+    }
+    onFailure.accept(item, e);
+  }
+
+  private static IllegalStateException closedException() {
+    return new IllegalStateException("Pipeline is closed");
+  }
+
+  private static Object takeUninterruptibly(BlockingQueue<Object> queue) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return queue.take();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static void putUninterruptibly(BlockingQueue<Object> queue, Object item) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          queue.put(item);
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static void joinUninterruptibly(Thread thread) {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        thread.join();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,13 +1,28 @@
 package xavierroigmartin.v_integrity.application;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import org.springframework.stereotype.Service;
 import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
 import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
 import xavierroigmartin.v_integrity.application.port.out.SyncPort;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.BlockHeaderResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.ChainDigestResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.DigestComparisonResponse;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.SyncResponse;
 
 /**
@@ -15,23 +30,45 @@ import xavierroigmartin.v_integrity.interfaces.rest.dto.SyncResponse;
  * <p>
  * Implements the "catch-up" logic:
  * 1. Check latest block height on peer.
- * 2. If peer is ahead, download blocks in batches.
- * 3. Apply blocks sequentially using LedgerService validation.
+ * 2. If peer is ahead, download blocks in ranges, spread across every configured peer whose
+ * reported height covers the range.
+ * 3. Apply each range using LedgerService validation (signatures verified in parallel).
+ * <p>
+ * Downloads are pipelined: up to {@value #PREFETCH_RANGES} ranges are fetched on virtual threads
+ * while the current one is validated and applied, and the range size is tuned from the measured
+ * download throughput. When the source is the only peer ahead of the local chain, there is
+ * nothing to spread: the whole range is streamed from it in a single request and applied in
+ * batches of {@value #STREAM_BATCH_BLOCKS} blocks as they arrive.
+ * <p>
+ * A node far behind can start from a peer's snapshot instead (see {@link #bootstrap(String)}):
+ * the blocks up to a checkpoint signed by the leader, checked with one signature rather than one
+ * per block.
  */
 @Service
 public class SyncService {
 
+  // Ranges downloaded ahead of the one being applied
+  private static final int PREFETCH_RANGES = 4;
+  // Blocks applied at once during a single-source streamed catch-up
+  private static final int STREAM_BATCH_BLOCKS = BatchSizer.MAX_BATCH_SIZE;
+
   private final LedgerService ledgerService;
   private final SyncPort syncPort;
   private final NodeConfigurationPort nodeConfig;
   private final LogPort logger;
+  private final MetricsPort metrics;
+  // Blocks per second applied by the last completed sync
+  private volatile double lastThroughput;
 
   public SyncService(LedgerService ledgerService, SyncPort syncPort,
-      NodeConfigurationPort nodeConfig, LogPort logger) {
+      NodeConfigurationPort nodeConfig, LogPort logger, MetricsPort metrics) {
     this.ledgerService = ledgerService;
     this.syncPort = syncPort;
     this.nodeConfig = nodeConfig;
     this.logger = logger;
+    this.metrics = metrics;
+    metrics.registerGauge("ledger.sync.throughput",
+        "Blocks per second applied by the last completed sync", () -> lastThroughput);
   }
 
   /**
@@ -63,40 +100,364 @@ public class SyncService {
         return new SyncResponse(true, 0, localHeight, localHeight, "Already up to date.");
       }
 
+      Map<String, Long> sources = rangeSources(peerUrl, remoteHeight);
       logger.logBusinessEvent("SYNC_STARTED", Map.of(
           "peer", peerUrl,
           "localHeight", localHeight,
-          "remoteHeight", remoteHeight
+          "remoteHeight", remoteHeight,
+          "sourcePeers", sources.size()
       ));
 
-      int appliedCount = 0;
-      long currentHeight = localHeight;
-
-      while (currentHeight < remoteHeight) {
-        long nextHeight = currentHeight + 1;
-        // Fetch batch
-        List<Block> batch = syncPort.getBlocks(peerUrl, nextHeight, 100);
-        if (batch == null || batch.isEmpty()) {
-          break; // Should not happen if remoteHeight > localHeight
-        }
-
-        for (Block block : batch) {
-          ledgerService.acceptReplicatedBlock(block);
-          currentHeight = block.height();
-          appliedCount++;
+      long start = System.nanoTime();
+      int applied;
+      long finalHeight;
+      int batchSize;
+      if (sources.values().stream().filter(height -> height > localHeight).count() == 1) {
+        StreamedBatches streamed = new StreamedBatches();
+        syncPort.streamBlocks(peerUrl, localHeight + 1, remoteHeight, streamed);
+        streamed.applyPending();
+        applied = streamed.appliedCount;
+        finalHeight = streamed.appliedCount == 0 ? localHeight : streamed.currentHeight;
+        batchSize = STREAM_BATCH_BLOCKS;
+      } else {
+        try (ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor()) {
+          SyncPipeline pipeline = new SyncPipeline(peerUrl, sources, remoteHeight, fetchers);
+          pipeline.run(localHeight);
+          applied = pipeline.appliedCount;
+          finalHeight = pipeline.currentHeight;
+          batchSize = pipeline.batchSize.current();
         }
       }
+      long elapsed = Math.max(1, System.nanoTime() - start);
+      lastThroughput = applied * 1e9 / elapsed;
 
       logger.logBusinessEvent("SYNC_COMPLETED", Map.of(
-          "applied", appliedCount,
-          "finalHeight", currentHeight
+          "applied", applied,
+          "finalHeight", finalHeight,
+          "batchSize", batchSize
       ));
+      return new SyncResponse(true, applied, localHeight, finalHeight, null);
 
-      return new SyncResponse(true, appliedCount, localHeight, currentHeight, null);
+    } catch (Exception e) {
+      Throwable cause = e instanceof CompletionException && e.getCause() != null
+          ? e.getCause() : e;
+      logger.logBusinessError("SYNC_FAILED", cause.getMessage(), Map.of("peer", peerUrl));
+      return new SyncResponse(false, 0, 0, 0, "Sync failed: " + cause.getMessage());
+    }
+  }
+
+  /**
+   * Brings the node up to date from the latest snapshot of a peer, then syncs the blocks appended
+   * after it with {@link #synchronize(String)}.
+   * <p>
+   * The newest snapshot ahead of the local chain and signed by an allowed node is downloaded and
+   * installed with {@link LedgerService#installSnapshot(Checkpoint, List)}, which verifies a single
+   * signature for the whole range. If there is none or it cannot be installed, this is a regular
+   * sync.
+   *
+   * @param sourcePeerUrl Optional peer URL. If null, uses the first peer from config.
+   * @return The result of the snapshot installation and sync together.
+   */
+  public SyncResponse bootstrap(String sourcePeerUrl) {
+    String peerUrl = resolvePeerUrl(sourcePeerUrl);
+    if (peerUrl == null) {
+      return new SyncResponse(false, 0, 0, 0, "No peers configured or provided.");
+    }
+    long localHeight = ledgerService.latestBlock().height();
+    int installed = 0;
+    try {
+      Map<String, String> allowedKeys = nodeConfig.getAllowedNodePublicKeys();
+      Optional<Checkpoint> snapshot = syncPort.getSnapshots(peerUrl).stream()
+          .filter(s -> s.signed() && s.height() > localHeight
+              && allowedKeys.containsKey(s.signerNodeId()))
+          .max(Comparator.comparingLong(Checkpoint::height));
+      if (snapshot.isPresent()) {
+        long start = System.nanoTime();
+        List<Block> blocks = new ArrayList<>();
+        syncPort.streamSnapshot(peerUrl, snapshot.get().height(), localHeight + 1, blocks::add);
+        installed = ledgerService.installSnapshot(snapshot.get(), blocks);
+        metrics.recordTime("ledger.sync.snapshot", System.nanoTime() - start);
+      }
+    } catch (Exception e) {
+      logger.logBusinessError("SNAPSHOT_BOOTSTRAP_FAILED", e.getMessage(),
+          Map.of("peer", peerUrl));
+    }
+
+    SyncResponse tail = synchronize(peerUrl);
+    if (installed == 0) {
+      return tail;
+    }
+    return new SyncResponse(tail.synced(), installed + tail.appliedBlocks(), localHeight,
+        ledgerService.latestBlock().height(), tail.reason());
+  }
 
+  /**
+   * Compares the local chain with a peer's by their running chain digests at the lower of both
+   * tips. Matching digests prove both chains identical up to that height without downloading a
+   * single block.
+   *
+   * @param sourcePeerUrl Optional peer URL. If null, uses the first peer from config.
+   * @return The result of the comparison.
+   */
+  public DigestComparisonResponse compareDigest(String sourcePeerUrl) {
+    String peerUrl = resolvePeerUrl(sourcePeerUrl);
+    if (peerUrl == null) {
+      return new DigestComparisonResponse(null, 0, false, null, null, 0, 0,
+          "No peers configured or provided.");
+    }
+    LedgerService.ChainDigest localTip = ledgerService.digest();
+    try {
+      long remoteHeight = syncPort.getLatestBlockHeader(peerUrl).height();
+      long height = Math.min(localTip.height(), remoteHeight);
+      LedgerService.ChainDigest local = ledgerService.digestAt(height).orElseThrow();
+      ChainDigestResponse remote = syncPort.getChainDigest(peerUrl, height);
+      boolean matches = local.accumulator().equals(remote.accumulator());
+      if (!matches) {
+        logger.logBusinessError("CHAIN_DIGEST_MISMATCH", "Peer chain differs from the local one",
+            Map.of("peer", peerUrl, "height", height));
+      }
+      return new DigestComparisonResponse(peerUrl, height, matches, local.accumulator(),
+          remote.accumulator(), localTip.height(), remoteHeight, null);
     } catch (Exception e) {
-      logger.logBusinessError("SYNC_FAILED", e.getMessage(), Map.of("peer", peerUrl));
-      return new SyncResponse(false, 0, 0, 0, "Sync failed: " + e.getMessage());
+      logger.logBusinessError("CHAIN_DIGEST_COMPARISON_FAILED", e.getMessage(),
+          Map.of("peer", peerUrl));
+      return new DigestComparisonResponse(peerUrl, 0, false, null, null, localTip.height(), 0,
+          "Comparison failed: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Selects the peers that can serve block ranges: the sync source plus every other configured
+   * peer, with the height each one reports. Heads are queried concurrently and peers that do not
+   * answer are left out.
+   */
+  private Map<String, Long> rangeSources(String source, long sourceHeight) {
+    Map<String, Long> sources = new LinkedHashMap<>();
+    sources.put(source, sourceHeight);
+    List<String> others = nodeConfig.getPeers() == null ? List.of()
+        : nodeConfig.getPeers().stream().filter(peer -> !peer.equals(source)).distinct().toList();
+    if (others.isEmpty()) {
+      return sources;
+    }
+    try (ExecutorService heads = Executors.newVirtualThreadPerTaskExecutor()) {
+      Map<String, CompletableFuture<BlockHeaderResponse>> pending = new LinkedHashMap<>();
+      for (String peer : others) {
+        pending.put(peer,
+            CompletableFuture.supplyAsync(() -> syncPort.getLatestBlockHeader(peer), heads));
+      }
+      pending.forEach((peer, head) -> {
+        try {
+          BlockHeaderResponse header = head.join();
+          if (header != null) {
+            sources.put(peer, header.height());
+          }
+        } catch (CompletionException e) {
+          logger.logBusinessEvent("SYNC_WARNING", Map.of(
+              "message", "Peer head unavailable, not used as range source", "peer", peer));
+        }
+      });
+    }
+    return sources;
+  }
+
+  /**
+   * Collects streamed blocks and applies them in batches of {@value #STREAM_BATCH_BLOCKS}.
+   */
+  private final class StreamedBatches implements Consumer<Block> {
+
+    private final List<Block> pending = new ArrayList<>(STREAM_BATCH_BLOCKS);
+    private long currentHeight;
+    private int appliedCount;
+
+    @Override
+    public void accept(Block block) {
+      pending.add(block);
+      if (pending.size() == STREAM_BATCH_BLOCKS) {
+        applyPending();
+      }
+    }
+
+    void applyPending() {
+      if (pending.isEmpty()) {
+        return;
+      }
+      List<Block> batch = List.copyOf(pending);
+      pending.clear();
+      ledgerService.acceptReplicatedBlocks(batch);
+      currentHeight = batch.get(batch.size() - 1).height();
+      appliedCount += batch.size();
+      metrics.increment("ledger.sync.blocks", batch.size());
+    }
+  }
+
+  /**
+   * State of one catch-up run: the ranges being downloaded ahead of the one being applied.
+   */
+  private final class SyncPipeline {
+
+    private final String source;
+    private final Map<String, Long> sources;
+    private final long targetHeight;
+    private final ExecutorService fetchers;
+    private final Deque<RangeFetch> inFlight = new ArrayDeque<>();
+    private final BatchSizer batchSize = new BatchSizer();
+    private int nextSource;
+    private long nextFrom;
+    private long currentHeight;
+    private int appliedCount;
+
+    SyncPipeline(String source, Map<String, Long> sources, long targetHeight,
+        ExecutorService fetchers) {
+      this.source = source;
+      this.sources = sources;
+      this.targetHeight = targetHeight;
+      this.fetchers = fetchers;
+    }
+
+    void run(long localHeight) {
+      currentHeight = localHeight;
+      nextFrom = localHeight + 1;
+      try {
+        while (currentHeight < targetHeight) {
+          prefetch();
+          RangeFetch range = inFlight.pollFirst();
+          if (range == null) {
+            break;
+          }
+          FetchedRange fetched = range.await();
+          List<Block> batch = fetched.blocks();
+          if (batch == null || batch.isEmpty()) {
+            break; // Should not happen if remoteHeight > localHeight
+          }
+          batchSize.record(batch.size(), fetched.nanos());
+
+          // Hashes and signatures of the whole batch are verified in parallel while the
+          // following ranges keep downloading
+          ledgerService.acceptReplicatedBlocks(batch);
+          currentHeight = batch.get(batch.size() - 1).height();
+          appliedCount += batch.size();
+          metrics.increment("ledger.sync.blocks", batch.size());
+
+          if (currentHeight + 1 != range.from + range.limit && currentHeight < targetHeight) {
+            // Short answer: the prefetched ranges no longer line up with the chain tip
+            cancelInFlight();
+            nextFrom = currentHeight + 1;
+          }
+        }
+      } finally {
+        cancelInFlight();
+      }
+    }
+
+    private void prefetch() {
+      while (inFlight.size() < PREFETCH_RANGES && nextFrom <= targetHeight) {
+        int limit = batchSize.current();
+        long lastNeeded = Math.min(targetHeight, nextFrom + limit - 1);
+        String peer = pickSource(lastNeeded);
+        inFlight.addLast(new RangeFetch(nextFrom, limit, peer, fetch(peer, nextFrom, limit)));
+        nextFrom += limit;
+      }
+    }
+
+    /**
+     * Round-robin over the peers whose reported height covers the range.
+     */
+    private String pickSource(long lastNeeded) {
+      List<String> eligible = sources.entrySet().stream()
+          .filter(e -> e.getValue() >= lastNeeded)
+          .map(Map.Entry::getKey)
+          .toList();
+      if (eligible.isEmpty()) {
+        return source;
+      }
+      return eligible.get(Math.floorMod(nextSource++, eligible.size()));
+    }
+
+    private CompletableFuture<FetchedRange> fetch(String peer, long from, int limit) {
+      return CompletableFuture.supplyAsync(() -> {
+        long start = System.nanoTime();
+        List<Block> blocks = syncPort.getBlocks(peer, from, limit);
+        return new FetchedRange(blocks, System.nanoTime() - start);
+      }, fetchers);
+    }
+
+    private void cancelInFlight() {
+      RangeFetch range;
+      while ((range = inFlight.pollFirst()) != null) {
+        range.future.cancel(true);
+      }
+    }
+
+    /**
+     * A range download. If a secondary peer fails, the range is fetched again from the source.
+     */
+    private final class RangeFetch {
+
+      private final long from;
+      private final int limit;
+      private final String peer;
+      private final CompletableFuture<FetchedRange> future;
+
+      RangeFetch(long from, int limit, String peer, CompletableFuture<FetchedRange> future) {
+        this.from = from;
+        this.limit = limit;
+        this.peer = peer;
+        this.future = future;
+      }
+
+      FetchedRange await() {
+        try {
+          return future.join();
+        } catch (CompletionException e) {
+          if (peer.equals(source)) {
+            throw e;
+          }
+          logger.logBusinessEvent("SYNC_WARNING", Map.of(
+              "message", "Range fetch failed, retrying from source peer",
+              "peer", peer, "fromHeight", from));
+          sources.remove(peer);
+          return fetch(source, from, limit).join();
+        }
+      }
+    }
+  }
+
+  /**
+   * Blocks of a range and the time it took to download them.
+   */
+  private record FetchedRange(List<Block> blocks, long nanos) {
+  }
+
+  /**
+   * Adapts the range size to the measured download throughput (blocks per second).
+   * <p>
+   * Starts at {@value #INITIAL_BATCH_SIZE} and hill-climbs: the size keeps doubling (or halving)
+   * while throughput holds, and the direction reverses when throughput drops.
+   * The size stays within [{@value #MIN_BATCH_SIZE}, {@value #MAX_BATCH_SIZE}].
+   */
+  static final class BatchSizer {
+
+    static final int INITIAL_BATCH_SIZE = 100;
+    static final int MIN_BATCH_SIZE = 25;
+    static final int MAX_BATCH_SIZE = 1000;
+    // Throughput changes below this ratio are treated as noise
+    private static final double TOLERANCE = 0.10;
+
+    private int size = INITIAL_BATCH_SIZE;
+    private boolean growing = true;
+    private double lastThroughput;
+
+    int current() {
+      return size;
+    }
+
+    void record(int blocks, long nanos) {
+      double throughput = blocks / (Math.max(1, nanos) / 1e9);
+      if (lastThroughput > 0 && throughput < lastThroughput * (1 - TOLERANCE)) {
+        growing = !growing;
+      }
+      size = growing ? Math.min(MAX_BATCH_SIZE, size * 2) : Math.max(MIN_BATCH_SIZE, size / 2);
+      lastThroughput = throughput;
     }
   }
 
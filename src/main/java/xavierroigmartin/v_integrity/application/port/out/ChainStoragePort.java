@@ -0,0 +1,59 @@
+package xavierroigmartin.v_integrity.application.port.out;
+
+import java.util.List;
+import java.util.function.Consumer;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+
+/**
+ * Port for durable, append-only storage of the blockchain.
+ * <p>
+ * The ledger keeps its working copy of the chain in memory; this port makes it survive restarts.
+ * On startup the ledger replays the locally persisted blocks, so a node only has to fetch from its
+ * peers the blocks that were produced while it was down. Signed chain checkpoints are stored
+ * next to the blocks.
+ */
+public interface ChainStoragePort {
+
+  /**
+   * Replays the persisted blocks in ascending height order.
+   *
+   * @param fromHeight The first height to replay (inclusive).
+   * @param consumer   Callback invoked once per block.
+   * @return The number of blocks replayed.
+   */
+  long replay(long fromHeight, Consumer<Block> consumer);
+
+  /**
+   * Appends a block to the end of the log.
+   * <p>
+   * Blocks must be appended in strictly increasing, gap-free height order. The write may be
+   * buffered until the next group flush.
+   *
+   * @param block The block to persist.
+   */
+  void append(Block block);
+
+  /**
+   * Forces all buffered appends to durable storage.
+   */
+  void flush();
+
+  /**
+   * @return true if no appended block is waiting for a flush (the storage may flush on its own
+   *         once a group of appends is complete).
+   */
+  boolean isFlushed();
+
+  /**
+   * Durably stores a signed checkpoint. Checkpoints are appended in increasing height order.
+   *
+   * @param checkpoint The checkpoint to persist.
+   */
+  void appendCheckpoint(Checkpoint checkpoint);
+
+  /**
+   * @return The persisted checkpoints, in increasing height order.
+   */
+  List<Checkpoint> checkpoints();
+}
@@ -1,5 +1,7 @@
 package xavierroigmartin.v_integrity.application.port.out;
 
+import java.util.List;
+
 /**
  * Port for cryptographic operations required by the ledger.
  * <p>
@@ -26,4 +28,28 @@ public interface CryptoPort {
      * @return true if the signature is valid, false otherwise.
      */
     boolean verifyEd25519(byte[] message, String signatureBase64, String publicKeyBase64);
+
+    /**
+     * Verifies many Ed25519 signatures made with the same key.
+     * <p>
+     * Implementations may spread the work across several threads. The default implementation
+     * verifies sequentially.
+     *
+     * @param messages         The signed messages.
+     * @param signaturesBase64 The signatures, in Base64 format, in the same order as the messages.
+     * @param publicKeyBase64  The signer's public key in Base64 format (X.509).
+     * @return For each message, true if its signature is valid.
+     * @throws IllegalArgumentException if both lists do not have the same size.
+     */
+    default boolean[] verifyEd25519Batch(List<byte[]> messages, List<String> signaturesBase64,
+            String publicKeyBase64) {
+        if (messages.size() != signaturesBase64.size()) {
+            throw new IllegalArgumentException("messages and signatures must have the same size");
+        }
+        boolean[] valid = new boolean[messages.size()];
+        for (int i = 0; i < valid.length; i++) {
+            valid[i] = verifyEd25519(messages.get(i), signaturesBase64.get(i), publicKeyBase64);
+        }
+        return valid;
+    }
 }
@@ -22,4 +22,13 @@ public interface HashingPort {
      * @return The SHA-256 hash as a byte array (32 bytes).
      */
     byte[] sha256Bytes(String input);
+
+    /**
+     * Creates a new incremental SHA-256 digest.
+     * <p>
+     * Allows hashing large structured content without first materializing it as a single string.
+     *
+     * @return A fresh digest instance, owned by the caller.
+     */
+    IncrementalDigest newSha256();
 }
@@ -0,0 +1,25 @@
+package xavierroigmartin.v_integrity.application.port.out;
+
+/**
+ * A message digest that is fed incrementally.
+ * <p>
+ * Instances are stateful and not thread-safe; each caller must use its own instance.
+ */
+public interface IncrementalDigest {
+
+    /**
+     * Feeds a range of bytes into the digest.
+     *
+     * @param input  The source buffer.
+     * @param offset Offset of the first byte to feed.
+     * @param length Number of bytes to feed.
+     */
+    void update(byte[] input, int offset, int length);
+
+    /**
+     * Completes the computation and resets the digest so it can be reused.
+     *
+     * @return The digest value.
+     */
+    byte[] digest();
+}
@@ -10,6 +10,14 @@ import java.util.Map;
  */
 public interface LogPort {
 
+  /**
+   * Tells whether business events are recorded at all, so hot call sites can skip building the
+   * details map when they are not.
+   *
+   * @return True if {@link #logBusinessEvent(String, Map)} writes anything.
+   */
+  boolean isBusinessEventEnabled();
+
   /**
    * Logs a business event.
    *
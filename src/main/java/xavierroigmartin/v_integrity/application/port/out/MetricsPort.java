@@ -0,0 +1,39 @@
+package xavierroigmartin.v_integrity.application.port.out;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Port for operational metrics (timers, counters and gauges).
+ * <p>
+ * Decouples the application services from the metrics library, the same way {@link LogPort} does
+ * for logging. Tags are given as alternating key/value strings.
+ */
+public interface MetricsPort {
+
+  /**
+   * Registers a gauge whose value is read from the supplier each time it is published.
+   *
+   * @param name        The meter name (e.g., "ledger.chain.height").
+   * @param description A short description of the value.
+   * @param value       Supplies the current value; must be cheap and thread-safe.
+   */
+  void registerGauge(String name, String description, DoubleSupplier value);
+
+  /**
+   * Records the duration of one operation.
+   *
+   * @param name  The timer name (e.g., "ledger.block.commit").
+   * @param nanos The duration in nanoseconds.
+   * @param tags  Alternating tag keys and values.
+   */
+  void recordTime(String name, long nanos, String... tags);
+
+  /**
+   * Increments a counter.
+   *
+   * @param name   The counter name (e.g., "ledger.blocks.rejected").
+   * @param amount The amount to add.
+   * @param tags   Alternating tag keys and values.
+   */
+  void increment(String name, double amount, String... tags);
+}
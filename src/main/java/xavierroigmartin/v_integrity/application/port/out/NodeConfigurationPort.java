@@ -35,4 +35,9 @@ public interface NodeConfigurationPort {
      * @return A map of authorized node IDs to their Public Keys. Used to validate block proposers.
      */
     Map<String, String> getAllowedNodePublicKeys();
+
+    /**
+     * @return Number of blocks between two chain checkpoints (0 disables checkpoints).
+     */
+    int getCheckpointInterval();
 }
@@ -13,6 +13,9 @@ public interface ReplicationPort {
 
     /**
      * Sends a newly created block to a list of peer nodes.
+     * <p>
+     * Delivery is best-effort and may be asynchronous: implementations can return before the
+     * peers received the block. Blocks must be delivered to each peer in the order of the calls.
      *
      * @param block        The block to replicate.
      * @param peerBaseUrls The list of peer URLs to send the block to.
@@ -1,13 +1,17 @@
 package xavierroigmartin.v_integrity.application.port.out;
 
 import java.util.List;
+import java.util.function.Consumer;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.BlockHeaderResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.ChainDigestResponse;
 
 /**
  * Port for synchronizing blocks from other nodes.
  * <p>
- * Allows fetching the latest block header and downloading ranges of blocks from peers.
+ * Allows fetching the latest block header and chain digests, and downloading ranges of blocks
+ * and snapshots from peers.
  */
 public interface SyncPort {
 
@@ -28,4 +32,44 @@ public interface SyncPort {
    * @return List of blocks.
    */
   List<Block> getBlocks(String peerUrl, long fromHeight, int limit);
+
+  /**
+   * Streams a range of blocks from a peer without a page limit. Blocks are handed to the consumer
+   * one by one as they arrive, so the range is never held in memory as a whole.
+   *
+   * @param peerUrl    The base URL of the peer.
+   * @param fromHeight The starting height (inclusive).
+   * @param toHeight   The last height (inclusive), or {@link Long#MAX_VALUE} for the peer's tip.
+   * @param consumer   Receives each block, in height order.
+   * @return The number of blocks received.
+   */
+  long streamBlocks(String peerUrl, long fromHeight, long toHeight, Consumer<Block> consumer);
+
+  /**
+   * Fetches the running chain digest of a peer at a height.
+   *
+   * @param peerUrl The base URL of the peer.
+   * @param height  The height, at most the peer's tip.
+   * @return The peer's chain digest at that height.
+   */
+  ChainDigestResponse getChainDigest(String peerUrl, long height);
+
+  /**
+   * Lists the snapshots a peer can serve.
+   *
+   * @param peerUrl The base URL of the peer.
+   * @return The signed checkpoints the snapshots end at, newest first.
+   */
+  List<Checkpoint> getSnapshots(String peerUrl);
+
+  /**
+   * Streams the blocks of a peer's snapshot, like {@link #streamBlocks}.
+   *
+   * @param peerUrl    The base URL of the peer.
+   * @param height     The snapshot height.
+   * @param fromHeight The first block to download (blocks below it are already held locally).
+   * @param consumer   Receives each block, in height order.
+   * @return The number of blocks received.
+   */
+  long streamSnapshot(String peerUrl, long height, long fromHeight, Consumer<Block> consumer);
 }
@@ -1,5 +1,7 @@
 package xavierroigmartin.v_integrity.domain;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import java.time.Instant;
 import java.util.List;
 
@@ -7,6 +9,13 @@ import java.util.List;
  * Domain model representing a block in the blockchain.
  * <p>
  * A block contains a list of evidences, links to the previous block, and is cryptographically signed.
+ * <p>
+ * Two formats coexist in a chain:
+ * <ul>
+ *     <li>{@link #VERSION_1}: the hash covers the header fields and every evidence field.</li>
+ *     <li>{@link #VERSION_2}: the hash covers the header fields and the Merkle root of the
+ *     evidences, so a single evidence can be proven with an O(log n) inclusion path.</li>
+ * </ul>
  *
  * @param height         The index of the block in the chain (0 for Genesis).
  * @param timestamp      When the block was created.
@@ -15,6 +24,8 @@ import java.util.List;
  * @param proposerNodeId ID of the node that proposed (mined) this block.
  * @param hash           SHA-256 hash of this block's canonical content.
  * @param signature      Ed25519 signature of the block hash by the proposer.
+ * @param version        Block format version ({@link #VERSION_1} when absent).
+ * @param merkleRoot     Merkle root of the evidences (version 2 only, null otherwise).
  */
 public record Block(
         long height,
@@ -24,5 +35,26 @@ public record Block(
 
         String proposerNodeId,
         String hash,
-        String signature
-) {}
+        String signature,
+
+        @JsonSetter(nulls = Nulls.AS_EMPTY) int version,
+        String merkleRoot
+) {
+
+    public static final int VERSION_1 = 1;
+    public static final int VERSION_2 = 2;
+
+    public Block {
+        // Blocks serialized before the version field existed are version 1
+        if (version == 0) version = VERSION_1;
+    }
+
+    /**
+     * Creates a version 1 block (no Merkle root).
+     */
+    public Block(long height, Instant timestamp, List<EvidenceRecord> evidences,
+            String previousHash, String proposerNodeId, String hash, String signature) {
+        this(height, timestamp, evidences, previousHash, proposerNodeId, hash, signature,
+                VERSION_1, null);
+    }
+}
@@ -0,0 +1,38 @@
+package xavierroigmartin.v_integrity.domain;
+
+import java.time.Instant;
+
+/**
+ * A trusted point of the chain: the running chain digest and the block hash at a height, signed
+ * by the node that recorded it.
+ * <p>
+ * The chain digest (accumulator) at height h is
+ * {@code SHA-256(accumulator(h - 1) || UTF-8(hash(h)))}, starting from 32 zero bytes before the
+ * genesis block, so it commits to every block hash up to h. A checkpoint whose accumulator
+ * matches the one recomputed from the local chain proves the whole prefix unchanged, and
+ * validation can resume from it instead of re-checking every block.
+ *
+ * @param height       Height of the checkpointed block.
+ * @param accumulator  Chain digest at that height (lowercase hex).
+ * @param blockHash    Hash of the checkpointed block.
+ * @param signerNodeId ID of the node that signed the checkpoint.
+ * @param signature    Ed25519 signature (Base64) of the checkpoint, or null if the node that
+ *                     recorded it has no signing key.
+ * @param createdAt    When the checkpoint was recorded.
+ */
+public record Checkpoint(
+    long height,
+    String accumulator,
+    String blockHash,
+    String signerNodeId,
+    String signature,
+    Instant createdAt
+) {
+
+  /**
+   * @return true if the checkpoint carries a signature.
+   */
+  public boolean signed() {
+    return signature != null;
+  }
+}
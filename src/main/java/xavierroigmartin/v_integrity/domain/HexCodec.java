@@ -0,0 +1,125 @@
+package xavierroigmartin.v_integrity.domain;
+
+import java.util.Arrays;
+
+/**
+ * Hexadecimal encoding and decoding of hashes, shared by the hashing, signing, proof and wire
+ * paths.
+ * <p>
+ * Both directions are table driven: encoding fills one char array and decoding reads the
+ * characters in place, with no per-byte {@code String} or formatter. Hashes are lowercase hex
+ * everywhere in the ledger. {@link #matches(byte[], CharSequence)} checks a freshly computed raw
+ * digest against its stored hex form without encoding it, so the raw bytes can be kept for the
+ * signature check instead of being decoded again.
+ */
+public final class HexCodec {
+
+  private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+  // Value of each ASCII character as a hex digit, -1 if it is not one
+  private static final byte[] VALUES = new byte[128];
+
+  static {
+    Arrays.fill(VALUES, (byte) -1);
+    for (int i = 0; i < 16; i++) {
+      VALUES[DIGITS[i]] = (byte) i;
+      VALUES[Character.toUpperCase(DIGITS[i])] = (byte) i;
+    }
+  }
+
+  private HexCodec() {
+  }
+
+  /**
+   * @return The lowercase hex form of the bytes.
+   */
+  public static String encode(byte[] bytes) {
+    return encode(bytes, 0, bytes.length);
+  }
+
+  /**
+   * @return The lowercase hex form of {@code length} bytes starting at {@code offset}.
+   */
+  public static String encode(byte[] bytes, int offset, int length) {
+    char[] out = new char[length * 2];
+    for (int i = 0; i < length; i++) {
+      byte b = bytes[offset + i];
+      out[i * 2] = DIGITS[(b >> 4) & 0xF];
+      out[i * 2 + 1] = DIGITS[b & 0xF];
+    }
+    return new String(out);
+  }
+
+  /**
+   * @param hex Hex digits, in either case.
+   * @return The decoded bytes.
+   * @throws IllegalArgumentException if the length is odd or a character is not a hex digit.
+   */
+  public static byte[] decode(CharSequence hex) {
+    byte[] bytes = tryDecode(hex);
+    if (bytes == null) {
+      throw new IllegalArgumentException("Not a hex string: " + hex);
+    }
+    return bytes;
+  }
+
+  /**
+   * @param hex Hex digits, in either case.
+   * @return The decoded bytes, or null if {@code hex} is null, of odd length or not hex.
+   */
+  public static byte[] tryDecode(CharSequence hex) {
+    return decode(hex, false);
+  }
+
+  /**
+   * Decodes only strings that {@link #encode(byte[])} would give back unchanged, for encodings
+   * that store the raw bytes and must restore the exact original text.
+   *
+   * @param hex Lowercase hex digits.
+   * @return The decoded bytes, or null if {@code hex} is null, of odd length or not lowercase hex.
+   */
+  public static byte[] tryDecodeLowercase(CharSequence hex) {
+    return decode(hex, true);
+  }
+
+  /**
+   * Compares raw bytes with a hex string, without allocating.
+   *
+   * @return true if {@code hex} is exactly the lowercase hex form of {@code bytes}.
+   */
+  public static boolean matches(byte[] bytes, CharSequence hex) {
+    if (hex == null || hex.length() != bytes.length * 2) {
+      return false;
+    }
+    for (int i = 0; i < bytes.length; i++) {
+      byte b = bytes[i];
+      if (hex.charAt(i * 2) != DIGITS[(b >> 4) & 0xF]
+          || hex.charAt(i * 2 + 1) != DIGITS[b & 0xF]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte[] decode(CharSequence hex, boolean lowercaseOnly) {
+    if (hex == null || hex.length() % 2 != 0) {
+      return null;
+    }
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      int hi = digit(hex.charAt(i * 2), lowercaseOnly);
+      int lo = digit(hex.charAt(i * 2 + 1), lowercaseOnly);
+      if (hi < 0 || lo < 0) {
+        return null;
+      }
+      bytes[i] = (byte) ((hi << 4) | lo);
+    }
+    return bytes;
+  }
+
+  private static int digit(char c, boolean lowercaseOnly) {
+    if (c >= VALUES.length || (lowercaseOnly && c >= 'A' && c <= 'F')) {
+      return -1;
+    }
+    return VALUES[c];
+  }
+}
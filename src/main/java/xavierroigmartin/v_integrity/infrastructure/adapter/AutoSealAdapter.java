@@ -0,0 +1,169 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import xavierroigmartin.v_integrity.application.LedgerService;
+import xavierroigmartin.v_integrity.application.LedgerService.PendingEvidences;
+import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.infrastructure.config.SealingProperties;
+
+/**
+ * Infrastructure adapter that seals blocks on the leader without waiting for
+ * {@code POST /api/blocks/commit}.
+ * <p>
+ * A virtual thread polls the mempool statistics and seals a block as soon as one threshold is
+ * reached: the number of pending evidences, their estimated size, or the time the oldest one has
+ * been waiting. Every block holds at most {@code maxEvidences} evidences and {@code maxBytes}
+ * bytes, so a large mempool is split into several blocks and the cost of hashing and replicating
+ * one block stays bounded. Those blocks go through the ledger commit pipeline together.
+ * <p>
+ * Sealed blocks are counted by trigger in the {@code ledger.sealing.blocks} metric.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ledger.sealing", name = "enabled", havingValue = "true")
+public class AutoSealAdapter implements ApplicationListener<ApplicationReadyEvent>, MeterBinder {
+
+  /**
+   * Threshold that caused a block to be sealed.
+   */
+  enum Trigger {
+    COUNT,
+    BYTES,
+    LATENCY
+  }
+
+  private final LedgerService ledger;
+  private final NodeConfigurationPort nodeConfig;
+  private final SealingProperties properties;
+  private final LogPort logger;
+  private final Map<Trigger, AtomicLong> sealedBlocks = Map.of(
+      Trigger.COUNT, new AtomicLong(),
+      Trigger.BYTES, new AtomicLong(),
+      Trigger.LATENCY, new AtomicLong());
+  private volatile Thread sealer;
+
+  public AutoSealAdapter(LedgerService ledger, NodeConfigurationPort nodeConfig,
+      SealingProperties properties, LogPort logger) {
+    this.ledger = ledger;
+    this.nodeConfig = nodeConfig;
+    this.properties = properties;
+    this.logger = logger;
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (!nodeConfig.isLeader()) {
+      logger.logBusinessEvent("AUTO_SEAL_SKIPPED", Map.of("reason", "Only the leader seals blocks"));
+      return;
+    }
+    if (nodeConfig.getPrivateKeyBase64() == null || nodeConfig.getPrivateKeyBase64().isBlank()) {
+      logger.logBusinessEvent("AUTO_SEAL_SKIPPED", Map.of("reason", "No private key to sign blocks"));
+      return;
+    }
+    logger.logBusinessEvent("AUTO_SEAL_STARTED", Map.of(
+        "maxEvidences", properties.getMaxEvidences(),
+        "maxBytes", properties.getMaxBytes(),
+        "maxLatencyMs", properties.getMaxLatency().toMillis()
+    ));
+    sealer = Thread.ofVirtual().name("block-sealer").start(this::run);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    sealedBlocks.forEach((trigger, count) ->
+        FunctionCounter.builder("ledger.sealing.blocks", count, AtomicLong::get)
+            .description("Blocks sealed automatically, by the threshold that triggered them")
+            .tag("trigger", trigger.name().toLowerCase(Locale.ROOT))
+            .register(registry));
+  }
+
+  @PreDestroy
+  public void close() {
+    Thread thread = sealer;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  private void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        sealReadyBlocks();
+        Thread.sleep(properties.getPollInterval());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Seals blocks while a threshold is reached. Blocks are handed to the commit pipeline without
+   * waiting for each other, so a backlog is sealed as several blocks in flight; the method returns
+   * once the last one is committed.
+   *
+   * @return The number of blocks sealed.
+   */
+  int sealReadyBlocks() {
+    int sealed = 0;
+    CompletableFuture<Block> last = null;
+    try {
+      Trigger trigger;
+      while ((trigger = trigger(ledger.pendingEvidences())) != null) {
+        Trigger cause = trigger;
+        last = ledger.sealAsLeader(properties.getMaxEvidences(), properties.getMaxBytes())
+            .whenComplete((block, error) -> {
+              if (error == null) {
+                sealedBlocks.get(cause).incrementAndGet();
+                logger.logBusinessEvent("BLOCK_AUTO_SEALED", Map.of(
+                    "height", block.height(),
+                    "evidencesCount", block.evidences().size(),
+                    "trigger", cause.name()
+                ));
+              }
+            });
+        sealed++;
+      }
+    } catch (IllegalStateException e) {
+      // The mempool was emptied by a concurrent manual commit; check again on the next poll
+    } catch (RuntimeException e) {
+      logger.logBusinessError("AUTO_SEAL_ERROR", "Failed to seal block",
+          Map.of("error", String.valueOf(e.getMessage())));
+    }
+    if (last != null) {
+      // Failed blocks are logged by the ledger and their evidences sealed again later
+      last.exceptionally(error -> null).join();
+    }
+    return sealed;
+  }
+
+  /**
+   * @return The first threshold reached by the pending evidences, or null if none is.
+   */
+  Trigger trigger(PendingEvidences pending) {
+    if (pending.count() == 0) {
+      return null;
+    }
+    if (pending.count() >= properties.getMaxEvidences()) {
+      return Trigger.COUNT;
+    }
+    if (pending.bytes() >= properties.getMaxBytes()) {
+      return Trigger.BYTES;
+    }
+    if (pending.oldestAge().compareTo(properties.getMaxLatency()) >= 0) {
+      return Trigger.LATENCY;
+    }
+    return null;
+  }
+}
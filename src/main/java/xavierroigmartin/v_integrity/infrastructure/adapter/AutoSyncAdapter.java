@@ -16,6 +16,8 @@ import xavierroigmartin.v_integrity.interfaces.rest.dto.SyncResponse;
  * <p>
  * Listens for the {@link ApplicationReadyEvent} and iterates through all configured peers
  * to attempt a catch-up. This ensures the node has the latest state before processing new requests.
+ * A node far behind first installs the peer's latest snapshot and then only syncs the blocks after
+ * it (see {@link SyncService#bootstrap(String)}).
  */
 @Component
 @Profile("!test") // Avoid running this during unit/integration tests unless explicitly desired
@@ -53,7 +55,7 @@ public class AutoSyncAdapter implements ApplicationListener<ApplicationReadyEven
     for (String peerUrl : peers) {
       try {
         // Attempt to sync with each peer to get the most up-to-date chain
-        SyncResponse response = syncService.synchronize(peerUrl);
+        SyncResponse response = syncService.bootstrap(peerUrl);
         
         if (response.synced() && response.appliedBlocks() > 0) {
           logger.logBusinessEvent("AUTO_SYNC_SUCCESS", Map.of(
@@ -0,0 +1,151 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+/**
+ * Binary encoding of a {@link Block} as stored in the on-disk block log.
+ * <p>
+ * Every payload starts with a format byte so that the record layout can evolve without
+ * rewriting existing segments: {@link #FORMAT_V1} records (written before blocks had a version
+ * and a Merkle root) are still readable.
+ */
+final class BlockRecordCodec {
+
+  static final byte FORMAT_V1 = 1;
+  static final byte FORMAT_V2 = 2;
+
+  private BlockRecordCodec() {
+  }
+
+  static byte[] encode(Block block) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(FORMAT_V2);
+      out.writeLong(block.height());
+      writeInstant(out, block.timestamp());
+      writeString(out, block.previousHash());
+      writeString(out, block.proposerNodeId());
+      writeString(out, block.hash());
+      writeString(out, block.signature());
+      out.writeInt(block.version());
+      writeString(out, block.merkleRoot());
+
+      List<EvidenceRecord> evidences = block.evidences();
+      out.writeInt(evidences.size());
+      for (EvidenceRecord e : evidences) {
+        writeString(out, e.evidenceId());
+        writeString(out, e.homologationId());
+        writeString(out, e.testRunId());
+        writeString(out, e.artifactName());
+        writeString(out, e.artifactType());
+        writeString(out, e.hashAlgorithm());
+        writeString(out, e.hash());
+        out.writeBoolean(e.sizeBytes() != null);
+        if (e.sizeBytes() != null) {
+          out.writeLong(e.sizeBytes());
+        }
+        writeString(out, e.createdBy());
+        writeString(out, e.storageUri());
+        out.writeInt(e.standards().size());
+        for (String standard : e.standards()) {
+          writeString(out, standard);
+        }
+        writeInstant(out, e.createdAt());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static Block decode(byte[] payload) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      byte format = in.readByte();
+      if (format != FORMAT_V1 && format != FORMAT_V2) {
+        throw new IllegalStateException("Unsupported block record format: " + format);
+      }
+      long height = in.readLong();
+      Instant timestamp = readInstant(in);
+      String previousHash = readString(in);
+      String proposer = readString(in);
+      String hash = readString(in);
+      String signature = readString(in);
+      int version = Block.VERSION_1;
+      String merkleRoot = null;
+      if (format >= FORMAT_V2) {
+        version = in.readInt();
+        merkleRoot = readString(in);
+      }
+
+      int count = in.readInt();
+      List<EvidenceRecord> evidences = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        String evidenceId = readString(in);
+        String homologationId = readString(in);
+        String testRunId = readString(in);
+        String artifactName = readString(in);
+        String artifactType = readString(in);
+        String hashAlgorithm = readString(in);
+        String evidenceHash = readString(in);
+        Long sizeBytes = in.readBoolean() ? in.readLong() : null;
+        String createdBy = readString(in);
+        String storageUri = readString(in);
+        int standardsCount = in.readInt();
+        List<String> standards = new ArrayList<>(standardsCount);
+        for (int s = 0; s < standardsCount; s++) {
+          standards.add(readString(in));
+        }
+        Instant createdAt = readInstant(in);
+        evidences.add(new EvidenceRecord(evidenceId, homologationId, testRunId, artifactName,
+            artifactType, hashAlgorithm, evidenceHash, sizeBytes, createdBy, storageUri,
+            List.copyOf(standards), createdAt));
+      }
+      return new Block(height, timestamp, List.copyOf(evidences), previousHash, proposer, hash,
+          signature, version, merkleRoot);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(utf8.length);
+    out.write(utf8);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] utf8 = new byte[length];
+    in.readFully(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+    out.writeLong(instant.getEpochSecond());
+    out.writeInt(instant.getNano());
+  }
+
+  private static Instant readInstant(DataInputStream in) throws IOException {
+    long seconds = in.readLong();
+    int nanos = in.readInt();
+    return Instant.ofEpochSecond(seconds, nanos);
+  }
+}
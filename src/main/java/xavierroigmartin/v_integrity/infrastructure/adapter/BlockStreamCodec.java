@@ -0,0 +1,102 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+import xavierroigmartin.v_integrity.domain.Block;
+
+/**
+ * Writes and reads unbounded block streams one block at a time, so neither side ever holds the
+ * whole range in memory.
+ * <p>
+ * Two encodings are supported:
+ * <ul>
+ *     <li>NDJSON ({@code application/x-ndjson}): one JSON block per line, for humans and
+ *     scripts.</li>
+ *     <li>The binary block format ({@value BlockWireHttpMessageConverter#MEDIA_TYPE_VALUE}): the
+ *     same version byte and length-prefixed frames as a regular binary body.</li>
+ * </ul>
+ */
+@Component
+public class BlockStreamCodec {
+
+  // Blocks written between two flushes, so the peer starts receiving before the range ends
+  private static final int FLUSH_EVERY_BLOCKS = 64;
+
+  private final JsonMapper jsonMapper;
+
+  public BlockStreamCodec(JsonMapper jsonMapper) {
+    this.jsonMapper = jsonMapper;
+  }
+
+  /**
+   * @return True if the media type is the binary block format (otherwise NDJSON is used).
+   */
+  public static boolean isBinary(MediaType mediaType) {
+    return mediaType != null
+        && mediaType.equalsTypeAndSubtype(BlockWireHttpMessageConverter.MEDIA_TYPE);
+  }
+
+  /**
+   * Writes the blocks to the output stream, flushing regularly.
+   *
+   * @return The number of blocks written.
+   */
+  public long write(Iterable<Block> blocks, MediaType mediaType, OutputStream out)
+      throws IOException {
+    boolean binary = isBinary(mediaType);
+    if (binary) {
+      BlockWireCodec.writeHeader(out);
+    }
+    long written = 0;
+    for (Block block : blocks) {
+      if (binary) {
+        BlockWireCodec.writeFrame(block, out);
+      } else {
+        out.write(jsonMapper.writeValueAsBytes(block));
+        out.write('\n');
+      }
+      if (++written % FLUSH_EVERY_BLOCKS == 0) {
+        out.flush();
+      }
+    }
+    out.flush();
+    return written;
+  }
+
+  /**
+   * Reads blocks from the input stream until it ends, handing each one to the consumer as soon as
+   * it is decoded.
+   *
+   * @return The number of blocks read.
+   */
+  public long read(InputStream in, MediaType mediaType, Consumer<Block> consumer)
+      throws IOException {
+    long read = 0;
+    if (isBinary(mediaType)) {
+      BlockWireCodec.readHeader(in);
+      Block block;
+      while ((block = BlockWireCodec.readFrame(in)) != null) {
+        consumer.accept(block);
+        read++;
+      }
+      return read;
+    }
+    BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = lines.readLine()) != null) {
+      if (!line.isBlank()) {
+        consumer.accept(jsonMapper.readValue(line, Block.class));
+        read++;
+      }
+    }
+    return read;
+  }
+}
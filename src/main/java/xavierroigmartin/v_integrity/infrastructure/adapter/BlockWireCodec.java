@@ -0,0 +1,367 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.domain.HexCodec;
+
+/**
+ * Compact binary encoding of blocks exchanged between nodes (replication and sync).
+ * <p>
+ * A body is a {@link #WIRE_VERSION} byte followed by length-prefixed frames
+ * ({@code [int length][payload]}), one per block, until the end of the stream. Compared to JSON,
+ * a payload carries no field names and uses:
+ * <ul>
+ *     <li>raw bytes for hex hashes and Base64 signatures (values that do not round-trip, e.g.
+ *     uppercase hex, are kept as strings),</li>
+ *     <li>epoch nanoseconds for timestamps,</li>
+ *     <li>a per-block string dictionary for the values evidences repeat (homologation, test run,
+ *     type, algorithm, author, standards),</li>
+ *     <li>unsigned varints for lengths, counts and dictionary references.</li>
+ * </ul>
+ * Unlike {@link BlockRecordCodec}, this format is not persisted and can change together with
+ * {@link #WIRE_VERSION}.
+ */
+final class BlockWireCodec {
+
+  static final byte WIRE_VERSION = 1;
+
+  private static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+  private static final int NANOS_PER_SECOND = 1_000_000_000;
+  // Tags of a binary-or-string field
+  private static final int TAG_NULL = 0;
+  private static final int TAG_RAW = 1;
+  private static final int TAG_TEXT = 2;
+
+  private BlockWireCodec() {
+  }
+
+  /**
+   * Writes a whole body: the version byte and one frame per block.
+   */
+  static void writeBlocks(Collection<Block> blocks, OutputStream out) throws IOException {
+    writeHeader(out);
+    for (Block block : blocks) {
+      writeFrame(block, out);
+    }
+  }
+
+  /**
+   * Reads a whole body written by {@link #writeBlocks(Collection, OutputStream)}.
+   */
+  static List<Block> readBlocks(InputStream in) throws IOException {
+    readHeader(in);
+    List<Block> blocks = new ArrayList<>();
+    Block block;
+    while ((block = readFrame(in)) != null) {
+      blocks.add(block);
+    }
+    return blocks;
+  }
+
+  static void writeHeader(OutputStream out) throws IOException {
+    out.write(WIRE_VERSION);
+  }
+
+  static void readHeader(InputStream in) throws IOException {
+    int version = in.read();
+    if (version != WIRE_VERSION) {
+      throw new IOException("Unsupported block wire version: " + version);
+    }
+  }
+
+  static void writeFrame(Block block, OutputStream out) throws IOException {
+    byte[] payload = encode(block);
+    out.write(payload.length >>> 24);
+    out.write(payload.length >>> 16);
+    out.write(payload.length >>> 8);
+    out.write(payload.length);
+    out.write(payload);
+  }
+
+  /**
+   * @return The next block, or null at the end of the stream.
+   */
+  static Block readFrame(InputStream in) throws IOException {
+    int b0 = in.read();
+    if (b0 < 0) {
+      return null;
+    }
+    DataInputStream data = new DataInputStream(in);
+    int length = (b0 << 24) | (data.readUnsignedByte() << 16) | (data.readUnsignedByte() << 8)
+        | data.readUnsignedByte();
+    if (length < 0 || length > MAX_FRAME_BYTES) {
+      throw new IOException("Invalid block frame length: " + length);
+    }
+    byte[] payload = new byte[length];
+    data.readFully(payload);
+    return decode(payload);
+  }
+
+  static byte[] encode(Block block) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + block.evidences().size() * 160);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      Dictionary dictionary = Dictionary.of(block.evidences());
+      writeVarint(out, dictionary.values.size());
+      for (String value : dictionary.values) {
+        writeString(out, value);
+      }
+
+      out.writeLong(block.height());
+      writeInstant(out, block.timestamp());
+      writeVarint(out, block.version());
+      writeHex(out, block.previousHash());
+      writeString(out, block.proposerNodeId());
+      writeHex(out, block.hash());
+      writeBase64(out, block.signature());
+      writeHex(out, block.merkleRoot());
+
+      writeVarint(out, block.evidences().size());
+      for (EvidenceRecord e : block.evidences()) {
+        writeString(out, e.evidenceId());
+        dictionary.write(out, e.homologationId());
+        dictionary.write(out, e.testRunId());
+        writeString(out, e.artifactName());
+        dictionary.write(out, e.artifactType());
+        dictionary.write(out, e.hashAlgorithm());
+        writeHex(out, e.hash());
+        out.writeBoolean(e.sizeBytes() != null);
+        if (e.sizeBytes() != null) {
+          out.writeLong(e.sizeBytes());
+        }
+        dictionary.write(out, e.createdBy());
+        writeString(out, e.storageUri());
+        writeVarint(out, e.standards().size());
+        for (String standard : e.standards()) {
+          dictionary.write(out, standard);
+        }
+        writeInstant(out, e.createdAt());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  static Block decode(byte[] payload) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    int dictionarySize = readVarint(in);
+    List<String> dictionary = new ArrayList<>(Math.min(dictionarySize, 1024));
+    for (int i = 0; i < dictionarySize; i++) {
+      dictionary.add(readString(in));
+    }
+
+    long height = in.readLong();
+    Instant timestamp = readInstant(in);
+    int version = readVarint(in);
+    String previousHash = readHex(in);
+    String proposer = readString(in);
+    String hash = readHex(in);
+    String signature = readBase64(in);
+    String merkleRoot = readHex(in);
+
+    int count = readVarint(in);
+    List<EvidenceRecord> evidences = new ArrayList<>(Math.min(count, 4096));
+    for (int i = 0; i < count; i++) {
+      String evidenceId = readString(in);
+      String homologationId = lookup(dictionary, in);
+      String testRunId = lookup(dictionary, in);
+      String artifactName = readString(in);
+      String artifactType = lookup(dictionary, in);
+      String hashAlgorithm = lookup(dictionary, in);
+      String evidenceHash = readHex(in);
+      Long sizeBytes = in.readBoolean() ? in.readLong() : null;
+      String createdBy = lookup(dictionary, in);
+      String storageUri = readString(in);
+      int standardsCount = readVarint(in);
+      List<String> standards = new ArrayList<>(Math.min(standardsCount, 64));
+      for (int s = 0; s < standardsCount; s++) {
+        standards.add(lookup(dictionary, in));
+      }
+      Instant createdAt = readInstant(in);
+      evidences.add(new EvidenceRecord(evidenceId, homologationId, testRunId, artifactName,
+          artifactType, hashAlgorithm, evidenceHash, sizeBytes, createdBy, storageUri,
+          List.copyOf(standards), createdAt));
+    }
+    return new Block(height, timestamp, List.copyOf(evidences), previousHash, proposer, hash,
+        signature, version, merkleRoot);
+  }
+
+  private static void writeVarint(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarint(DataInputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new IOException("Negative varint");
+        }
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  // Strings are prefixed by length + 1, so that 0 means null
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      writeVarint(out, 0);
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    writeVarint(out, utf8.length + 1);
+    out.write(utf8);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = readVarint(in) - 1;
+    if (length < 0) {
+      return null;
+    }
+    return new String(readBytes(in, length), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readBytes(DataInputStream in, int length) throws IOException {
+    if (length > in.available()) {
+      throw new EOFException("Field length " + length + " exceeds the frame");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static void writeHex(DataOutputStream out, String hex) throws IOException {
+    byte[] raw = HexCodec.tryDecodeLowercase(hex);
+    writeTagged(out, hex, raw);
+  }
+
+  private static String readHex(DataInputStream in) throws IOException {
+    return readTagged(in, true);
+  }
+
+  private static void writeBase64(DataOutputStream out, String base64) throws IOException {
+    byte[] raw = null;
+    if (base64 != null) {
+      try {
+        raw = Base64.getDecoder().decode(base64);
+        if (!Base64.getEncoder().encodeToString(raw).equals(base64)) {
+          raw = null;
+        }
+      } catch (IllegalArgumentException e) {
+        raw = null;
+      }
+    }
+    writeTagged(out, base64, raw);
+  }
+
+  private static String readBase64(DataInputStream in) throws IOException {
+    return readTagged(in, false);
+  }
+
+  private static void writeTagged(DataOutputStream out, String text, byte[] raw)
+      throws IOException {
+    if (text == null) {
+      out.writeByte(TAG_NULL);
+    } else if (raw != null) {
+      out.writeByte(TAG_RAW);
+      writeVarint(out, raw.length);
+      out.write(raw);
+    } else {
+      out.writeByte(TAG_TEXT);
+      writeString(out, text);
+    }
+  }
+
+  private static String readTagged(DataInputStream in, boolean hex) throws IOException {
+    int tag = in.readUnsignedByte();
+    return switch (tag) {
+      case TAG_NULL -> null;
+      case TAG_RAW -> {
+        byte[] raw = readBytes(in, readVarint(in));
+        yield hex ? HexCodec.encode(raw) : Base64.getEncoder().encodeToString(raw);
+      }
+      case TAG_TEXT -> readString(in);
+      default -> throw new IOException("Unknown field tag: " + tag);
+    };
+  }
+
+  private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+    // Epoch nanoseconds fit in a long until year 2262
+    out.writeLong(Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND),
+        instant.getNano()));
+  }
+
+  private static Instant readInstant(DataInputStream in) throws IOException {
+    long nanos = in.readLong();
+    return Instant.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+        Math.floorMod(nanos, NANOS_PER_SECOND));
+  }
+
+  private static String lookup(List<String> dictionary, DataInputStream in) throws IOException {
+    int reference = readVarint(in);
+    if (reference == 0) {
+      return null;
+    }
+    if (reference > dictionary.size()) {
+      throw new IOException("Unknown dictionary reference: " + reference);
+    }
+    return dictionary.get(reference - 1);
+  }
+
+  /**
+   * Distinct repeated values of a block, referenced as index + 1 (0 is null).
+   */
+  private static final class Dictionary {
+
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> references = new HashMap<>();
+
+    static Dictionary of(List<EvidenceRecord> evidences) {
+      Dictionary dictionary = new Dictionary();
+      for (EvidenceRecord e : evidences) {
+        dictionary.add(e.homologationId());
+        dictionary.add(e.testRunId());
+        dictionary.add(e.artifactType());
+        dictionary.add(e.hashAlgorithm());
+        dictionary.add(e.createdBy());
+        e.standards().forEach(dictionary::add);
+      }
+      return dictionary;
+    }
+
+    private void add(String value) {
+      if (value != null && !references.containsKey(value)) {
+        values.add(value);
+        references.put(value, values.size());
+      }
+    }
+
+    void write(DataOutputStream out, String value) throws IOException {
+      writeVarint(out, value == null ? 0 : references.get(value));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractSmartHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import xavierroigmartin.v_integrity.domain.Block;
+
+/**
+ * Reads and writes a {@link Block} or a {@code List<Block>} in the {@link BlockWireCodec} binary
+ * format, under the {@value #MEDIA_TYPE_VALUE} media type.
+ * <p>
+ * Registered next to the JSON converter, so the block endpoints serve whichever format the
+ * client asks for. Peers send or accept the binary type. Endpoints list JSON first in
+ * {@code produces}, so browsers and curl keep getting JSON by default.
+ */
+@Component
+public class BlockWireHttpMessageConverter extends AbstractSmartHttpMessageConverter<Object> {
+
+  public static final String MEDIA_TYPE_VALUE = "application/vnd.v-integrity.blocks";
+  public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+  public BlockWireHttpMessageConverter() {
+    super(MEDIA_TYPE);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return Block.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  public boolean canRead(ResolvableType type, MediaType mediaType) {
+    Class<?> raw = type.toClass();
+    boolean readable = raw == Block.class
+        || (raw.isAssignableFrom(List.class) && isBlockCollection(type));
+    return readable && canRead(mediaType);
+  }
+
+  @Override
+  public boolean canWrite(ResolvableType targetType, Class<?> valueClass,
+      MediaType mediaType) {
+    boolean writable = Block.class.isAssignableFrom(valueClass)
+        || (Collection.class.isAssignableFrom(valueClass) && isBlockCollection(targetType));
+    return writable && canWrite(mediaType);
+  }
+
+  @Override
+  public Object read(ResolvableType type, HttpInputMessage inputMessage,
+      Map<String, Object> hints) throws IOException {
+    List<Block> blocks;
+    try (InputStream in = inputMessage.getBody()) {
+      blocks = BlockWireCodec.readBlocks(in);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new HttpMessageNotReadableException("Invalid binary block body: " + e.getMessage(), e,
+          inputMessage);
+    }
+    if (type.toClass() != Block.class) {
+      return blocks;
+    }
+    if (blocks.size() != 1) {
+      throw new HttpMessageNotReadableException(
+          "Expected exactly one block but received " + blocks.size(), inputMessage);
+    }
+    return blocks.get(0);
+  }
+
+  @Override
+  protected void writeInternal(Object value, ResolvableType type, HttpOutputMessage outputMessage,
+      Map<String, Object> hints) throws IOException {
+    OutputStream out = outputMessage.getBody();
+    if (value instanceof Block block) {
+      BlockWireCodec.writeBlocks(List.of(block), out);
+    } else {
+      @SuppressWarnings("unchecked")
+      Collection<Block> blocks = (Collection<Block>) value;
+      BlockWireCodec.writeBlocks(blocks, out);
+    }
+    out.flush();
+  }
+
+  private static boolean isBlockCollection(ResolvableType type) {
+    ResolvableType element = type.asCollection().getGeneric(0);
+    return element.toClass() == Block.class;
+  }
+}
@@ -1,32 +1,109 @@
 package xavierroigmartin.v_integrity.infrastructure.adapter;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
 import xavierroigmartin.v_integrity.application.port.out.CryptoPort;
 
+import java.security.GeneralSecurityException;
+import java.security.Key;
 import java.security.KeyFactory;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.Signature;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implementation of {@link CryptoPort} using Java's standard security libraries (JCA).
  * <p>
  * Uses "Ed25519" algorithm for digital signatures, which is standard in modern blockchains
  * for its high performance and security.
+ * <p>
+ * The same few node keys are used for every block, so decoded keys are kept in bounded LRU caches
+ * keyed by their Base64 form, and each thread reuses its own {@link KeyFactory} and
+ * {@link Signature} instances. Cache hits and misses are published as the
+ * {@code ledger.crypto.key.cache} counter (tags {@code type} and {@code result}).
+ * <p>
+ * Batch verification splits large batches into chunks that run on a bounded pool of daemon
+ * workers (one per core); the calling thread verifies the first chunk itself and also runs any
+ * chunk the saturated pool rejects.
  */
 @Component
-public class CryptoAdapter implements CryptoPort {
+public class CryptoAdapter implements CryptoPort, MeterBinder {
+
+    static final int DEFAULT_MAX_CACHED_KEYS = 256;
+    // Below this many signatures per worker, handing work to the pool costs more than it saves
+    private static final int MIN_BATCH_CHUNK = 16;
+    private static final String ALGORITHM = "Ed25519";
+
+    private static final ThreadLocal<KeyFactory> KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return KeyFactory.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 is not available", e);
+        }
+    });
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 is not available", e);
+        }
+    });
+
+    private final KeyCache<PrivateKey> privateKeys;
+    private final KeyCache<PublicKey> publicKeys;
+    private final int workers;
+    private final ThreadPoolExecutor verifyPool;
+
+    public CryptoAdapter() {
+        this(DEFAULT_MAX_CACHED_KEYS, Runtime.getRuntime().availableProcessors());
+    }
+
+    CryptoAdapter(int maxCachedKeys) {
+        this(maxCachedKeys, Runtime.getRuntime().availableProcessors());
+    }
+
+    CryptoAdapter(int maxCachedKeys, int workers) {
+        this.privateKeys = new KeyCache<>(maxCachedKeys);
+        this.publicKeys = new KeyCache<>(maxCachedKeys);
+        this.workers = Math.max(1, workers);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.verifyPool = new ThreadPoolExecutor(this.workers, this.workers, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.workers * 4),
+                task -> Thread.ofPlatform()
+                        .name("ed25519-verify-" + threadIds.incrementAndGet())
+                        .daemon()
+                        .unstarted(task),
+                // Saturated (or shut down) pool: verify in the caller instead of dropping the chunk
+                (task, executor) -> task.run());
+        // Idle adapters do not keep threads alive
+        this.verifyPool.allowCoreThreadTimeOut(true);
+    }
 
     @Override
     public String signEd25519(byte[] message, String privateKeyBase64) {
         try {
-            byte[] pkcs8 = Base64.getDecoder().decode(privateKeyBase64);
-            PrivateKey privateKey = KeyFactory.getInstance("Ed25519").generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+            PrivateKey privateKey = privateKeys.get(privateKeyBase64, CryptoAdapter::parsePrivateKey);
 
-            Signature sig = Signature.getInstance("Ed25519");
+            Signature sig = SIGNATURE.get();
             sig.initSign(privateKey);
             sig.update(message);
 
@@ -40,10 +117,9 @@ public class CryptoAdapter implements CryptoPort {
     @Override
     public boolean verifyEd25519(byte[] message, String signatureBase64, String publicKeyBase64) {
         try {
-            byte[] x509 = Base64.getDecoder().decode(publicKeyBase64);
-            PublicKey publicKey = KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(x509));
+            PublicKey publicKey = publicKeys.get(publicKeyBase64, CryptoAdapter::parsePublicKey);
 
-            Signature sig = Signature.getInstance("Ed25519");
+            Signature sig = SIGNATURE.get();
             sig.initVerify(publicKey);
             sig.update(message);
 
@@ -54,4 +130,136 @@ public class CryptoAdapter implements CryptoPort {
             return false;
         }
     }
+
+    @Override
+    public boolean[] verifyEd25519Batch(List<byte[]> messages, List<String> signaturesBase64,
+            String publicKeyBase64) {
+        int size = messages.size();
+        if (size != signaturesBase64.size()) {
+            throw new IllegalArgumentException("messages and signatures must have the same size");
+        }
+        boolean[] valid = new boolean[size];
+        int chunks = Math.min(workers, size / MIN_BATCH_CHUNK);
+        if (chunks <= 1) {
+            verifyRange(messages, signaturesBase64, publicKeyBase64, valid, 0, size);
+            return valid;
+        }
+
+        int chunkSize = (size + chunks - 1) / chunks;
+        List<Future<?>> pending = new ArrayList<>(chunks - 1);
+        for (int from = chunkSize; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(size, from + chunkSize);
+            // Each task writes a disjoint range; Future#get publishes the writes
+            pending.add(verifyPool.submit(
+                    () -> verifyRange(messages, signaturesBase64, publicKeyBase64, valid, start, end)));
+        }
+        verifyRange(messages, signaturesBase64, publicKeyBase64, valid, 0, chunkSize);
+        try {
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying signatures", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error verifying signatures", e.getCause());
+        }
+        return valid;
+    }
+
+    @PreDestroy
+    public void close() {
+        verifyPool.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        privateKeys.bindTo(registry, "private");
+        publicKeys.bindTo(registry, "public");
+    }
+
+    /**
+     * @return Number of key lookups served from the caches.
+     */
+    long cacheHits() {
+        return privateKeys.hits.sum() + publicKeys.hits.sum();
+    }
+
+    /**
+     * @return Number of key lookups that had to decode the key.
+     */
+    long cacheMisses() {
+        return privateKeys.misses.sum() + publicKeys.misses.sum();
+    }
+
+    private void verifyRange(List<byte[]> messages, List<String> signaturesBase64,
+            String publicKeyBase64, boolean[] valid, int from, int to) {
+        for (int i = from; i < to; i++) {
+            valid[i] = verifyEd25519(messages.get(i), signaturesBase64.get(i), publicKeyBase64);
+        }
+    }
+
+    private static PrivateKey parsePrivateKey(String base64) throws GeneralSecurityException {
+        byte[] pkcs8 = Base64.getDecoder().decode(base64);
+        return KEY_FACTORY.get().generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+    }
+
+    private static PublicKey parsePublicKey(String base64) throws GeneralSecurityException {
+        byte[] x509 = Base64.getDecoder().decode(base64);
+        return KEY_FACTORY.get().generatePublic(new X509EncodedKeySpec(x509));
+    }
+
+    @FunctionalInterface
+    private interface KeyParser<K extends Key> {
+
+        K parse(String base64) throws GeneralSecurityException;
+    }
+
+    /**
+     * Bounded LRU cache of decoded keys. Keys that fail to decode are not cached.
+     */
+    private static final class KeyCache<K extends Key> {
+
+        private final Map<String, K> keys;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        KeyCache(int maxSize) {
+            this.keys = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, K> eldest) {
+                    return size() > maxSize;
+                }
+            });
+        }
+
+        K get(String base64, KeyParser<K> parser) throws GeneralSecurityException {
+            K key = keys.get(base64);
+            if (key != null) {
+                hits.increment();
+                return key;
+            }
+            misses.increment();
+            // Parsing is idempotent, so a concurrent miss on the same key is harmless
+            key = parser.parse(base64);
+            keys.put(base64, key);
+            return key;
+        }
+
+        void bindTo(MeterRegistry registry, String type) {
+            FunctionCounter.builder("ledger.crypto.key.cache", hits, LongAdder::sum)
+                    .description("Ed25519 key cache lookups")
+                    .tags("type", type, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("ledger.crypto.key.cache", misses, LongAdder::sum)
+                    .description("Ed25519 key cache lookups")
+                    .tags("type", type, "result", "miss")
+                    .register(registry);
+            Gauge.builder("ledger.crypto.key.cache.size", keys, Map::size)
+                    .description("Decoded Ed25519 keys currently cached")
+                    .tag("type", type)
+                    .register(registry);
+        }
+    }
 }
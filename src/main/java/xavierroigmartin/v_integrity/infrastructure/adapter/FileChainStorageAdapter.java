@@ -0,0 +1,497 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import xavierroigmartin.v_integrity.application.port.out.ChainStoragePort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+import xavierroigmartin.v_integrity.infrastructure.config.StorageProperties;
+
+/**
+ * File-based implementation of {@link ChainStoragePort}.
+ * <p>
+ * Blocks are appended to a log split into fixed-size segments. Each segment is a pair of files:
+ * <ul>
+ *     <li>{@code segment-<baseHeight>.log}: records of {@code [length][crc32c][payload]}.</li>
+ *     <li>{@code segment-<baseHeight>.idx}: one 8-byte log offset per block, by height.</li>
+ * </ul>
+ * Writes are fsynced in groups, either every {@code groupCommitBlocks} appends or after
+ * {@code groupCommitInterval}, whichever comes first, or when the ledger asks for it. Sealed
+ * segments are immutable; on startup only the active (last) segment is scanned to drop a torn
+ * tail left by a crash.
+ * <p>
+ * Signed checkpoints go to {@code checkpoints.ckp}, with the same record format. They are rare,
+ * so each one is fsynced right away, after the blocks it refers to.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ledger.storage", name = "enabled", havingValue = "true")
+public class FileChainStorageAdapter implements ChainStoragePort {
+
+  private static final Logger logger = LoggerFactory.getLogger(FileChainStorageAdapter.class);
+  private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{20})\\.log");
+  private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+  private static final int INDEX_ENTRY_BYTES = Long.BYTES;
+  private static final String CHECKPOINTS_FILE = "checkpoints.ckp";
+
+  private final Path directory;
+  private final long segmentSizeBytes;
+  private final int groupCommitBlocks;
+  private final List<Segment> segments = new ArrayList<>();
+  private final List<Checkpoint> checkpoints = new ArrayList<>();
+  private final long groupCommitIntervalMillis;
+
+  private ScheduledExecutorService flusher;
+
+  private long nextHeight = -1;
+  private int pendingSync;
+  private FileChannel checkpointLog;
+
+  public FileChainStorageAdapter(StorageProperties properties) {
+    this.directory = Path.of(properties.getDirectory());
+    this.segmentSizeBytes = properties.getSegmentSizeBytes();
+    this.groupCommitBlocks = Math.max(1, properties.getGroupCommitBlocks());
+    this.groupCommitIntervalMillis = Math.max(1, properties.getGroupCommitInterval().toMillis());
+    open();
+  }
+
+  /**
+   * Starts the background flusher that fsyncs pending appends every {@code groupCommitInterval}.
+   * Until then, appends are only fsynced when a group fills up or on {@link #flush()}.
+   */
+  @PostConstruct
+  public synchronized void start() {
+    if (flusher != null) {
+      return;
+    }
+    flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "chain-storage-flusher");
+      t.setDaemon(true);
+      return t;
+    });
+    flusher.scheduleWithFixedDelay(this::flushIfPending, groupCommitIntervalMillis,
+        groupCommitIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public synchronized long replay(long fromHeight, Consumer<Block> consumer) {
+    long replayed = 0;
+    for (Segment segment : segments) {
+      long end = segment.baseHeight + segment.count;
+      if (end <= fromHeight) {
+        continue;
+      }
+      long first = Math.max(0, fromHeight - segment.baseHeight);
+      replayed += segment.replay(first, consumer);
+    }
+    return replayed;
+  }
+
+  @Override
+  public synchronized void append(Block block) {
+    if (nextHeight >= 0 && block.height() != nextHeight) {
+      throw new IllegalStateException(
+          "Out of order append: expected height " + nextHeight + " but got " + block.height());
+    }
+
+    byte[] payload = BlockRecordCodec.encode(block);
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+    record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+    try {
+      Segment active = activeSegment(block.height(), record.remaining());
+      active.append(record);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not append block " + block.height(), e);
+    }
+
+    nextHeight = block.height() + 1;
+    if (++pendingSync >= groupCommitBlocks) {
+      flush();
+    }
+  }
+
+  @Override
+  public synchronized void flush() {
+    if (segments.isEmpty()) {
+      return;
+    }
+    try {
+      segments.get(segments.size() - 1).force();
+      pendingSync = 0;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not fsync block log", e);
+    }
+  }
+
+  @Override
+  public synchronized boolean isFlushed() {
+    return pendingSync == 0;
+  }
+
+  @Override
+  public synchronized void appendCheckpoint(Checkpoint checkpoint) {
+    // The checkpointed block must be durable before the checkpoint
+    flush();
+    byte[] payload = encodeCheckpoint(checkpoint);
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+    record.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+    try {
+      writeFully(checkpointLog, record, checkpointLog.size());
+      checkpointLog.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not append checkpoint " + checkpoint.height(), e);
+    }
+    checkpoints.add(checkpoint);
+  }
+
+  @Override
+  public synchronized List<Checkpoint> checkpoints() {
+    return List.copyOf(checkpoints);
+  }
+
+  /**
+   * Flushes pending writes and releases file handles.
+   */
+  @PreDestroy
+  public synchronized void close() {
+    if (flusher != null) {
+      flusher.shutdownNow();
+    }
+    flush();
+    for (Segment segment : segments) {
+      segment.close();
+    }
+    try {
+      checkpointLog.close();
+    } catch (IOException e) {
+      logger.warn("Could not close {}: {}", CHECKPOINTS_FILE, e.getMessage());
+    }
+  }
+
+  private synchronized void flushIfPending() {
+    if (pendingSync > 0) {
+      try {
+        flush();
+      } catch (UncheckedIOException e) {
+        logger.error("Group fsync of block log failed: {}", e.getMessage());
+      }
+    }
+  }
+
+  private Segment activeSegment(long height, int recordBytes) throws IOException {
+    if (!segments.isEmpty()) {
+      Segment active = segments.get(segments.size() - 1);
+      if (active.size == 0 || active.size + recordBytes <= segmentSizeBytes) {
+        return active;
+      }
+      active.seal();
+      logger.info("Sealed block log segment base={} blocks={}", active.baseHeight, active.count);
+    }
+    Segment fresh = Segment.create(directory, height);
+    segments.add(fresh);
+    return fresh;
+  }
+
+  private void open() {
+    try {
+      Files.createDirectories(directory);
+      List<Path> logs;
+      try (Stream<Path> files = Files.list(directory)) {
+        logs = files.filter(p -> SEGMENT_NAME.matcher(p.getFileName().toString()).matches())
+            .sorted()
+            .toList();
+      }
+
+      for (int i = 0; i < logs.size(); i++) {
+        Matcher m = SEGMENT_NAME.matcher(logs.get(i).getFileName().toString());
+        if (!m.matches()) {
+          continue;
+        }
+        long base = Long.parseLong(m.group(1));
+        boolean active = i == logs.size() - 1;
+        segments.add(active ? Segment.recover(directory, base) : Segment.sealed(directory, base));
+      }
+
+      if (!segments.isEmpty()) {
+        Segment last = segments.get(segments.size() - 1);
+        nextHeight = last.baseHeight + last.count;
+      }
+      openCheckpoints();
+      logger.info("Opened block log at {} ({} segments, next height {}, {} checkpoints)",
+          directory, segments.size(), nextHeight, checkpoints.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open block log at " + directory, e);
+    }
+  }
+
+  /**
+   * Reads the checkpoint log, truncating a torn or corrupt tail like the active segment.
+   */
+  private void openCheckpoints() throws IOException {
+    checkpointLog = FileChannel.open(directory.resolve(CHECKPOINTS_FILE),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long fileSize = checkpointLog.size();
+    long offset = 0;
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+    while (offset + RECORD_HEADER_BYTES <= fileSize) {
+      header.clear();
+      readFully(checkpointLog, header, offset);
+      int length = header.getInt(0);
+      if (length < 0 || offset + RECORD_HEADER_BYTES + length > fileSize) {
+        break;
+      }
+      ByteBuffer payload = ByteBuffer.allocate(length);
+      readFully(checkpointLog, payload, offset + RECORD_HEADER_BYTES);
+      if (crc(payload.array()) != header.getInt(Integer.BYTES)) {
+        break;
+      }
+      checkpoints.add(decodeCheckpoint(payload.array()));
+      offset += RECORD_HEADER_BYTES + length;
+    }
+    if (offset < fileSize) {
+      logger.warn("Truncating torn tail of {} at offset {} (file size {})", CHECKPOINTS_FILE,
+          offset, fileSize);
+      checkpointLog.truncate(offset);
+    }
+  }
+
+  private static byte[] encodeCheckpoint(Checkpoint checkpoint) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeLong(checkpoint.height());
+      out.writeUTF(checkpoint.accumulator());
+      out.writeUTF(checkpoint.blockHash());
+      out.writeUTF(checkpoint.signerNodeId());
+      out.writeUTF(checkpoint.signature());
+      out.writeLong(checkpoint.createdAt().getEpochSecond());
+      out.writeInt(checkpoint.createdAt().getNano());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Checkpoint decodeCheckpoint(byte[] payload) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      return new Checkpoint(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF(),
+          in.readUTF(), Instant.ofEpochSecond(in.readLong(), in.readInt()));
+    }
+  }
+
+  private static int crc(byte[] payload) {
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * A log/index file pair holding consecutive blocks starting at {@code baseHeight}.
+   */
+  private static final class Segment {
+
+    private final long baseHeight;
+    private final Path logPath;
+    private final Path indexPath;
+    private FileChannel log;
+    private FileChannel index;
+    private long size;
+    private long count;
+
+    private Segment(Path directory, long baseHeight) {
+      this.baseHeight = baseHeight;
+      String name = String.format("segment-%020d", baseHeight);
+      this.logPath = directory.resolve(name + ".log");
+      this.indexPath = directory.resolve(name + ".idx");
+    }
+
+    static Segment create(Path directory, long baseHeight) throws IOException {
+      Segment segment = new Segment(directory, baseHeight);
+      segment.openForAppend();
+      return segment;
+    }
+
+    static Segment sealed(Path directory, long baseHeight) throws IOException {
+      Segment segment = new Segment(directory, baseHeight);
+      segment.size = Files.size(segment.logPath);
+      segment.count = Files.exists(segment.indexPath)
+          ? Files.size(segment.indexPath) / INDEX_ENTRY_BYTES
+          : 0;
+      return segment;
+    }
+
+    /**
+     * Scans the active segment, truncates any torn or corrupt tail and rebuilds its index.
+     */
+    static Segment recover(Path directory, long baseHeight) throws IOException {
+      Segment segment = new Segment(directory, baseHeight);
+      segment.openForAppend();
+
+      long fileSize = segment.log.size();
+      long offset = 0;
+      List<Long> offsets = new ArrayList<>();
+      ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+      while (offset + RECORD_HEADER_BYTES <= fileSize) {
+        header.clear();
+        readFully(segment.log, header, offset);
+        header.flip();
+        int length = header.getInt();
+        int expectedCrc = header.getInt();
+        if (length < 0 || offset + RECORD_HEADER_BYTES + length > fileSize) {
+          break;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(segment.log, payload, offset + RECORD_HEADER_BYTES);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array());
+        if ((int) crc.getValue() != expectedCrc) {
+          break;
+        }
+        offsets.add(offset);
+        offset += RECORD_HEADER_BYTES + length;
+      }
+
+      if (offset < fileSize) {
+        logger.warn("Truncating torn tail of {} at offset {} (file size {})", segment.logPath,
+            offset, fileSize);
+        segment.log.truncate(offset);
+      }
+
+      segment.index.truncate(0);
+      ByteBuffer entries = ByteBuffer.allocate(offsets.size() * INDEX_ENTRY_BYTES);
+      offsets.forEach(entries::putLong);
+      entries.flip();
+      writeFully(segment.index, entries, 0);
+      segment.force();
+
+      segment.size = offset;
+      segment.count = offsets.size();
+      return segment;
+    }
+
+    void append(ByteBuffer record) throws IOException {
+      int recordBytes = record.remaining();
+      writeFully(log, record, size);
+      ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).putLong(0, size);
+      writeFully(index, entry, count * INDEX_ENTRY_BYTES);
+      size += recordBytes;
+      count++;
+    }
+
+    long replay(long first, Consumer<Block> consumer) {
+      if (first >= count) {
+        return 0;
+      }
+      try (FileChannel logReader = FileChannel.open(logPath, StandardOpenOption.READ);
+          FileChannel indexReader = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        readFully(indexReader, entry, first * INDEX_ENTRY_BYTES);
+        long offset = entry.getLong(0);
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        for (long i = first; i < count; i++) {
+          header.clear();
+          readFully(logReader, header, offset);
+          int length = header.getInt(0);
+          int expectedCrc = header.getInt(Integer.BYTES);
+
+          ByteBuffer payload = ByteBuffer.allocate(length);
+          readFully(logReader, payload, offset + RECORD_HEADER_BYTES);
+          CRC32C crc = new CRC32C();
+          crc.update(payload.array());
+          if ((int) crc.getValue() != expectedCrc) {
+            throw new IllegalStateException(
+                "Corrupt block record at height " + (baseHeight + i) + " in " + logPath);
+          }
+
+          consumer.accept(BlockRecordCodec.decode(payload.array()));
+          offset += RECORD_HEADER_BYTES + length;
+        }
+        return count - first;
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not replay " + logPath, e);
+      }
+    }
+
+    void force() throws IOException {
+      if (log != null) {
+        log.force(false);
+        index.force(false);
+      }
+    }
+
+    void seal() throws IOException {
+      force();
+      close();
+    }
+
+    void close() {
+      try {
+        if (log != null) {
+          log.close();
+          index.close();
+        }
+      } catch (IOException e) {
+        logger.warn("Could not close segment {}: {}", logPath, e.getMessage());
+      } finally {
+        log = null;
+        index = null;
+      }
+    }
+
+    private void openForAppend() throws IOException {
+      log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    long pos = position;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, pos);
+      if (read < 0) {
+        throw new IOException("Unexpected end of file at offset " + pos);
+      }
+      pos += read;
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    long pos = position;
+    while (buffer.hasRemaining()) {
+      pos += channel.write(buffer, pos);
+    }
+  }
+}
@@ -2,6 +2,8 @@ package xavierroigmartin.v_integrity.infrastructure.adapter;
 
 import org.springframework.stereotype.Component;
 import xavierroigmartin.v_integrity.application.port.out.HashingPort;
+import xavierroigmartin.v_integrity.application.port.out.IncrementalDigest;
+import xavierroigmartin.v_integrity.domain.HexCodec;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -19,7 +21,7 @@ public class HashingAdapter implements HashingPort {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            return toHex(hash);
+            return HexCodec.encode(hash);
         } catch (Exception e) {
             throw new IllegalStateException("Could not compute SHA-256", e);
         }
@@ -35,9 +37,25 @@ public class HashingAdapter implements HashingPort {
         }
     }
 
-    private static String toHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder(bytes.length * 2);
-        for (byte b : bytes) sb.append(String.format("%02x", b));
-        return sb.toString();
+    @Override
+    public IncrementalDigest newSha256() {
+        try {
+            return new MessageDigestAdapter(MessageDigest.getInstance("SHA-256"));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create SHA-256 digest", e);
+        }
+    }
+
+    private record MessageDigestAdapter(MessageDigest delegate) implements IncrementalDigest {
+
+        @Override
+        public void update(byte[] input, int offset, int length) {
+            delegate.update(input, offset, length);
+        }
+
+        @Override
+        public byte[] digest() {
+            return delegate.digest();
+        }
     }
 }
@@ -0,0 +1,57 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import xavierroigmartin.v_integrity.application.port.out.ChainStoragePort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+
+/**
+ * Volatile implementation of {@link ChainStoragePort}.
+ * <p>
+ * Used when {@code ledger.storage.enabled} is false: the ledger already holds the chain in
+ * memory, so blocks are not kept a second time here. Nothing is replayed on startup; the chain is
+ * lost on restart and must be recovered from peers. Only the checkpoints are kept, since the
+ * ledger reads them back through {@link #checkpoints()}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ledger.storage", name = "enabled", havingValue = "false",
+    matchIfMissing = true)
+public class InMemoryChainStorageAdapter implements ChainStoragePort {
+
+  private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+  @Override
+  public long replay(long fromHeight, Consumer<Block> consumer) {
+    // Nothing survives a restart
+    return 0;
+  }
+
+  @Override
+  public void append(Block block) {
+    // The ledger's in-memory chain is the only copy
+  }
+
+  @Override
+  public void flush() {
+    // Nothing to flush
+  }
+
+  @Override
+  public boolean isFlushed() {
+    return true;
+  }
+
+  @Override
+  public synchronized void appendCheckpoint(Checkpoint checkpoint) {
+    checkpoints.add(checkpoint);
+  }
+
+  @Override
+  public synchronized List<Checkpoint> checkpoints() {
+    return List.copyOf(checkpoints);
+  }
+}
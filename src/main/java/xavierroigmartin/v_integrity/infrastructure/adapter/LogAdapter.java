@@ -1,32 +1,235 @@
 package xavierroigmartin.v_integrity.infrastructure.adapter;
 
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.infrastructure.config.BusinessLogProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.BusinessLogProperties.OverflowPolicy;
 
 /**
  * Implementation of {@link LogPort} using SLF4J.
  * <p>
  * Writes to a specific logger named "business-logger", which is configured
  * in logback-spring.xml to write to a separate JSON file.
+ * <p>
+ * Callers only enqueue the event; a single writer thread formats and appends it, so the request
+ * threads never pay for JSON encoding or file I/O:
+ * <ul>
+ *     <li>The event name and details are written as JSON fields ({@code event} or {@code error},
+ *     and a {@code details} object) through logstash {@code StructuredArguments}, and the message
+ *     keeps its human-readable form for the console.</li>
+ *     <li>The queue is bounded. When it is full, events are dropped and counted
+ *     ({@code DROP}) or the caller waits for room ({@code BLOCK}).</li>
+ *     <li>The caller's MDC (e.g., {@code node_id}) is carried over to the writer thread.</li>
+ *     <li>The record's own timestamp and thread are the writer's, so the time the event was raised
+ *     and the thread that raised it are written as {@code eventTime} and {@code eventThread}.</li>
+ *     <li>Metrics: queue size and dropped events ({@code ledger.business-log.*}).</li>
+ * </ul>
  */
 @Component
-public class LogAdapter implements LogPort {
+public class LogAdapter implements LogPort, MeterBinder {
 
   private static final Logger BUSINESS_LOGGER = LoggerFactory.getLogger("business-logger");
+  private static final Logger logger = LoggerFactory.getLogger(LogAdapter.class);
+  // Time given to the writer to flush the queue on shutdown
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+  private final BlockingQueue<BusinessEvent> queue;
+  private final OverflowPolicy overflowPolicy;
+  private final AtomicLong dropped = new AtomicLong();
+  // Events queued or being written
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Thread writer;
+  private volatile boolean closed;
+
+  public LogAdapter(BusinessLogProperties properties) {
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    this.overflowPolicy = properties.getOverflowPolicy();
+    this.writer = Thread.ofPlatform().daemon().name("business-log-writer").start(this::drain);
+  }
+
+  @Override
+  public boolean isBusinessEventEnabled() {
+    return BUSINESS_LOGGER.isInfoEnabled();
+  }
 
   @Override
   public void logBusinessEvent(String event, Map<String, Object> details) {
-    // We use structured logging arguments if available, or just format it nicely.
-    // With LogstashEncoder, we can use Markers, but for simplicity in this PoC,
-    // we'll log a formatted message. Ideally, we would use StructuredArguments.
-    BUSINESS_LOGGER.info("Event: {} | Details: {}", event, details);
+    if (BUSINESS_LOGGER.isInfoEnabled()) {
+      publish(new BusinessEvent(false, event, null, details, Instant.now(),
+          Thread.currentThread().getName(), callerMdc()));
+    }
   }
 
   @Override
   public void logBusinessError(String error, String message, Map<String, Object> details) {
-    BUSINESS_LOGGER.error("Error: {} | Message: {} | Details: {}", error, message, details);
+    if (BUSINESS_LOGGER.isErrorEnabled()) {
+      publish(new BusinessEvent(true, error, message, details, Instant.now(),
+          Thread.currentThread().getName(), callerMdc()));
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("ledger.business-log.queue.size", queue, BlockingQueue::size)
+        .description("Business events waiting to be written")
+        .register(registry);
+    FunctionCounter.builder("ledger.business-log.dropped", dropped, AtomicLong::get)
+        .description("Business events dropped because the queue was full")
+        .register(registry);
+  }
+
+  /**
+   * Writes the events still queued, then stops the writer. Later events are written on the
+   * caller thread.
+   */
+  @PreDestroy
+  public void close() {
+    closed = true;
+    writer.interrupt();
+    try {
+      writer.join(CLOSE_TIMEOUT);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return The number of events dropped because the queue was full.
+   */
+  long droppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Waits until every queued event has been written.
+   *
+   * @return true if all events were written before the timeout.
+   */
+  boolean awaitIdle(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (pending.get() > 0) {
+      if (System.nanoTime() > deadline) {
+        return false;
+      }
+      Thread.sleep(5);
+    }
+    return true;
+  }
+
+  private void publish(BusinessEvent event) {
+    if (closed) {
+      write(event);
+      return;
+    }
+    pending.incrementAndGet();
+    if (overflowPolicy == OverflowPolicy.BLOCK) {
+      try {
+        queue.put(event);
+        return;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    } else if (queue.offer(event)) {
+      return;
+    }
+    pending.decrementAndGet();
+    // Only count: logging every drop would add to the overload that caused it
+    dropped.incrementAndGet();
+  }
+
+  private void drain() {
+    List<BusinessEvent> batch = new ArrayList<>();
+    try {
+      while (true) {
+        batch.add(queue.take());
+        queue.drainTo(batch);
+        batch.forEach(this::writeSafely);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      // Shutting down: flush what is left
+      batch.forEach(this::writeSafely);
+      BusinessEvent event;
+      while ((event = queue.poll()) != null) {
+        writeSafely(event);
+      }
+    }
+  }
+
+  private void writeSafely(BusinessEvent event) {
+    try {
+      write(event);
+    } catch (RuntimeException e) {
+      logger.warn("Failed to write business event {}: {}", event.name(), e.getMessage());
+    } finally {
+      pending.decrementAndGet();
+    }
+  }
+
+  private void write(BusinessEvent event) {
+    Map<String, String> previous = callerMdc();
+    setMdc(event.mdc());
+    try {
+      if (event.error()) {
+        // Arguments without a placeholder only become JSON fields
+        BUSINESS_LOGGER.error("Error: {} | Message: {} | Details: {}", v("error", event.name()),
+            v("errorMessage", event.message()), v("details", event.details()),
+            v("eventTime", event.time().toString()), v("eventThread", event.thread()));
+      } else {
+        BUSINESS_LOGGER.info("Event: {} | Details: {}", v("event", event.name()),
+            v("details", event.details()), v("eventTime", event.time().toString()),
+            v("eventThread", event.thread()));
+      }
+    } finally {
+      setMdc(previous);
+    }
+  }
+
+  /**
+   * @return The caller's MDC, or null if it is empty. Logback keeps a read-only snapshot that it
+   * replaces when the MDC changes, so it is shared instead of copied for every event.
+   */
+  private static Map<String, String> callerMdc() {
+    Map<String, String> context = MDC.getMDCAdapter() instanceof LogbackMDCAdapter logback
+        ? logback.getPropertyMap()
+        : MDC.getCopyOfContextMap();
+    return context == null || context.isEmpty() ? null : context;
+  }
+
+  private static void setMdc(Map<String, String> context) {
+    if (context == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(context);
+    }
+  }
+
+  /**
+   * A business event or error waiting to be written, with the time, thread and MDC of the thread
+   * that raised it.
+   */
+  private record BusinessEvent(boolean error, String name, String message,
+      Map<String, Object> details, Instant time, String thread, Map<String, String> mdc) {
+
   }
 }
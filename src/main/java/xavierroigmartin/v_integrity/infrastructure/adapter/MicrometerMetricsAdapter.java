@@ -0,0 +1,51 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import org.springframework.stereotype.Component;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
+
+/**
+ * Implementation of {@link MetricsPort} backed by the Micrometer {@link MeterRegistry}, so every
+ * ledger meter is published through the actuator ({@code /actuator/metrics}).
+ * <p>
+ * Timers publish a percentile histogram, so latency distributions can be aggregated across nodes.
+ */
+@Component
+public class MicrometerMetricsAdapter implements MetricsPort {
+
+  private final MeterRegistry registry;
+
+  public MicrometerMetricsAdapter(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void registerGauge(String name, String description, DoubleSupplier value) {
+    Gauge.builder(name, value, DoubleSupplier::getAsDouble)
+        .description(description)
+        .strongReference(true)
+        .register(registry);
+  }
+
+  @Override
+  public void recordTime(String name, long nanos, String... tags) {
+    Timer.builder(name)
+        .tags(tags)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void increment(String name, double amount, String... tags) {
+    Counter.builder(name)
+        .tags(tags)
+        .register(registry)
+        .increment(amount);
+  }
+}
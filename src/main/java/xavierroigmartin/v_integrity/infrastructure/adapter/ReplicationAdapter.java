@@ -1,45 +1,242 @@
 package xavierroigmartin.v_integrity.infrastructure.adapter;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 import xavierroigmartin.v_integrity.application.port.out.ReplicationPort;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.infrastructure.config.ReplicationProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.ReplicationProperties.WireFormat;
 
 /**
  * Implementation of {@link ReplicationPort} using Spring's {@link RestClient}.
  * <p>
- * Sends HTTP POST requests to peer nodes to propagate blocks.
+ * Sends HTTP POST requests to peer nodes to propagate blocks, in the binary block format unless
+ * {@code wireFormat} is JSON. Each peer has its own bounded
+ * outbound queue drained in order by a dedicated virtual thread, so a commit only pays for
+ * enqueueing and a slow or unreachable follower never delays the others:
+ * <ul>
+ *     <li>Backpressure: enqueueing never blocks, since the ledger does it while holding its writer
+ *     lock. When a peer queue is full the block is dropped for that peer and counted; the
+ *     follower recovers it through sync.</li>
+ *     <li>Retries: failed sends are retried with exponential backoff, up to
+ *     {@code maxAttempts}. Client errors (4xx) are not retried.</li>
+ *     <li>Metrics: queue size, lag in blocks, sent/failed/dropped counters and the
+ *     enqueue-to-delivery latency histogram, tagged by {@code peer}.</li>
+ * </ul>
  */
 @Component
-public class ReplicationAdapter implements ReplicationPort {
+public class ReplicationAdapter implements ReplicationPort, MeterBinder {
 
   private static final Logger logger = LoggerFactory.getLogger(ReplicationAdapter.class);
   private final RestClient restClient;
+  private final ReplicationProperties properties;
+  private final MediaType contentType;
+  private final Map<String, PeerQueue> peers = new ConcurrentHashMap<>();
+  private volatile MeterRegistry registry;
 
-  public ReplicationAdapter(RestClient.Builder builder) {
+  public ReplicationAdapter(RestClient.Builder builder, ReplicationProperties properties) {
     this.restClient = builder.build();
+    this.properties = properties;
+    this.contentType = properties.getWireFormat() == WireFormat.BINARY
+        ? BlockWireHttpMessageConverter.MEDIA_TYPE : MediaType.APPLICATION_JSON;
   }
 
   @Override
   public void replicateBlockToPeers(Block block, List<String> peerBaseUrls) {
     for (String base : peerBaseUrls) {
+      peers.computeIfAbsent(base, this::openQueue).enqueue(block);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.registry = registry;
+    peers.values().forEach(peer -> peer.bindTo(registry));
+  }
+
+  @PreDestroy
+  public void close() {
+    peers.values().forEach(PeerQueue::close);
+  }
+
+  /**
+   * Waits until every queued block has been sent, retried out or dropped.
+   *
+   * @return true if all peer queues became idle before the timeout.
+   */
+  boolean awaitIdle(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (peers.values().stream().anyMatch(peer -> peer.pending.get() > 0)) {
+      if (System.nanoTime() > deadline) {
+        return false;
+      }
+      Thread.sleep(5);
+    }
+    return true;
+  }
+
+  private PeerQueue openQueue(String base) {
+    PeerQueue peer = new PeerQueue(base, properties.getQueueCapacity());
+    MeterRegistry current = registry;
+    if (current != null) {
+      peer.bindTo(current);
+    }
+    return peer;
+  }
+
+  private void send(String base, Block block) {
+    restClient.post()
+        .uri(base + "/api/blocks/receive")
+        .contentType(contentType)
+        .body(block)
+        .retrieve()
+        .toBodilessEntity();
+  }
+
+  /**
+   * Outbound queue of a single peer and the virtual thread draining it.
+   */
+  private final class PeerQueue {
+
+    private final String base;
+    private final BlockingQueue<Queued> queue;
+    private final Thread drainer;
+    // Blocks enqueued but not yet sent, retried out or dropped
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong lastEnqueuedHeight = new AtomicLong(-1);
+    private final AtomicLong lastSentHeight = new AtomicLong(-1);
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Timer latency;
+
+    PeerQueue(String base, int capacity) {
+      this.base = base;
+      this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+      this.drainer = Thread.ofVirtual().name("replication-" + base).start(this::drain);
+    }
+
+    void enqueue(Block block) {
+      pending.incrementAndGet();
+      // Lag is counted from the first block handed to this peer
+      lastSentHeight.compareAndSet(-1, block.height() - 1);
+      lastEnqueuedHeight.accumulateAndGet(block.height(), Math::max);
+      if (!queue.offer(new Queued(block, System.nanoTime()))) {
+        pending.decrementAndGet();
+        dropped.incrementAndGet();
+        logger.warn("Replication queue to {} is full, dropping block height={}", base,
+            block.height());
+      }
+    }
+
+    void close() {
+      drainer.interrupt();
+    }
+
+    private void drain() {
       try {
-        logger.info("Replicating block height={} to peer: {}", block.height(), base);
-        restClient.post()
-            .uri(base + "/api/blocks/receive")
-            .contentType(MediaType.APPLICATION_JSON)
-            .body(block)
-            .retrieve()
-            .toBodilessEntity();
-        logger.debug("Successfully replicated block height={} to {}", block.height(), base);
-      } catch (Exception e) {
-        // PoC: best-effort replication.
-        logger.error("Failed to replicate block height={} to {}: {}", block.height(), base, e.getMessage());
+        while (true) {
+          Queued item = queue.take();
+          try {
+            deliver(item);
+          } finally {
+            pending.decrementAndGet();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void deliver(Queued item) throws InterruptedException {
+      Block block = item.block();
+      long backoffMillis = properties.getInitialBackoff().toMillis();
+      int maxAttempts = Math.max(1, properties.getMaxAttempts());
+      for (int attempt = 1; ; attempt++) {
+        try {
+          logger.info("Replicating block height={} to peer: {}", block.height(), base);
+          send(base, block);
+          sent.incrementAndGet();
+          lastSentHeight.accumulateAndGet(block.height(), Math::max);
+          Timer timer = latency;
+          if (timer != null) {
+            timer.record(System.nanoTime() - item.enqueuedNanos(), TimeUnit.NANOSECONDS);
+          }
+          logger.debug("Successfully replicated block height={} to {}", block.height(), base);
+          return;
+        } catch (RuntimeException e) {
+          boolean clientError = e instanceof RestClientResponseException response
+              && response.getStatusCode().is4xxClientError();
+          if (clientError || attempt >= maxAttempts) {
+            // Best-effort: the follower catches up through sync
+            failed.incrementAndGet();
+            logger.error("Failed to replicate block height={} to {} after {} attempt(s): {}",
+                block.height(), base, attempt, e.getMessage());
+            return;
+          }
+          logger.warn("Replication of block height={} to {} failed (attempt {}), retrying in {} ms",
+              block.height(), base, attempt, backoffMillis);
+          Thread.sleep(backoffMillis);
+          backoffMillis = Math.min(backoffMillis * 2, properties.getMaxBackoff().toMillis());
+        }
       }
     }
+
+    private long lag() {
+      return Math.max(0, lastEnqueuedHeight.get() - lastSentHeight.get());
+    }
+
+    void bindTo(MeterRegistry registry) {
+      Gauge.builder("ledger.replication.queue.size", queue, BlockingQueue::size)
+          .description("Blocks waiting to be sent to a peer")
+          .tag("peer", base)
+          .register(registry);
+      Gauge.builder("ledger.replication.lag", this, PeerQueue::lag)
+          .description("Blocks between the last enqueued and the last delivered height")
+          .baseUnit("blocks")
+          .tag("peer", base)
+          .register(registry);
+      latency = Timer.builder("ledger.replication.latency")
+          .description("Time from enqueueing a block to its delivery to a peer")
+          .tag("peer", base)
+          .publishPercentileHistogram()
+          .register(registry);
+      registerCounter(registry, sent, "sent");
+      registerCounter(registry, failed, "failed");
+      registerCounter(registry, dropped, "dropped");
+    }
+
+    private void registerCounter(MeterRegistry registry, AtomicLong counter, String result) {
+      FunctionCounter.builder("ledger.replication.blocks", counter, AtomicLong::get)
+          .description("Blocks replicated to a peer, by outcome")
+          .tags("peer", base, "result", result)
+          .register(registry);
+    }
+  }
+
+  /**
+   * A block waiting in a peer queue, with the time it was enqueued.
+   */
+  private record Queued(Block block, long enqueuedNanos) {
+
   }
 }
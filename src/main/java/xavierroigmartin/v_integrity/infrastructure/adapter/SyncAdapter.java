@@ -1,23 +1,45 @@
 package xavierroigmartin.v_integrity.infrastructure.adapter;
 
 import java.util.List;
+import java.util.function.Consumer;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import xavierroigmartin.v_integrity.application.port.out.SyncPort;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+import xavierroigmartin.v_integrity.infrastructure.config.ReplicationProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.ReplicationProperties.WireFormat;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.BlockHeaderResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.ChainDigestResponse;
 
 /**
  * Implementation of {@link SyncPort} using Spring's {@link RestClient}.
+ * <p>
+ * Block ranges are requested in the binary block format when {@code ledger.replication.wireFormat}
+ * is BINARY, with JSON as an accepted fallback. Streamed ranges and snapshots are decoded block by
+ * block as the response arrives.
  */
 @Component
 public class SyncAdapter implements SyncPort {
 
   private final RestClient restClient;
+  private final List<MediaType> blockMediaTypes;
+  private final List<MediaType> streamMediaTypes;
+  private final BlockStreamCodec streamCodec;
 
-  public SyncAdapter(RestClient.Builder builder) {
+  public SyncAdapter(RestClient.Builder builder, ReplicationProperties properties,
+      BlockStreamCodec streamCodec) {
     this.restClient = builder.build();
+    this.streamCodec = streamCodec;
+    // Binary first; JSON keeps working against peers that do not offer the binary format
+    this.blockMediaTypes = properties.getWireFormat() == WireFormat.BINARY
+        ? List.of(BlockWireHttpMessageConverter.MEDIA_TYPE, MediaType.APPLICATION_JSON)
+        : List.of(MediaType.APPLICATION_JSON);
+    this.streamMediaTypes = properties.getWireFormat() == WireFormat.BINARY
+        ? List.of(BlockWireHttpMessageConverter.MEDIA_TYPE, MediaType.APPLICATION_NDJSON)
+        : List.of(MediaType.APPLICATION_NDJSON);
   }
 
   @Override
@@ -32,7 +54,54 @@ public class SyncAdapter implements SyncPort {
   public List<Block> getBlocks(String peerUrl, long fromHeight, int limit) {
     return restClient.get()
         .uri(peerUrl + "/api/blocks?fromHeight={fromHeight}&limit={limit}", fromHeight, limit)
+        .accept(blockMediaTypes.toArray(MediaType[]::new))
         .retrieve()
         .body(new ParameterizedTypeReference<List<Block>>() {});
   }
+
+  @Override
+  public long streamBlocks(String peerUrl, long fromHeight, long toHeight,
+      Consumer<Block> consumer) {
+    return stream(peerUrl, consumer,
+        "/api/blocks/stream?fromHeight={fromHeight}&toHeight={toHeight}", fromHeight, toHeight);
+  }
+
+  @Override
+  public List<Checkpoint> getSnapshots(String peerUrl) {
+    return restClient.get()
+        .uri(peerUrl + "/api/snapshots")
+        .retrieve()
+        .body(new ParameterizedTypeReference<List<Checkpoint>>() {});
+  }
+
+  @Override
+  public long streamSnapshot(String peerUrl, long height, long fromHeight,
+      Consumer<Block> consumer) {
+    return stream(peerUrl, consumer, "/api/snapshots/{height}?fromHeight={fromHeight}", height,
+        fromHeight);
+  }
+
+  @Override
+  public ChainDigestResponse getChainDigest(String peerUrl, long height) {
+    return restClient.get()
+        .uri(peerUrl + "/api/chain/digest?height={height}", height)
+        .retrieve()
+        .body(ChainDigestResponse.class);
+  }
+
+  private long stream(String peerUrl, Consumer<Block> consumer, String path,
+      Object... uriVariables) {
+    Long count = restClient.get()
+        .uri(peerUrl + path, uriVariables)
+        .accept(streamMediaTypes.toArray(MediaType[]::new))
+        .exchange((request, response) -> {
+          if (response.getStatusCode().isError()) {
+            throw new IllegalStateException("Block stream from " + peerUrl + " failed with status "
+                + response.getStatusCode().value());
+          }
+          return streamCodec.read(response.getBody(), response.getHeaders().getContentType(),
+              consumer);
+        });
+    return count == null ? 0 : count;
+  }
 }
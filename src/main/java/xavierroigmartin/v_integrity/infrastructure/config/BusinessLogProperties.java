@@ -0,0 +1,52 @@
+package xavierroigmartin.v_integrity.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the asynchronous business event log.
+ * <p>
+ * Maps properties starting with "ledger.business-log" from application.yaml/properties.
+ */
+@ConfigurationProperties(prefix = "ledger.business-log")
+public class BusinessLogProperties {
+
+  /**
+   * Maximum number of business events waiting to be written.
+   */
+  private int queueCapacity = 8192;
+
+  /**
+   * What a caller does when the queue is full: drop the event (and count it) or wait for room.
+   */
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Behaviour of a full business event queue.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Never delay the caller; the event is lost and counted.
+     */
+    DROP,
+    /**
+     * Wait until the writer makes room; no event is lost.
+     */
+    BLOCK
+  }
+}
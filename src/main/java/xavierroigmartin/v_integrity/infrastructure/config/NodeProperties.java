@@ -40,6 +40,11 @@ public class NodeProperties implements NodeConfigurationPort {
      */
     private Map<String, String> allowedNodePublicKeys = Map.of();
 
+    /**
+     * Blocks between two signed chain checkpoints (0 disables them).
+     */
+    private int checkpointInterval = 1000;
+
     @Override
     public String getNodeId() { return nodeId; }
     public void setNodeId(String nodeId) { this.nodeId = nodeId; }
@@ -59,4 +64,8 @@ public class NodeProperties implements NodeConfigurationPort {
     @Override
     public Map<String, String> getAllowedNodePublicKeys() { return allowedNodePublicKeys; }
     public void setAllowedNodePublicKeys(Map<String, String> allowedNodePublicKeys) { this.allowedNodePublicKeys = allowedNodePublicKeys; }
+
+    @Override
+    public int getCheckpointInterval() { return checkpointInterval; }
+    public void setCheckpointInterval(int checkpointInterval) { this.checkpointInterval = checkpointInterval; }
 }
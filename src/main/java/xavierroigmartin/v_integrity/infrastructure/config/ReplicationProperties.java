@@ -0,0 +1,88 @@
+package xavierroigmartin.v_integrity.infrastructure.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for block replication to peers.
+ * <p>
+ * Maps properties starting with "ledger.replication" from application.yaml/properties.
+ */
+@ConfigurationProperties(prefix = "ledger.replication")
+public class ReplicationProperties {
+
+  /**
+   * Maximum number of blocks waiting to be sent to a single peer. Blocks committed while the queue
+   * is full are dropped for that peer (the follower then recovers them through sync).
+   */
+  private int queueCapacity = 1024;
+
+  /**
+   * Attempts per block and peer, including the first one. Client errors (4xx) are not retried.
+   */
+  private int maxAttempts = 5;
+
+  /**
+   * Delay before the first retry. It doubles on every further retry.
+   */
+  private Duration initialBackoff = Duration.ofMillis(200);
+
+  /**
+   * Upper bound of the retry delay.
+   */
+  private Duration maxBackoff = Duration.ofSeconds(5);
+
+  /**
+   * Format of the blocks sent to peers and requested from them during sync. Use JSON while some
+   * peers do not support the binary format yet.
+   */
+  private WireFormat wireFormat = WireFormat.BINARY;
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public Duration getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  public void setInitialBackoff(Duration initialBackoff) {
+    this.initialBackoff = initialBackoff;
+  }
+
+  public Duration getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  public void setMaxBackoff(Duration maxBackoff) {
+    this.maxBackoff = maxBackoff;
+  }
+
+  public WireFormat getWireFormat() {
+    return wireFormat;
+  }
+
+  public void setWireFormat(WireFormat wireFormat) {
+    this.wireFormat = wireFormat;
+  }
+
+  /**
+   * Encoding of blocks exchanged between nodes.
+   */
+  public enum WireFormat {
+    BINARY,
+    JSON
+  }
+}
@@ -3,16 +3,21 @@ package xavierroigmartin.v_integrity.infrastructure.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
+import xavierroigmartin.v_integrity.infrastructure.adapter.BlockWireHttpMessageConverter;
 
 /**
  * Configuration for RestClient.
- * Ensures a RestClient.Builder bean is available for injection.
+ * Ensures a RestClient.Builder bean is available for injection, able to read and write the binary
+ * block format in addition to the default converters.
  */
 @Configuration
 public class RestClientConfig {
 
   @Bean
-  public RestClient.Builder restClientBuilder() {
-    return RestClient.builder();
+  public RestClient.Builder restClientBuilder(BlockWireHttpMessageConverter blockWireConverter) {
+    return RestClient.builder()
+        .configureMessageConverters(converters -> converters
+            .registerDefaults()
+            .addCustomConverter(blockWireConverter));
   }
 }
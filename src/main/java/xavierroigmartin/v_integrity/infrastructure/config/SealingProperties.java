@@ -0,0 +1,80 @@
+package xavierroigmartin.v_integrity.infrastructure.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for automatic block sealing on the leader.
+ * <p>
+ * Maps properties starting with "ledger.sealing" from application.yaml/properties.
+ */
+@ConfigurationProperties(prefix = "ledger.sealing")
+public class SealingProperties {
+
+  /**
+   * True to seal blocks in the background. When false blocks are only created through
+   * {@code POST /api/blocks/commit}.
+   */
+  private boolean enabled;
+
+  /**
+   * Pending evidences that trigger a block. Also the maximum number of evidences per block.
+   */
+  private int maxEvidences = 500;
+
+  /**
+   * Estimated size (bytes) of pending evidences that triggers a block. Also the maximum size of
+   * the evidences of one block.
+   */
+  private long maxBytes = 1024L * 1024;
+
+  /**
+   * Maximum time an evidence waits in the mempool before a block is sealed anyway.
+   */
+  private Duration maxLatency = Duration.ofSeconds(1);
+
+  /**
+   * How often the sealer checks the mempool.
+   */
+  private Duration pollInterval = Duration.ofMillis(20);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getMaxEvidences() {
+    return maxEvidences;
+  }
+
+  public void setMaxEvidences(int maxEvidences) {
+    this.maxEvidences = maxEvidences;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public void setMaxBytes(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  public Duration getMaxLatency() {
+    return maxLatency;
+  }
+
+  public void setMaxLatency(Duration maxLatency) {
+    this.maxLatency = maxLatency;
+  }
+
+  public Duration getPollInterval() {
+    return pollInterval;
+  }
+
+  public void setPollInterval(Duration pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+}
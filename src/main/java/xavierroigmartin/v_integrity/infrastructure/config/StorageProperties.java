@@ -0,0 +1,85 @@
+package xavierroigmartin.v_integrity.infrastructure.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the on-disk block log.
+ * <p>
+ * Maps properties starting with "ledger.storage" from application.yaml/properties.
+ * <p>
+ * Durability: appends are fsynced in groups. On the leader, a sealed block is only replicated and
+ * acknowledged to the client once the fsync covering it has completed, so a power loss can only
+ * lose blocks nobody else has seen and cannot fork the chain. The leader closes a group as soon as
+ * no further block is waiting to be appended, or when {@link #groupCommitBlocks} is reached.
+ * Followers acknowledge replicated blocks before their group fsync; blocks lost by a follower are
+ * fetched again from its peers on restart.
+ */
+@ConfigurationProperties(prefix = "ledger.storage")
+public class StorageProperties {
+
+  /**
+   * True to persist the chain on disk. When false the chain only lives in memory.
+   */
+  private boolean enabled;
+
+  /**
+   * Directory holding the segment and index files.
+   */
+  private String directory = "./data";
+
+  /**
+   * Size (bytes) after which the active segment is sealed and a new one is started.
+   */
+  private long segmentSizeBytes = 64L * 1024 * 1024;
+
+  /**
+   * Number of appended blocks after which the log is fsynced.
+   */
+  private int groupCommitBlocks = 32;
+
+  /**
+   * Maximum time an appended block may wait before the log is fsynced.
+   */
+  private Duration groupCommitInterval = Duration.ofMillis(200);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+
+  public long getSegmentSizeBytes() {
+    return segmentSizeBytes;
+  }
+
+  public void setSegmentSizeBytes(long segmentSizeBytes) {
+    this.segmentSizeBytes = segmentSizeBytes;
+  }
+
+  public int getGroupCommitBlocks() {
+    return groupCommitBlocks;
+  }
+
+  public void setGroupCommitBlocks(int groupCommitBlocks) {
+    this.groupCommitBlocks = groupCommitBlocks;
+  }
+
+  public Duration getGroupCommitInterval() {
+    return groupCommitInterval;
+  }
+
+  public void setGroupCommitInterval(Duration groupCommitInterval) {
+    this.groupCommitInterval = groupCommitInterval;
+  }
+}
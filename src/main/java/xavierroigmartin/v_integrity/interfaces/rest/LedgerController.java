@@ -5,28 +5,51 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
+import xavierroigmartin.v_integrity.application.ChainValidationService;
+import xavierroigmartin.v_integrity.application.EvidenceAttributeIndex.Attribute;
 import xavierroigmartin.v_integrity.application.LedgerService;
+import xavierroigmartin.v_integrity.application.LedgerService.SubmissionResult;
 import xavierroigmartin.v_integrity.application.SyncService;
 import xavierroigmartin.v_integrity.application.port.out.CryptoPort;
 import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
 import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.domain.HexCodec;
+import xavierroigmartin.v_integrity.infrastructure.adapter.BlockStreamCodec;
+import xavierroigmartin.v_integrity.infrastructure.adapter.BlockWireHttpMessageConverter;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.BlockHeaderResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.ChainDigestResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.DigestComparisonResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.EvidenceBatchResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.EvidencePageResponse;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.EvidenceRequest;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.SyncRequest;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.SyncResponse;
@@ -52,14 +75,24 @@ public class LedgerController {
 
   private final LedgerService ledger;
   private final SyncService syncService;
+  private final ChainValidationService validation;
   private final CryptoPort crypto;
   private final NodeConfigurationPort nodeConfig;
+  private final BlockStreamCodec blockStreams;
+  private final JsonMapper jsonMapper;
+  private final Validator validator;
 
-  public LedgerController(LedgerService ledger, SyncService syncService, CryptoPort crypto, NodeConfigurationPort nodeConfig) {
+  public LedgerController(LedgerService ledger, SyncService syncService,
+      ChainValidationService validation, CryptoPort crypto, NodeConfigurationPort nodeConfig,
+      BlockStreamCodec blockStreams, JsonMapper jsonMapper, Validator validator) {
     this.ledger = ledger;
     this.syncService = syncService;
+    this.validation = validation;
     this.crypto = crypto;
     this.nodeConfig = nodeConfig;
+    this.blockStreams = blockStreams;
+    this.jsonMapper = jsonMapper;
+    this.validator = validator;
   }
 
   /**
@@ -71,7 +104,45 @@ public class LedgerController {
   @ApiResponse(responseCode = "200", description = "Chain retrieved successfully")
   @GetMapping("/chain")
   public Map<String, Object> chain() {
-    return Map.of("length", ledger.chain().size(), "chain", ledger.chain());
+    List<Block> chain = ledger.chain();
+    return Map.of("length", chain.size(), "chain", chain);
+  }
+
+  /**
+   * Retrieves the running chain digest, which commits to every block hash up to a height.
+   * Peers compare digests to check that their chains agree without transferring blocks.
+   *
+   * @param height Optional height; the latest block if absent.
+   * @return The chain digest, or 404 if the height is past the tip.
+   */
+  @Operation(summary = "Get Chain Digest", description = "Returns the running chain digest at a height (latest block by default).")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "Digest returned"),
+      @ApiResponse(responseCode = "404", description = "Height is past the tip")
+  })
+  @GetMapping("/chain/digest")
+  public ResponseEntity<ChainDigestResponse> chainDigest(
+      @Parameter(description = "Height of the digest (latest block if absent)")
+      @RequestParam(required = false) Long height) {
+    Optional<LedgerService.ChainDigest> digest = height == null
+        ? Optional.of(ledger.digest())
+        : ledger.digestAt(height);
+    return digest
+        .map(d -> ResponseEntity.ok(new ChainDigestResponse(d.height(), d.blockHash(),
+            d.accumulator())))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Lists the checkpoints recorded by this node.
+   *
+   * @return The checkpoints, newest first.
+   */
+  @Operation(summary = "Get Checkpoints", description = "Lists the chain checkpoints recorded by this node, newest first.")
+  @ApiResponse(responseCode = "200", description = "Checkpoints returned")
+  @GetMapping("/chain/checkpoints")
+  public List<Checkpoint> checkpoints() {
+    return ledger.checkpoints();
   }
 
   /**
@@ -94,20 +165,91 @@ public class LedgerController {
 
   /**
    * Retrieves a range of blocks.
-   * Used by peers during synchronization.
+   * Used by peers during synchronization. Served as JSON unless the client accepts the binary
+   * block format ({@value BlockWireHttpMessageConverter#MEDIA_TYPE_VALUE}).
    *
    * @param fromHeight Starting height (inclusive).
    * @param limit      Max number of blocks (default 100).
    * @return List of blocks.
    */
   @Operation(summary = "Get Blocks Range", description = "Returns a list of blocks starting from a specific height.")
-  @GetMapping("/blocks")
+  @GetMapping(value = "/blocks", produces = {MediaType.APPLICATION_JSON_VALUE,
+      BlockWireHttpMessageConverter.MEDIA_TYPE_VALUE})
   public List<Block> getBlocks(
       @RequestParam(defaultValue = "0") long fromHeight,
       @RequestParam(defaultValue = "100") int limit) {
     return ledger.getBlocksFromHeight(fromHeight, limit);
   }
 
+  /**
+   * Streams a range of blocks without a page limit.
+   * <p>
+   * Blocks are written one by one from a snapshot view of the chain, so memory use does not grow
+   * with the length of the range. The response is NDJSON unless the client accepts the binary
+   * block format ({@value BlockWireHttpMessageConverter#MEDIA_TYPE_VALUE}), in which case it is a
+   * stream of length-prefixed binary frames.
+   *
+   * @param fromHeight Starting height (inclusive).
+   * @param toHeight   Last height (inclusive). Defaults to the chain tip.
+   * @param accept     The Accept header, used to pick the encoding.
+   * @return The streamed blocks.
+   */
+  @Operation(summary = "Stream Blocks", description = "Streams a range of blocks as NDJSON or binary frames, without a page limit.")
+  @GetMapping(value = "/blocks/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE,
+      BlockWireHttpMessageConverter.MEDIA_TYPE_VALUE})
+  public ResponseEntity<StreamingResponseBody> streamBlocks(
+      @RequestParam(defaultValue = "0") long fromHeight,
+      @RequestParam(required = false) Long toHeight,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    List<Block> range = ledger.blocksBetween(fromHeight,
+        toHeight == null ? Long.MAX_VALUE : toHeight);
+    MediaType mediaType = blockStreamMediaType(accept);
+    StreamingResponseBody body = out -> blockStreams.write(range, mediaType, out);
+    return ResponseEntity.ok().contentType(mediaType).body(body);
+  }
+
+  /**
+   * Lists the snapshots this node can serve, i.e. its signed checkpoints.
+   *
+   * @return The snapshot checkpoints, newest first.
+   */
+  @Operation(summary = "List Snapshots", description = "Lists the signed checkpoints whose chain prefix can be downloaded as a snapshot, newest first.")
+  @ApiResponse(responseCode = "200", description = "Snapshots returned")
+  @GetMapping("/snapshots")
+  public List<Checkpoint> snapshots() {
+    return ledger.snapshots();
+  }
+
+  /**
+   * Downloads a snapshot: the blocks up to a signed checkpoint, in the same encodings as
+   * {@link #streamBlocks(long, Long, String)}. A new follower verifies the checkpoint signature
+   * once instead of every block signature.
+   *
+   * @param height     The snapshot height.
+   * @param fromHeight First block to send (the blocks the caller already holds can be skipped).
+   * @param accept     The Accept header, used to pick the encoding.
+   * @return The streamed blocks, or 404 if there is no snapshot at that height.
+   */
+  @Operation(summary = "Download Snapshot", description = "Streams the blocks up to a signed checkpoint as NDJSON or binary frames.")
+  @ApiResponses({
+      @ApiResponse(responseCode = "200", description = "Snapshot streamed"),
+      @ApiResponse(responseCode = "404", description = "No snapshot at that height")
+  })
+  @GetMapping(value = "/snapshots/{height}", produces = {MediaType.APPLICATION_NDJSON_VALUE,
+      BlockWireHttpMessageConverter.MEDIA_TYPE_VALUE})
+  public ResponseEntity<StreamingResponseBody> downloadSnapshot(
+      @Parameter(description = "Height of the snapshot") @PathVariable long height,
+      @RequestParam(defaultValue = "0") long fromHeight,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    if (ledger.snapshotAt(height).isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    List<Block> range = ledger.blocksBetween(fromHeight, height);
+    MediaType mediaType = blockStreamMediaType(accept);
+    StreamingResponseBody body = out -> blockStreams.write(range, mediaType, out);
+    return ResponseEntity.ok().contentType(mediaType).body(body);
+  }
+
   /**
    * Triggers a manual synchronization process.
    *
@@ -121,6 +263,20 @@ public class LedgerController {
     return syncService.synchronize(peerUrl);
   }
 
+  /**
+   * Compares the local chain with a peer's by their chain digests at the lower of both tips.
+   *
+   * @param peerUrl Optional peer URL; the first configured peer if absent.
+   * @return The result of the comparison.
+   */
+  @Operation(summary = "Compare With Peer", description = "Checks that the local chain and a peer's chain agree, by comparing chain digests.")
+  @GetMapping("/sync/compare")
+  public DigestComparisonResponse compareWithPeer(
+      @Parameter(description = "Peer base URL (first configured peer if absent)")
+      @RequestParam(required = false) String peerUrl) {
+    return syncService.compareDigest(peerUrl);
+  }
+
   /**
    * Retrieves the current mempool (pending evidences).
    *
@@ -147,7 +303,92 @@ public class LedgerController {
   @PostMapping("/evidences")
   @ResponseStatus(HttpStatus.CREATED)
   public Map<String, Object> submitEvidence(@Valid @RequestBody EvidenceRequest req) {
-    EvidenceRecord evidence = new EvidenceRecord(
+    EvidenceRecord stored = ledger.submitEvidence(toEvidence(req));
+    return Map.of("evidence", stored);
+  }
+
+  /**
+   * Endpoint for submitting many evidences at once, as a JSON array.
+   * <p>
+   * Entries are validated one by one: invalid or duplicate entries are reported in the results
+   * and do not prevent the others from entering the mempool.
+   *
+   * @param requests The evidence requests (at most {@value LedgerService#MAX_BATCH_SIZE} valid
+   *                 ones).
+   * @return The per-entry results.
+   */
+  @Operation(summary = "Submit Evidence Batch", description = "Registers many evidences in the mempool, sent as a JSON array.")
+  @ApiResponse(responseCode = "200", description = "Batch processed; see the per-entry results")
+  @PostMapping(value = "/evidences/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public EvidenceBatchResponse submitEvidenceBatch(@RequestBody List<EvidenceRequest> requests) {
+    return submitBatch(requests);
+  }
+
+  /**
+   * Endpoint for submitting many evidences at once, as NDJSON (one evidence request per line).
+   * <p>
+   * Lines are read one at a time, and reading stops as soon as the batch exceeds
+   * {@value LedgerService#MAX_BATCH_SIZE} evidences.
+   *
+   * @param body The request body.
+   * @return The per-entry results.
+   */
+  @Operation(summary = "Submit Evidence Stream", description = "Registers many evidences in the mempool, sent as NDJSON (one evidence per line).")
+  @ApiResponse(responseCode = "200", description = "Batch processed; see the per-entry results")
+  @PostMapping(value = "/evidences/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public EvidenceBatchResponse submitEvidenceStream(InputStream body) {
+    List<EvidenceRequest> requests = new ArrayList<>();
+    try (MappingIterator<EvidenceRequest> lines =
+        jsonMapper.readerFor(EvidenceRequest.class).readValues(body)) {
+      while (lines.hasNextValue()) {
+        if (requests.size() == LedgerService.MAX_BATCH_SIZE) {
+          throw new IllegalArgumentException(
+              "A batch holds at most " + LedgerService.MAX_BATCH_SIZE + " evidences");
+        }
+        requests.add(lines.nextValue());
+      }
+    }
+    return submitBatch(requests);
+  }
+
+  private EvidenceBatchResponse submitBatch(List<EvidenceRequest> requests) {
+    // The batch size limit is enforced by LedgerService#submitEvidences
+    EvidenceBatchResponse.Item[] items = new EvidenceBatchResponse.Item[requests.size()];
+    List<EvidenceRecord> valid = new ArrayList<>(requests.size());
+    List<Integer> validIndexes = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      EvidenceRequest req = requests.get(i);
+      String violations = req == null ? "Empty entry" : validator.validate(req).stream()
+          .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+          .sorted()
+          .collect(Collectors.joining("; "));
+      if (violations.isEmpty()) {
+        valid.add(toEvidence(req));
+        validIndexes.add(i);
+      } else {
+        items[i] = new EvidenceBatchResponse.Item(i, false, null, null, violations);
+      }
+    }
+
+    List<SubmissionResult> results = ledger.submitEvidences(valid);
+    int accepted = 0;
+    for (int j = 0; j < results.size(); j++) {
+      int i = validIndexes.get(j);
+      SubmissionResult result = results.get(j);
+      if (result.accepted()) {
+        accepted++;
+        items[i] = new EvidenceBatchResponse.Item(i, true, result.evidence().evidenceId(),
+            result.evidence().hash(), null);
+      } else {
+        items[i] = new EvidenceBatchResponse.Item(i, false, null, null, result.error());
+      }
+    }
+    return new EvidenceBatchResponse(items.length, accepted, items.length - accepted,
+        List.of(items));
+  }
+
+  private static EvidenceRecord toEvidence(EvidenceRequest req) {
+    return new EvidenceRecord(
         null,
         req.homologationId(),
         req.testRunId(),
@@ -161,8 +402,6 @@ public class LedgerController {
         req.standards(),
         null
     );
-    EvidenceRecord stored = ledger.submitEvidence(evidence);
-    return Map.of("evidence", stored);
   }
 
   /**
@@ -185,7 +424,8 @@ public class LedgerController {
   }
 
   /**
-   * Endpoint for receiving blocks replicated from other nodes.
+   * Endpoint for receiving blocks replicated from other nodes, as JSON or in the binary block
+   * format.
    *
    * @param incoming The block received from a peer.
    * @return A map indicating acceptance and the block height.
@@ -195,7 +435,8 @@ public class LedgerController {
       @ApiResponse(responseCode = "202", description = "Block accepted"),
       @ApiResponse(responseCode = "400", description = "Invalid block (hash mismatch, bad signature)")
   })
-  @PostMapping("/blocks/receive")
+  @PostMapping(value = "/blocks/receive", consumes = {MediaType.APPLICATION_JSON_VALUE,
+      BlockWireHttpMessageConverter.MEDIA_TYPE_VALUE})
   @ResponseStatus(HttpStatus.ACCEPTED)
   public Map<String, Object> receive(@RequestBody Block incoming) {
     ledger.acceptReplicatedBlock(incoming);
@@ -203,15 +444,52 @@ public class LedgerController {
   }
 
   /**
-   * Validates the integrity of the local blockchain.
+   * Validates the integrity of the local blockchain and waits for the result.
+   * <p>
+   * By default only the blocks appended since the last successful validation are checked. In
+   * quick mode only the blocks after the latest trusted checkpoint are checked.
    *
-   * @return A map with "valid": true/false.
+   * @param full  true to re-check the whole chain.
+   * @param quick true to check from the latest trusted checkpoint (ignored if full).
+   * @return The validation result ("valid": true/false plus the checked range).
    */
-  @Operation(summary = "Validate Chain", description = "Checks the cryptographic integrity of the local chain.")
+  @Operation(summary = "Validate Chain", description = "Checks the cryptographic integrity of the local chain (incremental unless full=true, from the latest trusted checkpoint if quick=true).")
   @ApiResponse(responseCode = "200", description = "Validation result returned")
   @GetMapping("/validate")
-  public Map<String, Object> validate() {
-    return Map.of("valid", ledger.isValidLocalChain());
+  public ChainValidationService.ValidationStatus validate(
+      @Parameter(description = "Re-check the whole chain instead of only new blocks")
+      @RequestParam(defaultValue = "false") boolean full,
+      @Parameter(description = "Only check the blocks after the latest trusted checkpoint")
+      @RequestParam(defaultValue = "false") boolean quick) {
+    return quick && !full ? validation.validateFromCheckpoint() : validation.validate(full);
+  }
+
+  /**
+   * Starts a chain validation in the background.
+   *
+   * @param full true to re-check the whole chain.
+   * @return The status of the started (or already running) validation.
+   */
+  @Operation(summary = "Start Chain Validation", description = "Starts a background validation; poll /api/validate/status for progress.")
+  @ApiResponse(responseCode = "202", description = "Validation started or already running")
+  @PostMapping("/validate")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ChainValidationService.ValidationStatus startValidation(
+      @Parameter(description = "Re-check the whole chain instead of only new blocks")
+      @RequestParam(defaultValue = "false") boolean full) {
+    return validation.startValidation(full);
+  }
+
+  /**
+   * Reports the progress of the running validation, or the result of the last one.
+   *
+   * @return The validation status.
+   */
+  @Operation(summary = "Chain Validation Status", description = "Progress of the running validation or result of the last one.")
+  @ApiResponse(responseCode = "200", description = "Status returned")
+  @GetMapping("/validate/status")
+  public ChainValidationService.ValidationStatus validationStatus() {
+    return validation.status();
   }
 
   /**
@@ -233,6 +511,78 @@ public class LedgerController {
     )).orElseGet(() -> Map.of("found", false));
   }
 
+  /**
+   * Paged query of committed evidences by homologation process.
+   *
+   * @param homologationId The homologation identifier.
+   * @param page           Zero-based page number.
+   * @param size           Page size (max 500).
+   * @return One page of matching evidences.
+   */
+  @Operation(summary = "Find Evidences by Homologation", description = "Paged lookup of committed evidences by homologationId.")
+  @ApiResponse(responseCode = "200", description = "Page returned")
+  @GetMapping("/evidences/homologation/{homologationId}")
+  public EvidencePageResponse findByHomologation(
+      @Parameter(description = "Homologation identifier") @PathVariable String homologationId,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    return evidencePage(Attribute.HOMOLOGATION_ID, homologationId, page, size);
+  }
+
+  /**
+   * Paged query of committed evidences by test run.
+   *
+   * @param testRunId The test run identifier.
+   * @param page      Zero-based page number.
+   * @param size      Page size (max 500).
+   * @return One page of matching evidences.
+   */
+  @Operation(summary = "Find Evidences by Test Run", description = "Paged lookup of committed evidences by testRunId.")
+  @ApiResponse(responseCode = "200", description = "Page returned")
+  @GetMapping("/evidences/test-run/{testRunId}")
+  public EvidencePageResponse findByTestRun(
+      @Parameter(description = "Test run identifier") @PathVariable String testRunId,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    return evidencePage(Attribute.TEST_RUN_ID, testRunId, page, size);
+  }
+
+  /**
+   * Paged query of committed evidences by creator.
+   *
+   * @param createdBy The user or system that created the evidences.
+   * @param page      Zero-based page number.
+   * @param size      Page size (max 500).
+   * @return One page of matching evidences.
+   */
+  @Operation(summary = "Find Evidences by Creator", description = "Paged lookup of committed evidences by createdBy.")
+  @ApiResponse(responseCode = "200", description = "Page returned")
+  @GetMapping("/evidences/created-by/{createdBy}")
+  public EvidencePageResponse findByCreator(
+      @Parameter(description = "User or system that created the evidence") @PathVariable String createdBy,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    return evidencePage(Attribute.CREATED_BY, createdBy, page, size);
+  }
+
+  /**
+   * Paged query of committed evidences by compliance standard.
+   *
+   * @param standard The standard (e.g., "ISO-27001").
+   * @param page     Zero-based page number.
+   * @param size     Page size (max 500).
+   * @return One page of matching evidences.
+   */
+  @Operation(summary = "Find Evidences by Standard", description = "Paged lookup of committed evidences listing a given standard.")
+  @ApiResponse(responseCode = "200", description = "Page returned")
+  @GetMapping("/evidences/standard/{standard}")
+  public EvidencePageResponse findByStandard(
+      @Parameter(description = "Compliance standard") @PathVariable String standard,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    return evidencePage(Attribute.STANDARD, standard, page, size);
+  }
+
   /**
    * Verification by hash: returns an audit-oriented proof.
    *
@@ -263,6 +613,20 @@ public class LedgerController {
     );
   }
 
+  private EvidencePageResponse evidencePage(Attribute attribute, String value, int page, int size) {
+    LedgerService.EvidencePage result = ledger.findEvidences(attribute, value, page, size);
+    long totalPages = (result.totalElements() + size - 1) / size;
+    return new EvidencePageResponse(
+        attribute.name(),
+        value,
+        result.page(),
+        result.size(),
+        result.totalElements(),
+        totalPages,
+        result.evidences()
+    );
+  }
+
   private Map<String, Object> proofFrom(LedgerService.EvidenceProof ep) {
     Block b = ep.block();
 
@@ -270,25 +634,39 @@ public class LedgerController {
     String pubKey = nodeConfig.getAllowedNodePublicKeys().get(b.proposerNodeId());
     boolean signatureValid = false;
     if (pubKey != null && !pubKey.isBlank() && !"GENESIS".equals(b.proposerNodeId())) {
-      signatureValid = crypto.verifyEd25519(hexToBytes(b.hash()), b.signature(), pubKey);
+      signatureValid = crypto.verifyEd25519(HexCodec.decode(b.hash()), b.signature(), pubKey);
     }
 
-    return Map.of(
-        "blockHeight", b.height(),
-        "blockTimestamp", b.timestamp().toString(),
-        "blockHash", b.hash(),
-        "previousHash", b.previousHash(),
-        "signedBy", b.proposerNodeId(),
-        "signatureValid", signatureValid
-    );
+    Map<String, Object> proof = new LinkedHashMap<>();
+    proof.put("blockHeight", b.height());
+    proof.put("blockTimestamp", b.timestamp().toString());
+    proof.put("blockHash", b.hash());
+    proof.put("previousHash", b.previousHash());
+    proof.put("signedBy", b.proposerNodeId());
+    proof.put("signatureValid", signatureValid);
+    proof.put("blockVersion", b.version());
+
+    // Version 2 blocks: O(log n) path from the evidence leaf to the signed Merkle root
+    ledger.inclusionProof(ep).ifPresent(inclusion -> {
+      proof.put("merkleRoot", inclusion.merkleRoot());
+      proof.put("inclusion", inclusion);
+    });
+    return proof;
   }
 
-  private static byte[] hexToBytes(String hex) {
-    int len = hex.length();
-    byte[] out = new byte[len / 2];
-    for (int i = 0; i < len; i += 2) {
-      out[i / 2] = (byte) Integer.parseInt(hex.substring(i, i + 2), 16);
+  private static MediaType blockStreamMediaType(String accept) {
+    double binaryQuality = 0;
+    double ndjsonQuality = 0;
+    if (accept != null && !accept.isBlank()) {
+      for (MediaType type : MediaType.parseMediaTypes(accept)) {
+        if (type.equalsTypeAndSubtype(BlockWireHttpMessageConverter.MEDIA_TYPE)) {
+          binaryQuality = Math.max(binaryQuality, type.getQualityValue());
+        } else if (type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)) {
+          ndjsonQuality = Math.max(ndjsonQuality, type.getQualityValue());
+        }
+      }
     }
-    return out;
+    return binaryQuality > 0 && binaryQuality >= ndjsonQuality
+        ? BlockWireHttpMessageConverter.MEDIA_TYPE : MediaType.APPLICATION_NDJSON;
   }
 }
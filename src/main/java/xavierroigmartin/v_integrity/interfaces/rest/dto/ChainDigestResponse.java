@@ -0,0 +1,15 @@
+package xavierroigmartin.v_integrity.interfaces.rest.dto;
+
+/**
+ * Running digest of a node's chain at a height.
+ * Used to compare whole chain prefixes between nodes without transferring blocks.
+ *
+ * @param height      Block height.
+ * @param blockHash   Hash of the block at that height.
+ * @param accumulator Chain digest up to that height (lowercase hex).
+ */
+public record ChainDigestResponse(
+    long height,
+    String blockHash,
+    String accumulator
+) {}
@@ -0,0 +1,24 @@
+package xavierroigmartin.v_integrity.interfaces.rest.dto;
+
+/**
+ * Response DTO for the comparison of the local chain with a peer's.
+ *
+ * @param peerUrl           The peer compared with.
+ * @param height            The height compared (the lower of both tips).
+ * @param matches           True if both chains are identical up to that height.
+ * @param localAccumulator  Local chain digest at that height.
+ * @param remoteAccumulator Peer chain digest at that height.
+ * @param localHeight       Height of the local tip.
+ * @param remoteHeight      Height of the peer tip.
+ * @param reason            Error message if the peer could not be queried.
+ */
+public record DigestComparisonResponse(
+    String peerUrl,
+    long height,
+    boolean matches,
+    String localAccumulator,
+    String remoteAccumulator,
+    long localHeight,
+    long remoteHeight,
+    String reason
+) {}
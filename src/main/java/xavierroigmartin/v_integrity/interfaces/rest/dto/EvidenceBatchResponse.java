@@ -0,0 +1,36 @@
+package xavierroigmartin.v_integrity.interfaces.rest.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for batch evidence submissions.
+ *
+ * @param submitted Number of entries in the batch.
+ * @param accepted  Number of entries added to the mempool.
+ * @param rejected  Number of rejected entries.
+ * @param results   One result per entry, in request order.
+ */
+public record EvidenceBatchResponse(
+    int submitted,
+    int accepted,
+    int rejected,
+    List<Item> results
+) {
+
+  /**
+   * Outcome of one batch entry.
+   *
+   * @param index      Zero-based position of the entry in the batch.
+   * @param accepted   True if the evidence entered the mempool.
+   * @param evidenceId Id assigned to the evidence, if accepted.
+   * @param hash       Normalized hash of the evidence, if accepted.
+   * @param error      Why the entry was rejected, if it was.
+   */
+  public record Item(
+      int index,
+      boolean accepted,
+      String evidenceId,
+      String hash,
+      String error
+  ) {}
+}
@@ -0,0 +1,25 @@
+package xavierroigmartin.v_integrity.interfaces.rest.dto;
+
+import java.util.List;
+import xavierroigmartin.v_integrity.application.LedgerService.LocatedEvidence;
+
+/**
+ * Response DTO for paged evidence queries (by homologation, test run, creator or standard).
+ *
+ * @param attribute     The attribute used as filter (e.g., "HOMOLOGATION_ID").
+ * @param value         The attribute value searched for.
+ * @param page          Zero-based page number.
+ * @param size          Requested page size.
+ * @param totalElements Total number of matching evidences.
+ * @param totalPages    Total number of pages for the requested size.
+ * @param evidences     Matching evidences on this page, with the block that anchors each one.
+ */
+public record EvidencePageResponse(
+    String attribute,
+    String value,
+    int page,
+    int size,
+    long totalElements,
+    long totalPages,
+    List<LocatedEvidence> evidences
+) {}
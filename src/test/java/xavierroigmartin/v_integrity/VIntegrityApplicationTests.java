@@ -3,7 +3,8 @@ package xavierroigmartin.v_integrity;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Keeps the block log of the default profile out of the working tree
+@SpringBootTest(properties = "ledger.storage.enabled=false")
 class VIntegrityApplicationTests {
 
 	@Test
@@ -0,0 +1,63 @@
+package xavierroigmartin.v_integrity.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class AppendOnlyListTest {
+
+  @Test
+  void should_keep_snapshot_stable_across_appends() {
+    // Given
+    AppendOnlyList<Integer> list = new AppendOnlyList<>();
+    for (int i = 0; i < 3000; i++) {
+      list.add(i);
+    }
+
+    // When
+    List<Integer> snapshot = list.snapshot();
+    list.add(3000);
+
+    // Then
+    assertEquals(3000, snapshot.size());
+    assertEquals(2999, snapshot.get(2999));
+    assertEquals(3000, list.last());
+    assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(3000));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.add(1));
+  }
+
+  @Test
+  void should_expose_consistent_prefix_to_concurrent_readers() throws Exception {
+    // Given
+    AppendOnlyList<Integer> list = new AppendOnlyList<>();
+    int total = 200_000;
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<String> failure = new AtomicReference<>();
+
+    Thread reader = new Thread(() -> {
+      while (!done.get() && failure.get() == null) {
+        List<Integer> snapshot = list.snapshot();
+        int n = snapshot.size();
+        if (n > 0 && snapshot.get(n - 1) != n - 1) {
+          failure.set("Element " + (n - 1) + " not visible");
+        }
+      }
+    });
+    reader.start();
+
+    // When
+    for (int i = 0; i < total; i++) {
+      list.add(i);
+    }
+    done.set(true);
+    reader.join();
+
+    // Then
+    assertEquals(null, failure.get());
+    assertEquals(total, list.size());
+  }
+}
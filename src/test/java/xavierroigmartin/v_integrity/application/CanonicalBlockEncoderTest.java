@@ -0,0 +1,133 @@
+package xavierroigmartin.v_integrity.application;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.infrastructure.adapter.HashingAdapter;
+
+class CanonicalBlockEncoderTest {
+
+  private final HashingAdapter hashing = new HashingAdapter();
+  private final CanonicalBlockEncoder encoder = new CanonicalBlockEncoder(hashing.newSha256());
+
+  @Test
+  void should_match_legacy_string_form_for_edge_cases() {
+    // Given
+    List<Instant> timestamps = List.of(
+        Instant.parse("2020-01-01T00:00:00Z"),
+        Instant.parse("1969-12-31T23:59:59.5Z"),
+        Instant.parse("2024-02-29T12:34:56.000120Z"),
+        Instant.parse("2024-02-29T12:34:56.000000001Z"),
+        Instant.parse("0000-01-01T00:00:00Z"),
+        Instant.parse("9999-12-31T23:59:59.999999999Z"),
+        Instant.parse("+10000-01-01T00:00:00Z"),
+        Instant.parse("-0001-06-15T10:00:00Z"));
+    List<EvidenceRecord> evidences = List.of(
+        new EvidenceRecord("b-id", "HOM-é", "RUN-日本", "a😀b", "LOG", "SHA-256",
+            "a".repeat(64), -5L, "user", null, List.of("Z", "A", "M"), timestamps.get(2)),
+        new EvidenceRecord("a-id", "HOM\uD800", "\uDC00RUN", "x", "PDF", "SHA-256",
+            "b".repeat(64), null, null, "s3://bucket/k", List.of(), timestamps.get(3)),
+        new EvidenceRecord("a-id", "dup", "dup", "x", "PDF", "SHA-256", "c".repeat(64),
+            Long.MAX_VALUE, "u", "", List.of("only"), timestamps.get(1)));
+
+    for (Instant ts : timestamps) {
+      // When
+      byte[] streamed = encoder.hash(7, ts, evidences, "0".repeat(64), "node-1");
+
+      // Then
+      assertArrayEquals(legacyHash(7, ts, evidences, "0".repeat(64), "node-1"), streamed,
+          "timestamp " + ts);
+    }
+  }
+
+  @Test
+  void should_match_legacy_string_form_for_large_random_blocks() {
+    Random random = new Random(42);
+    List<EvidenceRecord> evidences = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      evidences.add(new EvidenceRecord(
+          Integer.toHexString(random.nextInt()), randomString(random), randomString(random),
+          randomString(random), "LOG", "SHA-256", "d".repeat(64), (long) random.nextInt(1 << 20),
+          randomString(random), random.nextBoolean() ? null : randomString(random),
+          List.of(randomString(random), randomString(random)),
+          Instant.ofEpochSecond(random.nextInt(), random.nextInt(1_000_000_000))));
+    }
+    Instant ts = Instant.now();
+
+    assertArrayEquals(legacyHash(1, ts, evidences, "f".repeat(64), "node-1"),
+        encoder.hash(1, ts, evidences, "f".repeat(64), "node-1"));
+    // The encoder is reused across blocks
+    assertArrayEquals(legacyHash(2, ts, List.of(), "e".repeat(64), "GENESIS"),
+        encoder.hash(2, ts, List.of(), "e".repeat(64), "GENESIS"));
+  }
+
+  private static String randomString(Random random) {
+    char[] chars = new char[random.nextInt(40)];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = random.nextInt(4) == 0 ? (char) random.nextInt(0x10000)
+          : (char) ('a' + random.nextInt(26));
+    }
+    return new String(chars);
+  }
+
+  /**
+   * The original string-based canonicalization; block hashes must stay byte-identical to it.
+   */
+  private byte[] legacyHash(long height, Instant ts, List<EvidenceRecord> evidences,
+      String previousHash, String proposer) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("height=").append(height).append("|");
+    sb.append("ts=").append(ts.toString()).append("|");
+    sb.append("prev=").append(previousHash).append("|");
+    sb.append("proposer=").append(proposer).append("|");
+    sb.append("evidences=");
+
+    List<EvidenceRecord> sorted = new ArrayList<>(evidences);
+    sorted.sort(Comparator.comparing(EvidenceRecord::evidenceId));
+
+    for (EvidenceRecord e : sorted) {
+      sb.append(e.evidenceId()).append(",");
+      sb.append(e.homologationId()).append(",");
+      sb.append(e.testRunId()).append(",");
+      sb.append(e.artifactName()).append(",");
+      sb.append(e.artifactType()).append(",");
+      sb.append(e.hashAlgorithm()).append(",");
+      sb.append(e.hash()).append(",");
+      sb.append(e.sizeBytes() == null ? "" : e.sizeBytes()).append(",");
+      sb.append(e.createdBy()).append(",");
+      sb.append(e.storageUri() == null ? "" : e.storageUri()).append(",");
+      sb.append(e.createdAt().toString()).append(",");
+
+      List<String> stdSorted = new ArrayList<>(e.standards());
+      stdSorted.sort(String::compareTo);
+      sb.append(String.join("+", stdSorted));
+
+      sb.append(";");
+    }
+    return hashing.sha256Bytes(sb.toString());
+  }
+
+  @Test
+  void should_be_reusable_after_a_failed_encoding() {
+    EvidenceRecord broken = new EvidenceRecord("id", "h", "t", "a", "LOG", "SHA-256",
+        "a".repeat(64), null, "u", null, Arrays.asList("x", null), Instant.EPOCH);
+    Instant ts = Instant.EPOCH;
+
+    try {
+      encoder.hash(1, ts, List.of(broken), "0".repeat(64), "node-1");
+    } catch (NullPointerException expected) {
+      // standards with null entries cannot be sorted (same as the legacy form)
+    }
+
+    assertArrayEquals(legacyHash(1, ts, List.of(), "0".repeat(64), "node-1"),
+        encoder.hash(1, ts, List.of(), "0".repeat(64), "node-1"));
+  }
+}
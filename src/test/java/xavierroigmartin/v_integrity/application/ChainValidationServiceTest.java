@@ -0,0 +1,224 @@
+package xavierroigmartin.v_integrity.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import xavierroigmartin.v_integrity.application.ChainValidationService.State;
+import xavierroigmartin.v_integrity.application.ChainValidationService.ValidationStatus;
+import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
+import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
+import xavierroigmartin.v_integrity.application.port.out.ReplicationPort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.infrastructure.adapter.CryptoAdapter;
+import xavierroigmartin.v_integrity.infrastructure.adapter.FileChainStorageAdapter;
+import xavierroigmartin.v_integrity.infrastructure.adapter.HashingAdapter;
+import xavierroigmartin.v_integrity.infrastructure.config.StorageProperties;
+
+@ExtendWith(MockitoExtension.class)
+class ChainValidationServiceTest {
+
+  @Mock
+  private NodeConfigurationPort nodeConfig;
+  @Mock
+  private ReplicationPort replication;
+  @Mock
+  private LogPort logger;
+  @Mock
+  private MetricsPort metrics;
+
+  @TempDir
+  Path dir;
+
+  private final CryptoAdapter crypto = new CryptoAdapter();
+  private final HashingAdapter hashing = new HashingAdapter();
+  private FileChainStorageAdapter storage;
+  private LedgerService ledger;
+  private ChainValidationService validation;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    KeyPair kp = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    lenient().when(nodeConfig.getNodeId()).thenReturn("node-1");
+    lenient().when(nodeConfig.isLeader()).thenReturn(true);
+    lenient().when(nodeConfig.getPrivateKeyBase64())
+        .thenReturn(Base64.getEncoder().encodeToString(kp.getPrivate().getEncoded()));
+    lenient().when(nodeConfig.getAllowedNodePublicKeys()).thenReturn(
+        Map.of("node-1", Base64.getEncoder().encodeToString(kp.getPublic().getEncoded())));
+    lenient().when(nodeConfig.getCheckpointInterval()).thenReturn(10);
+
+    storage = new FileChainStorageAdapter(storageIn(dir));
+    ledger =
+        new LedgerService(nodeConfig, hashing, crypto, replication, storage, logger, metrics);
+    validation = new ChainValidationService(ledger, nodeConfig, crypto, logger);
+  }
+
+  @AfterEach
+  void tearDown() {
+    validation.close();
+    storage.close();
+  }
+
+  @Test
+  void should_only_check_new_blocks_after_a_successful_run() {
+    // Given
+    commitBlocks(150);
+
+    // When
+    ValidationStatus first = validation.validate(false);
+    ValidationStatus second = validation.validate(false);
+    commitBlocks(3);
+    ValidationStatus third = validation.validate(false);
+    ValidationStatus full = validation.validate(true);
+
+    // Then
+    assertTrue(first.valid());
+    assertEquals(150, first.checkedBlocks());
+    assertEquals(150, first.lastVerifiedHeight());
+    assertTrue(second.valid());
+    assertEquals(0, second.checkedBlocks());
+    assertTrue(third.valid());
+    assertEquals(3, third.checkedBlocks());
+    assertEquals(151, third.fromHeight());
+    assertEquals(153, full.checkedBlocks());
+    assertEquals(State.COMPLETED, full.state());
+  }
+
+  @Test
+  void should_report_first_invalid_height() {
+    // Given
+    commitBlocks(100);
+    Block valid = ledger.latestBlock();
+    Block forged = new Block(valid.height() + 1, Instant.now(), valid.evidences(), valid.hash(),
+        valid.proposerNodeId(), valid.hash(), valid.signature(), valid.version(),
+        valid.merkleRoot());
+    storage.append(forged);
+    LedgerService restarted =
+        new LedgerService(nodeConfig, hashing, crypto, replication, storage, logger, metrics);
+    ChainValidationService restartedValidation =
+        new ChainValidationService(restarted, nodeConfig, crypto, logger);
+
+    try {
+      // When
+      ValidationStatus result = restartedValidation.validate(true);
+
+      // Then
+      assertFalse(result.valid());
+      assertEquals(State.FAILED, result.state());
+      assertEquals(101L, result.firstInvalidHeight());
+      assertEquals(100, result.lastVerifiedHeight());
+    } finally {
+      restartedValidation.close();
+    }
+  }
+
+  @Test
+  void should_run_in_background_and_expose_progress() throws Exception {
+    // Given
+    commitBlocks(20);
+
+    // When
+    ValidationStatus started = validation.startValidation(true);
+    ValidationStatus status = validation.status();
+    for (int i = 0; i < 500 && status.state() == State.RUNNING; i++) {
+      Thread.sleep(10);
+      status = validation.status();
+    }
+
+    // Then
+    assertEquals(State.RUNNING, started.state());
+    assertEquals(State.COMPLETED, status.state());
+    assertTrue(status.valid());
+    assertEquals(20, status.checkedBlocks());
+    assertNull(status.firstInvalidHeight());
+  }
+
+  @Test
+  void should_only_check_blocks_after_the_latest_checkpoint_in_quick_mode() {
+    // Given
+    commitBlocks(25);
+    LedgerService restarted =
+        new LedgerService(nodeConfig, hashing, crypto, replication, storage, logger, metrics);
+    ChainValidationService restartedValidation =
+        new ChainValidationService(restarted, nodeConfig, crypto, logger);
+
+    try {
+      // When
+      ValidationStatus result = restartedValidation.validateFromCheckpoint();
+
+      // Then
+      assertTrue(result.valid());
+      assertEquals(20L, result.checkpointHeight());
+      assertEquals(21, result.fromHeight());
+      assertEquals(5, result.checkedBlocks());
+      assertEquals(25, result.lastVerifiedHeight());
+    } finally {
+      restartedValidation.close();
+    }
+  }
+
+  @Test
+  void should_not_trust_a_checkpoint_that_does_not_match_the_chain() {
+    // Given
+    commitBlocks(25);
+    FileChainStorageAdapter tampered = new FileChainStorageAdapter(storageIn(dir.resolve("t")));
+    for (Block block : ledger.chain()) {
+      tampered.append(block.height() != 5 ? block : new Block(block.height(),
+          block.timestamp(), block.evidences(), block.previousHash(), block.proposerNodeId(),
+          "0".repeat(64), block.signature(), block.version(), block.merkleRoot()));
+    }
+    ledger.checkpoints().forEach(tampered::appendCheckpoint);
+    LedgerService restarted =
+        new LedgerService(nodeConfig, hashing, crypto, replication, tampered, logger, metrics);
+    ChainValidationService restartedValidation =
+        new ChainValidationService(restarted, nodeConfig, crypto, logger);
+
+    try {
+      // When
+      ValidationStatus result = restartedValidation.validateFromCheckpoint();
+
+      // Then
+      assertFalse(result.valid());
+      assertNull(result.checkpointHeight());
+      assertEquals(1, result.fromHeight());
+      assertEquals(5L, result.firstInvalidHeight());
+    } finally {
+      restartedValidation.close();
+      tampered.close();
+    }
+  }
+
+  private void commitBlocks(int count) {
+    for (int i = 0; i < count; i++) {
+      ledger.submitEvidence(new EvidenceRecord(UUID.randomUUID().toString(), "HOM-1", "RUN-1",
+          "a.log", "LOG", "SHA-256", String.format("%064x", ledger.chain().size()), 1L, "user", null, List.of(), Instant.now()));
+      ledger.commitAsLeader();
+    }
+  }
+
+  private static StorageProperties storageIn(Path directory) {
+    StorageProperties properties = new StorageProperties();
+    properties.setEnabled(true);
+    properties.setDirectory(directory.toString());
+    return properties;
+  }
+}
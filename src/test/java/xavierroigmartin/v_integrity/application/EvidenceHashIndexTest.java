@@ -0,0 +1,80 @@
+package xavierroigmartin.v_integrity.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import xavierroigmartin.v_integrity.infrastructure.adapter.HashingAdapter;
+
+class EvidenceHashIndexTest {
+
+  private final HashingAdapter hashing = new HashingAdapter();
+
+  @Test
+  void should_find_indexed_hashes_across_resizes() {
+    // Given
+    EvidenceHashIndex index = new EvidenceHashIndex();
+    int entries = 10_000;
+    for (int i = 0; i < entries; i++) {
+      assertTrue(index.putIfAbsent(hashOf(i), i / 100, i % 100));
+    }
+
+    // When / Then
+    assertEquals(entries, index.size());
+    for (int i = 0; i < entries; i++) {
+      long location = index.find(hashOf(i));
+      assertEquals(i / 100, EvidenceHashIndex.height(location));
+      assertEquals(i % 100, EvidenceHashIndex.position(location));
+    }
+    assertEquals(-1, index.find(hashOf(entries + 1)));
+  }
+
+  @Test
+  void should_spread_hashes_sharing_the_first_word() {
+    // Given: hashes whose first 16 hex digits are identical
+    EvidenceHashIndex index = new EvidenceHashIndex();
+    int entries = 20_000;
+    for (int i = 0; i < entries; i++) {
+      assertTrue(index.putIfAbsent(collidingHash(i), i, 0));
+    }
+
+    // When / Then
+    for (int i = 0; i < entries; i++) {
+      assertEquals(i, EvidenceHashIndex.height(index.find(collidingHash(i))));
+    }
+    assertTrue(index.longestProbe() < 1_000, "longest probe: " + index.longestProbe());
+  }
+
+  @Test
+  void should_keep_first_location_of_duplicate_hash() {
+    EvidenceHashIndex index = new EvidenceHashIndex();
+    String hash = hashOf(1);
+
+    assertTrue(index.putIfAbsent(hash, 3, 7));
+    assertFalse(index.putIfAbsent(hash, 9, 0));
+
+    assertEquals(3, EvidenceHashIndex.height(index.find(hash)));
+    assertEquals(7, EvidenceHashIndex.position(index.find(hash)));
+  }
+
+  @Test
+  void should_ignore_malformed_hashes() {
+    EvidenceHashIndex index = new EvidenceHashIndex();
+
+    assertFalse(index.putIfAbsent("badhash", 1, 0));
+    assertFalse(index.putIfAbsent(hashOf(1).toUpperCase(), 1, 0));
+    assertEquals(-1, index.find(null));
+    assertEquals(-1, index.find("zz"));
+  }
+
+  private String collidingHash(int i) {
+    return "0".repeat(16) + hashOf(i).substring(16);
+  }
+
+  private String hashOf(int i) {
+    return hashing.sha256Hex(new String(new byte[] {(byte) i, (byte) (i >> 8)},
+        StandardCharsets.ISO_8859_1));
+  }
+}
@@ -3,25 +3,43 @@ package xavierroigmartin.v_integrity.application;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import xavierroigmartin.v_integrity.application.port.out.CryptoPort;
 import xavierroigmartin.v_integrity.application.port.out.HashingPort;
 import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
 import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
 import xavierroigmartin.v_integrity.application.port.out.ReplicationPort;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
 import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.domain.HexCodec;
 import xavierroigmartin.v_integrity.infrastructure.adapter.CryptoAdapter;
+import xavierroigmartin.v_integrity.infrastructure.adapter.FileChainStorageAdapter;
 import xavierroigmartin.v_integrity.infrastructure.adapter.HashingAdapter;
+import xavierroigmartin.v_integrity.infrastructure.adapter.InMemoryChainStorageAdapter;
+import xavierroigmartin.v_integrity.infrastructure.config.StorageProperties;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +53,10 @@ class LedgerServiceTest {
     private ReplicationPort replication;
     @Mock
     private LogPort logger;
+    @Mock
+    private MetricsPort metrics;
+    @TempDir
+    Path dir;
 
     private LedgerService ledgerService;
     private CryptoPort crypto;
@@ -59,8 +81,10 @@ class LedgerServiceTest {
         // Default mock behavior
         lenient().when(nodeConfig.getNodeId()).thenReturn(myNodeId);
         lenient().when(nodeConfig.getAllowedNodePublicKeys()).thenReturn(Map.of(myNodeId, myPublicKey));
+        lenient().when(logger.isBusinessEventEnabled()).thenReturn(true);
         
-        ledgerService = new LedgerService(nodeConfig, hashing, crypto, replication, logger);
+        ledgerService = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
     }
 
     @Test
@@ -130,7 +154,8 @@ class LedgerServiceTest {
         Block validBlock = ledgerService.commitAsLeader();
 
         // Reset service to simulate a follower receiving this block
-        LedgerService followerService = new LedgerService(nodeConfig, hashing, crypto, replication, logger);
+        LedgerService followerService = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
         
         // When
         followerService.acceptReplicatedBlock(validBlock);
@@ -143,6 +168,97 @@ class LedgerServiceTest {
         verify(logger, times(3)).logBusinessEvent(anyString(), anyMap());
     }
 
+    @Test
+    void should_extend_the_chain_digest_on_every_append() throws Exception {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        when(nodeConfig.getCheckpointInterval()).thenReturn(2);
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+        LedgerService follower = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            leader.submitEvidence(createSampleEvidence());
+            follower.acceptReplicatedBlock(leader.commitAsLeader());
+        }
+
+        // Then
+        byte[] expected = new byte[32];
+        for (Block block : leader.chain()) {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(expected);
+            expected = sha256.digest(block.hash().getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(HexCodec.encode(expected), leader.digest().accumulator());
+        assertEquals(leader.digest(), follower.digest());
+        assertEquals(leader.digestAt(1), follower.digestAt(1));
+        assertTrue(leader.digestAt(4).isEmpty());
+        Checkpoint checkpoint = leader.checkpoints().get(0);
+        assertEquals(2, checkpoint.height());
+        assertTrue(checkpoint.signed());
+        assertEquals(Optional.of(checkpoint), leader.latestTrustedCheckpoint());
+    }
+
+    @Test
+    void should_install_a_snapshot_and_continue_from_it() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        when(nodeConfig.getCheckpointInterval()).thenReturn(2);
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+        for (int i = 0; i < 5; i++) {
+            leader.submitEvidence(createSampleEvidence());
+            leader.commitAsLeader();
+        }
+        Checkpoint snapshot = leader.snapshots().get(0);
+        LedgerService follower = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+
+        // When
+        int installed = follower.installSnapshot(snapshot, leader.blocksBetween(1, 4));
+        follower.acceptReplicatedBlock(leader.latestBlock());
+
+        // Then
+        assertEquals(4, snapshot.height());
+        assertEquals(4, installed);
+        assertEquals(leader.chain(), follower.chain());
+        assertEquals(leader.digest(), follower.digest());
+        assertEquals(Optional.of(snapshot), follower.latestTrustedCheckpoint());
+        assertTrue(follower.findEvidenceByHash(
+                leader.chain().get(3).evidences().get(0).hash()).isPresent());
+        verify(logger).logBusinessEvent(eq("SNAPSHOT_INSTALLED"), anyMap());
+    }
+
+    @Test
+    void should_reject_a_snapshot_whose_digest_is_not_signed() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        when(nodeConfig.getCheckpointInterval()).thenReturn(2);
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+        for (int i = 0; i < 2; i++) {
+            leader.submitEvidence(createSampleEvidence());
+            leader.commitAsLeader();
+        }
+        Checkpoint signed = leader.snapshots().get(0);
+        Checkpoint forged = new Checkpoint(signed.height(), "0".repeat(64), signed.blockHash(),
+                signed.signerNodeId(), signed.signature(), signed.createdAt());
+        LedgerService follower = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> follower.installSnapshot(forged, leader.blocksBetween(1, 2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> follower.installSnapshot(signed, leader.blocksBetween(1, 1)));
+        assertEquals(1, follower.chain().size());
+    }
+
     @Test
     void should_reject_invalid_signature_block() {
         // Given
@@ -162,13 +278,470 @@ class LedgerServiceTest {
                 validBlock.signature()
         );
 
-        LedgerService followerService = new LedgerService(nodeConfig, hashing, crypto, replication, logger);
+        LedgerService followerService = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
 
         // When/Then
         assertThrows(IllegalArgumentException.class, () -> followerService.acceptReplicatedBlock(tamperedBlock));
         
         // Verify error logging
         verify(logger).logBusinessError(eq("INVALID_BLOCK_HASH"), anyString(), anyMap());
+        verify(metrics).increment("ledger.blocks.rejected", 1, "reason", "hash");
+    }
+
+    @Test
+    void should_restore_chain_from_storage_on_restart() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        StorageProperties properties = new StorageProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(dir.toString());
+        FileChainStorageAdapter storage = new FileChainStorageAdapter(properties);
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication, storage, logger,
+                metrics);
+        leader.submitEvidence(createSampleEvidence());
+        Block committed = leader.commitAsLeader();
+        leader.close();
+        storage.close();
+
+        // When
+        FileChainStorageAdapter reopened = new FileChainStorageAdapter(properties);
+        LedgerService restarted = new LedgerService(nodeConfig, hashing, crypto, replication, reopened, logger,
+                metrics);
+
+        // Then
+        assertEquals(2, restarted.chain().size());
+        assertEquals(committed, restarted.latestBlock());
+        verify(logger).logBusinessEvent(eq("LEDGER_RESTORED"), anyMap());
+        restarted.close();
+        reopened.close();
+    }
+
+    @Test
+    void should_find_committed_evidence_by_hash() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        EvidenceRecord evidence = ledgerService.submitEvidence(createSampleEvidence());
+        Block block = ledgerService.commitAsLeader();
+
+        // When
+        var found = ledgerService.findEvidenceByHash(evidence.hash().toUpperCase());
+
+        // Then
+        assertTrue(found.isPresent());
+        assertEquals(evidence, found.get().evidence());
+        assertEquals(block, found.get().block());
+        assertTrue(ledgerService.findEvidenceByHash("0".repeat(64)).isEmpty());
+    }
+
+    @Test
+    void should_page_committed_evidences_by_attribute() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        for (int i = 0; i < 5; i++) {
+            ledgerService.submitEvidence(createSampleEvidence());
+        }
+        Block block = ledgerService.commitAsLeader();
+
+        // When
+        LedgerService.EvidencePage first = ledgerService.findEvidences(
+                EvidenceAttributeIndex.Attribute.HOMOLOGATION_ID, "HOM-123", 0, 2);
+        LedgerService.EvidencePage last = ledgerService.findEvidences(
+                EvidenceAttributeIndex.Attribute.STANDARD, "ISO-27001", 2, 2);
+        LedgerService.EvidencePage none = ledgerService.findEvidences(
+                EvidenceAttributeIndex.Attribute.TEST_RUN_ID, "RUN-UNKNOWN", 0, 2);
+
+        // Then
+        assertEquals(5, first.totalElements());
+        assertEquals(2, first.evidences().size());
+        assertEquals(block.evidences().get(0), first.evidences().get(0).evidence());
+        assertEquals(block.height(), first.evidences().get(0).blockHeight());
+        assertEquals(1, last.evidences().size());
+        assertEquals(block.evidences().get(4), last.evidences().get(0).evidence());
+        assertEquals(0, none.totalElements());
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.findEvidences(
+                EvidenceAttributeIndex.Attribute.CREATED_BY, "user1", 0, 0));
+    }
+
+    @Test
+    void should_seal_version_2_blocks_with_merkle_inclusion_proofs() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        for (int i = 0; i < 7; i++) {
+            ledgerService.submitEvidence(createSampleEvidence());
+        }
+        Block block = ledgerService.commitAsLeader();
+
+        // When
+        MerkleTree.InclusionProof proof = ledgerService.inclusionProof(
+                new LedgerService.EvidenceProof(block.evidences().get(3), block, 3)).orElseThrow();
+
+        // Then
+        assertEquals(Block.VERSION_2, block.version());
+        assertEquals(block.merkleRoot(), proof.merkleRoot());
+        assertEquals(7, proof.leafCount());
+        // The last of 7 leaves is promoted without a sibling at the first level
+        assertEquals(proof.leafIndex() == 6 ? 2 : 3, proof.path().size());
+        assertTrue(ledgerService.inclusionProof(new LedgerService.EvidenceProof(
+                null, ledgerService.chain().get(0), 0)).isEmpty()); // genesis is version 1
+    }
+
+    @Test
+    void should_reject_block_with_tampered_merkle_root() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        ledgerService.submitEvidence(createSampleEvidence());
+        ledgerService.submitEvidence(createSampleEvidence());
+        Block validBlock = ledgerService.commitAsLeader();
+
+        // Drop one evidence but keep the signed header (and its Merkle root)
+        Block tamperedBlock = new Block(validBlock.height(), validBlock.timestamp(),
+                validBlock.evidences().subList(0, 1), validBlock.previousHash(),
+                validBlock.proposerNodeId(), validBlock.hash(), validBlock.signature(),
+                validBlock.version(), validBlock.merkleRoot());
+
+        LedgerService followerService = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> followerService.acceptReplicatedBlock(tamperedBlock));
+        verify(logger).logBusinessError(eq("INVALID_BLOCK_MERKLE_ROOT"), anyString(), anyMap());
+        verify(metrics).increment("ledger.blocks.rejected", 1, "reason", "merkle_root");
+        followerService.acceptReplicatedBlock(validBlock);
+        assertEquals(2, followerService.chain().size());
+    }
+
+    @Test
+    void should_accept_replicated_blocks_in_batch_and_stop_at_invalid_block() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        List<Block> blocks = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ledgerService.submitEvidence(createSampleEvidence());
+            blocks.add(ledgerService.commitAsLeader());
+        }
+        Block last = blocks.get(2);
+        Block tamperedBlock = new Block(last.height(), last.timestamp(), last.evidences(),
+                last.previousHash(), last.proposerNodeId(), "badhash", last.signature(),
+                last.version(), last.merkleRoot());
+
+        LedgerService followerService = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter(), logger, metrics);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> followerService.acceptReplicatedBlocks(
+                List.of(blocks.get(0), blocks.get(1), tamperedBlock)));
+        verify(logger).logBusinessError(eq("INVALID_BLOCK_HASH"), anyString(), anyMap());
+        verify(metrics).increment("ledger.blocks.rejected", 1, "reason", "hash");
+        assertEquals(3, followerService.chain().size());
+
+        followerService.acceptReplicatedBlocks(List.of(last));
+        assertEquals(ledgerService.chain(), followerService.chain());
+    }
+
+    @Test
+    void should_return_block_ranges_as_views() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        for (int i = 0; i < 3; i++) {
+            ledgerService.submitEvidence(createSampleEvidence());
+            ledgerService.commitAsLeader();
+        }
+
+        // When/Then
+        assertEquals(ledgerService.chain().subList(1, 3), ledgerService.blocksBetween(1, 2));
+        assertEquals(4, ledgerService.blocksBetween(0, Long.MAX_VALUE).size());
+        assertTrue(ledgerService.blocksBetween(4, 10).isEmpty());
+        assertTrue(ledgerService.blocksBetween(2, 1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.blocksBetween(-1, 2));
+    }
+
+    @Test
+    void should_split_mempool_into_bounded_blocks() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        for (int i = 0; i < 5; i++) {
+            ledgerService.submitEvidence(createSampleEvidence());
+        }
+        LedgerService.PendingEvidences pending = ledgerService.pendingEvidences();
+
+        // When
+        Block first = ledgerService.commitAsLeader(2, Long.MAX_VALUE);
+        Block second = ledgerService.commitAsLeader(2, Long.MAX_VALUE);
+        Block last = ledgerService.commitAsLeader(2, Long.MAX_VALUE);
+
+        // Then
+        assertEquals(5, pending.count());
+        assertTrue(pending.bytes() > 0);
+        assertEquals(List.of(2, 2, 1), List.of(first.evidences().size(),
+                second.evidences().size(), last.evidences().size()));
+        assertEquals(3, last.height());
+        assertEquals(0, ledgerService.pendingEvidences().count());
+        assertEquals(0, ledgerService.pendingEvidences().bytes());
+        assertThrows(IllegalStateException.class, () -> ledgerService.commitAsLeader(2, 100));
+    }
+
+    @Test
+    void should_pipeline_concurrent_commits_in_order() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        for (int i = 0; i < 20; i++) {
+            ledgerService.submitEvidence(createSampleEvidence());
+        }
+        List<EvidenceRecord> submitted = ledgerService.mempool();
+
+        // When
+        List<CompletableFuture<Block>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(ledgerService.sealAsLeader(2, Long.MAX_VALUE));
+        }
+        results.forEach(CompletableFuture::join);
+
+        // Then
+        List<Block> chain = ledgerService.chain();
+        assertEquals(11, chain.size());
+        for (int i = 1; i < chain.size(); i++) {
+            assertEquals(i, chain.get(i).height());
+            assertEquals(chain.get(i - 1).hash(), chain.get(i).previousHash());
+            assertTrue(ledgerService.hasValidHash(chain.get(i)));
+            assertEquals(submitted.subList(2 * i - 2, 2 * i), chain.get(i).evidences());
+            assertEquals(chain.get(i), results.get(i - 1).join());
+        }
+        assertTrue(ledgerService.mempool().isEmpty());
+        verify(replication, times(10)).replicateBlockToPeers(any(), any());
+    }
+
+    @Test
+    void should_return_evidences_to_mempool_when_commit_fails() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        AtomicBoolean storageDown = new AtomicBoolean(true);
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter() {
+                    @Override
+                    public synchronized void append(Block block) {
+                        if (block.height() > 0 && storageDown.get()) {
+                            throw new IllegalStateException("disk full");
+                        }
+                        super.append(block);
+                    }
+                }, logger, metrics);
+        EvidenceRecord evidence = leader.submitEvidence(createSampleEvidence());
+
+        // When
+        IllegalStateException error =
+                assertThrows(IllegalStateException.class, leader::commitAsLeader);
+        storageDown.set(false);
+
+        // Then
+        assertEquals("disk full", error.getMessage());
+        assertEquals(1, leader.pendingEvidences().count());
+        Block block = leader.commitAsLeader();
+        assertEquals(1, block.height());
+        assertEquals(List.of(evidence), block.evidences());
+    }
+
+    @Test
+    void should_replicate_leader_blocks_only_once_flushed() {
+        // Given: a storage that never flushes on its own
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter() {
+                    private boolean flushed = true;
+
+                    @Override
+                    public synchronized void append(Block block) {
+                        if (block.height() > 0) {
+                            flushed = false;
+                            events.add("append-" + block.height());
+                        }
+                    }
+
+                    @Override
+                    public synchronized void flush() {
+                        flushed = true;
+                        events.add("flush");
+                    }
+
+                    @Override
+                    public synchronized boolean isFlushed() {
+                        return flushed;
+                    }
+                }, logger, metrics);
+        doAnswer(invocation -> events.add("replicate-" + invocation.<Block>getArgument(0).height()))
+                .when(replication).replicateBlockToPeers(any(), any());
+        for (int i = 0; i < 6; i++) {
+            leader.submitEvidence(createSampleEvidence());
+        }
+
+        // When
+        List<CompletableFuture<Block>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(leader.sealAsLeader(1, Long.MAX_VALUE));
+        }
+        results.forEach(CompletableFuture::join);
+
+        // Then: every block is replicated after a flush that follows its append
+        for (int height = 1; height <= 6; height++) {
+            int appended = events.indexOf("append-" + height);
+            int replicated = events.indexOf("replicate-" + height);
+            assertTrue(appended >= 0 && replicated > appended, events.toString());
+            assertTrue(events.subList(appended, replicated).contains("flush"), events.toString());
+        }
+        assertEquals("flush", events.get(events.lastIndexOf("append-6") + 1));
+    }
+
+    @Test
+    void should_commit_each_evidence_once_when_checkpointing_fails() {
+        // Given: every block is checkpointed, and storing checkpoints fails
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        when(nodeConfig.getCheckpointInterval()).thenReturn(1);
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter() {
+                    @Override
+                    public synchronized void appendCheckpoint(Checkpoint checkpoint) {
+                        throw new IllegalStateException("disk full");
+                    }
+                }, logger, metrics);
+        for (int i = 0; i < 6; i++) {
+            leader.submitEvidence(createSampleEvidence());
+        }
+
+        // When
+        List<CompletableFuture<Block>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(leader.sealAsLeader(2, Long.MAX_VALUE));
+        }
+        results.forEach(CompletableFuture::join);
+
+        // Then
+        List<String> committed = leader.chain().stream()
+                .flatMap(block -> block.evidences().stream())
+                .map(EvidenceRecord::evidenceId)
+                .toList();
+        assertEquals(6, committed.size());
+        assertEquals(6, committed.stream().distinct().count());
+        assertEquals(4, leader.chain().size());
+        assertTrue(leader.mempool().isEmpty());
+        assertThrows(IllegalStateException.class, leader::commitAsLeader);
+        verify(logger, times(3)).logBusinessError(eq("CHECKPOINT_FAILED"), anyString(), anyMap());
+        leader.close();
+    }
+
+    @Test
+    void should_fail_drafts_in_flight_when_closed() throws Exception {
+        // Given: the first block blocks in storage while the next ones queue up behind it
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        CountDownLatch appending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LedgerService leader = new LedgerService(nodeConfig, hashing, crypto, replication,
+                new InMemoryChainStorageAdapter() {
+                    @Override
+                    public synchronized void append(Block block) {
+                        if (block.height() > 0) {
+                            appending.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                throw new IllegalStateException("interrupted", e);
+                            }
+                        }
+                    }
+                }, logger, metrics);
+        for (int i = 0; i < 3; i++) {
+            leader.submitEvidence(createSampleEvidence());
+        }
+        List<CompletableFuture<Block>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(leader.sealAsLeader(1, Long.MAX_VALUE));
+        }
+        assertTrue(appending.await(10, TimeUnit.SECONDS));
+
+        // When: closing while the first block is still being written
+        CompletableFuture<Void> closing = CompletableFuture.runAsync(leader::close);
+        for (CompletableFuture<Block> queued : results.subList(1, 3)) {
+            assertThrows(ExecutionException.class, () -> queued.get(10, TimeUnit.SECONDS));
+        }
+        release.countDown();
+        closing.get(10, TimeUnit.SECONDS);
+
+        // Then: the write in progress is not interrupted and its block is committed
+        assertEquals(1, results.get(0).get().height());
+        assertEquals(2, leader.chain().size());
+        assertEquals(2, leader.pendingEvidences().count());
+        assertThrows(IllegalStateException.class, () -> leader.sealAsLeader(1, Long.MAX_VALUE));
+        assertEquals(2, leader.pendingEvidences().count());
+    }
+
+    @Test
+    void should_submit_batch_with_per_entry_results() {
+        // Given
+        EvidenceRecord valid = createSampleEvidence();
+        EvidenceRecord upperCase = new EvidenceRecord("ev-upper", "HOM-1", "RUN-1", "a.log", "LOG",
+                "sha-256", "AB".repeat(32), null, "user", null, null, null);
+        EvidenceRecord badHash = new EvidenceRecord(null, "HOM-1", "RUN-1", "a.log", "LOG",
+                "SHA-256", "xyz", null, "user", null, null, null);
+        EvidenceRecord duplicate = new EvidenceRecord("ev-upper", "HOM-1", "RUN-1", "b.log", "LOG",
+                "SHA-256", "cd".repeat(32), null, "user", null, null, null);
+
+        // When
+        List<LedgerService.SubmissionResult> results =
+                ledgerService.submitEvidences(List.of(valid, upperCase, badHash, duplicate));
+
+        // Then
+        assertEquals(List.of(true, true, false, false),
+                results.stream().map(LedgerService.SubmissionResult::accepted).toList());
+        assertEquals("ab".repeat(32), results.get(1).evidence().hash());
+        assertTrue(results.get(2).error().startsWith("Invalid hash"));
+        assertTrue(results.get(3).error().contains("already pending"));
+        assertEquals(2, ledgerService.mempool().size());
+        verify(logger).logBusinessEvent("EVIDENCE_BATCH_SUBMITTED",
+                Map.of("submitted", 4, "accepted", 2, "rejected", 2));
+        verify(logger, never()).logBusinessEvent(eq("EVIDENCE_SUBMITTED"), any());
+    }
+
+    @Test
+    void should_reject_hashes_already_pending_or_committed() {
+        // Given
+        when(nodeConfig.isLeader()).thenReturn(true);
+        when(nodeConfig.getPrivateKeyBase64()).thenReturn(myPrivateKey);
+        EvidenceRecord committed = ledgerService.submitEvidence(createSampleEvidence());
+        ledgerService.commitAsLeader();
+        EvidenceRecord pending = ledgerService.submitEvidence(createSampleEvidence());
+
+        // When
+        IllegalArgumentException againCommitted = assertThrows(IllegalArgumentException.class,
+                () -> ledgerService.submitEvidence(withHash(committed.hash().toUpperCase())));
+        IllegalArgumentException againPending = assertThrows(IllegalArgumentException.class,
+                () -> ledgerService.submitEvidence(withHash(pending.hash())));
+        List<LedgerService.SubmissionResult> batch = ledgerService.submitEvidences(
+                List.of(withHash("ab".repeat(32)), withHash("ab".repeat(32))));
+
+        // Then
+        assertTrue(againCommitted.getMessage().contains("already committed in block 1"));
+        assertTrue(againPending.getMessage().contains("already pending"));
+        assertTrue(batch.get(0).accepted());
+        assertFalse(batch.get(1).accepted());
+        assertEquals(2, ledgerService.mempool().size());
+    }
+
+    private EvidenceRecord withHash(String hash) {
+        return new EvidenceRecord(null, "HOM-123", "RUN-456", "copy.txt", "LOG", "SHA-256", hash,
+                null, "user1", null, null, null);
     }
 
     private EvidenceRecord createSampleEvidence() {
@@ -179,7 +752,7 @@ class LedgerServiceTest {
                 "log.txt",
                 "LOG",
                 "SHA-256",
-                "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", // Empty SHA-256
+                UUID.randomUUID().toString().replace("-", "").repeat(2), // Unique per evidence
                 1024L,
                 "user1",
                 "s3://bucket/log.txt",
@@ -0,0 +1,162 @@
+package xavierroigmartin.v_integrity.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import xavierroigmartin.v_integrity.application.Mempool.AddResult;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+class MempoolTest {
+
+  @Test
+  void should_keep_submission_order_and_remove_by_evidence_id() {
+    // Given
+    Mempool mempool = new Mempool();
+    EvidenceRecord first = createEvidence("ev-1", "a".repeat(64));
+    EvidenceRecord second = createEvidence("ev-2", "b".repeat(64));
+    EvidenceRecord third = createEvidence("ev-3", "c".repeat(64));
+    mempool.add(first);
+    mempool.add(second);
+    mempool.add(third);
+
+    // When
+    int removed = mempool.removeAll(List.of(second, createEvidence("unknown", "d".repeat(64))));
+
+    // Then
+    assertEquals(1, removed);
+    assertEquals(List.of(first, third), mempool.snapshot());
+    assertEquals(AddResult.DUPLICATE_HASH, mempool.add(createEvidence("ev-4", "a".repeat(64))));
+    assertEquals(AddResult.ADDED, mempool.add(createEvidence("ev-5", "b".repeat(64))));
+  }
+
+  @Test
+  void should_reject_duplicate_evidence_id_or_hash() {
+    Mempool mempool = new Mempool();
+
+    assertEquals(AddResult.ADDED, mempool.add(createEvidence("ev-1", "a".repeat(64))));
+    assertEquals(AddResult.DUPLICATE_ID, mempool.add(createEvidence("ev-1", "b".repeat(64))));
+    assertEquals(AddResult.DUPLICATE_HASH, mempool.add(createEvidence("ev-2", "a".repeat(64))));
+
+    assertEquals(List.of("a".repeat(64)),
+        mempool.snapshot().stream().map(EvidenceRecord::hash).toList());
+    mempool.removeAll(mempool.snapshot());
+    assertEquals(AddResult.ADDED, mempool.add(createEvidence("ev-2", "a".repeat(64))));
+  }
+
+  @Test
+  void should_accept_concurrent_submissions() throws Exception {
+    // Given
+    Mempool mempool = new Mempool();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    AtomicInteger duplicates = new AtomicInteger();
+
+    // When
+    for (int t = 0; t < 8; t++) {
+      int thread = t;
+      pool.submit(() -> {
+        for (int i = 0; i < 1000; i++) {
+          mempool.add(createEvidence("ev-" + thread + "-" + i, hash(thread * 1000 + i)));
+          // Every thread also races for one shared hash; only one submission may win
+          if (mempool.add(createEvidence("shared-" + thread + "-" + i, "f".repeat(64)))
+              != AddResult.ADDED) {
+            duplicates.incrementAndGet();
+          }
+        }
+      });
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+    // Then
+    List<EvidenceRecord> pending = mempool.snapshot();
+    assertEquals(8001, pending.size());
+    assertEquals(8001, mempool.unsealedCount());
+    assertEquals(7999, duplicates.get());
+    mempool.removeAll(new ArrayList<>(pending));
+    assertTrue(mempool.snapshot().isEmpty());
+    assertEquals(0, mempool.unsealedCount());
+    assertEquals(AddResult.ADDED, mempool.add(createEvidence("shared", "f".repeat(64))));
+  }
+
+  @Test
+  void should_take_oldest_evidences_within_block_limits() {
+    // Given
+    Mempool mempool = new Mempool();
+    List<EvidenceRecord> evidences = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      evidences.add(createEvidence("ev-" + i, hash(i)));
+      mempool.add(evidences.get(i));
+    }
+    long evidenceBytes = Mempool.estimatedSize(evidences.get(0));
+    mempool.removeAll(List.of(evidences.get(0)));
+
+    // When/Then
+    assertEquals(6 * evidenceBytes, mempool.unsealedBytes());
+    assertEquals(evidences.subList(1, 3), mempool.take(2, Long.MAX_VALUE));
+    assertEquals(evidences.subList(3, 5), mempool.take(10, 2 * evidenceBytes + 1));
+    assertEquals(evidences.subList(5, 6), mempool.take(10, 1));
+    assertEquals(1, mempool.unsealedCount());
+    assertEquals(evidenceBytes, mempool.unsealedBytes());
+    assertEquals(evidences.subList(1, 7), mempool.snapshot());
+  }
+
+  @Test
+  void should_release_reserved_evidences_in_submission_order() {
+    // Given
+    Mempool mempool = new Mempool();
+    EvidenceRecord first = createEvidence("ev-1", "a".repeat(64));
+    EvidenceRecord second = createEvidence("ev-2", "b".repeat(64));
+    EvidenceRecord third = createEvidence("ev-3", "c".repeat(64));
+    mempool.add(first);
+    mempool.add(second);
+    List<EvidenceRecord> reserved = mempool.take(10, Long.MAX_VALUE);
+    mempool.add(third);
+
+    // When
+    mempool.removeAll(List.of(second));
+    mempool.release(reserved);
+
+    // Then
+    assertEquals(2, mempool.unsealedCount());
+    assertEquals(List.of(first, third), mempool.take(10, Long.MAX_VALUE));
+    assertEquals(0, mempool.unsealedBytes());
+  }
+
+  @Test
+  void should_report_when_oldest_pending_evidence_arrived() {
+    // Given
+    Mempool mempool = new Mempool();
+    EvidenceRecord first = createEvidence("ev-1", "a".repeat(64));
+    long before = System.nanoTime();
+    mempool.add(first);
+    mempool.add(createEvidence("ev-2", "b".repeat(64)));
+    long oldest = mempool.oldestUnsealedNanos().orElseThrow();
+
+    // When
+    mempool.removeAll(List.of(first));
+
+    // Then
+    assertTrue(oldest - before >= 0);
+    assertTrue(mempool.oldestUnsealedNanos().orElseThrow() - oldest >= 0);
+    mempool.take(1, Long.MAX_VALUE);
+    assertTrue(mempool.oldestUnsealedNanos().isEmpty());
+    assertEquals(0, mempool.unsealedBytes());
+  }
+
+  private static String hash(int n) {
+    return String.format("%064x", n);
+  }
+
+  private static EvidenceRecord createEvidence(String id, String hash) {
+    return new EvidenceRecord(id, "HOM-123", "RUN-456", "log.txt", "LOG", "SHA-256", hash, 1L,
+        "user1", null, List.of(), Instant.EPOCH);
+  }
+}
@@ -0,0 +1,83 @@
+package xavierroigmartin.v_integrity.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.infrastructure.adapter.HashingAdapter;
+
+class MerkleTreeTest {
+
+  private final HashingAdapter hashing = new HashingAdapter();
+  private final CanonicalBlockEncoder encoder = new CanonicalBlockEncoder(hashing.newSha256());
+
+  @Test
+  void should_match_rfc6962_root_and_verify_every_inclusion_path() {
+    for (int count = 0; count <= 33; count++) {
+      // Given
+      List<EvidenceRecord> evidences = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        // Ids in reverse order so leaf order differs from block order
+        evidences.add(createEvidence(String.format("ev-%03d", count - i)));
+      }
+
+      // When
+      MerkleTree tree = MerkleTree.build(evidences, encoder);
+
+      // Then
+      List<byte[]> sortedLeaves = new ArrayList<>();
+      for (int i = count - 1; i >= 0; i--) {
+        sortedLeaves.add(encoder.leafHash(evidences.get(i)));
+      }
+      assertEquals(HexFormat.of().formatHex(referenceRoot(sortedLeaves)), tree.root(),
+          "root of " + count + " leaves");
+      for (int position = 0; position < count; position++) {
+        MerkleTree.InclusionProof proof = tree.proof(position);
+        assertEquals(count - 1 - position, proof.leafIndex());
+        assertTrue(proof.path().size() <= 32 - Integer.numberOfLeadingZeros(count));
+        assertEquals(tree.root(), rootFromPath(proof));
+      }
+    }
+  }
+
+  /**
+   * Merkle Tree Hash as defined by RFC 6962, section 2.1.
+   */
+  private byte[] referenceRoot(List<byte[]> leaves) {
+    if (leaves.isEmpty()) {
+      return hashing.sha256Bytes("");
+    }
+    if (leaves.size() == 1) {
+      return leaves.get(0);
+    }
+    int k = Integer.highestOneBit(leaves.size() - 1);
+    return node(referenceRoot(leaves.subList(0, k)),
+        referenceRoot(leaves.subList(k, leaves.size())));
+  }
+
+  private String rootFromPath(MerkleTree.InclusionProof proof) {
+    byte[] current = HexFormat.of().parseHex(proof.leafHash());
+    for (MerkleTree.Step step : proof.path()) {
+      byte[] sibling = HexFormat.of().parseHex(step.hash());
+      current = step.side() == MerkleTree.Side.LEFT ? node(sibling, current) : node(current, sibling);
+    }
+    return HexFormat.of().formatHex(current);
+  }
+
+  private byte[] node(byte[] left, byte[] right) {
+    return encoder.nodeHash(left, 0, right, 0);
+  }
+
+  private static EvidenceRecord createEvidence(String id) {
+    byte[] hash = new byte[32];
+    Arrays.fill(hash, (byte) id.hashCode());
+    return new EvidenceRecord(id, "HOM-1", "RUN-1", "a.log", "LOG", "SHA-256",
+        HexFormat.of().formatHex(hash), 10L, "user", null, List.of("ISO-27001"), Instant.EPOCH);
+  }
+}
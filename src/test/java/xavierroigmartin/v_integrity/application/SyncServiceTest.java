@@ -7,24 +7,34 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
 import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
 import xavierroigmartin.v_integrity.application.port.out.SyncPort;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.BlockHeaderResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.ChainDigestResponse;
+import xavierroigmartin.v_integrity.interfaces.rest.dto.DigestComparisonResponse;
 import xavierroigmartin.v_integrity.interfaces.rest.dto.SyncResponse;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,12 +48,14 @@ class SyncServiceTest {
   private NodeConfigurationPort nodeConfig;
   @Mock
   private LogPort logger;
+  @Mock
+  private MetricsPort metrics;
 
   private SyncService syncService;
 
   @BeforeEach
   void setUp() {
-    syncService = new SyncService(ledgerService, syncPort, nodeConfig, logger);
+    syncService = new SyncService(ledgerService, syncPort, nodeConfig, logger, metrics);
   }
 
   @Test
@@ -60,10 +72,10 @@ class SyncServiceTest {
     BlockHeaderResponse remoteHead = new BlockHeaderResponse(2, "hash2", "node2", Instant.now());
     when(syncPort.getLatestBlockHeader(peerUrl)).thenReturn(remoteHead);
 
-    // Blocks to download
+    // Blocks to download: the only peer streams the whole range
     Block block1 = createBlock(1);
     Block block2 = createBlock(2);
-    when(syncPort.getBlocks(peerUrl, 1, 100)).thenReturn(List.of(block1, block2));
+    streams(peerUrl, 1, 2, block1, block2);
 
     // When
     SyncResponse response = syncService.synchronize(null);
@@ -74,8 +86,8 @@ class SyncServiceTest {
     assertEquals(0, response.fromHeight());
     assertEquals(2, response.toHeight());
 
-    verify(ledgerService).acceptReplicatedBlock(block1);
-    verify(ledgerService).acceptReplicatedBlock(block2);
+    verify(ledgerService).acceptReplicatedBlocks(List.of(block1, block2));
+    verify(syncPort, never()).getBlocks(anyString(), anyLong(), anyInt());
   }
 
   @Test
@@ -115,10 +127,11 @@ class SyncServiceTest {
     when(syncPort.getLatestBlockHeader(peerUrl)).thenReturn(remoteHead);
 
     Block block1 = createBlock(1);
-    when(syncPort.getBlocks(peerUrl, 1, 100)).thenReturn(List.of(block1));
+    streams(peerUrl, 1, 1, block1);
 
     // Simulate validation error
-    doThrow(new IllegalArgumentException("Invalid block")).when(ledgerService).acceptReplicatedBlock(block1);
+    doThrow(new IllegalArgumentException("Invalid block")).when(ledgerService)
+        .acceptReplicatedBlocks(List.of(block1));
 
     // When
     SyncResponse response = syncService.synchronize(null);
@@ -128,6 +141,185 @@ class SyncServiceTest {
     assertTrue(response.reason().contains("Invalid block"));
   }
 
+  @Test
+  void should_compare_digests_at_the_lower_tip() {
+    // Given
+    String peerUrl = "http://peer1";
+    when(nodeConfig.getPeers()).thenReturn(List.of(peerUrl));
+    when(ledgerService.digest()).thenReturn(new LedgerService.ChainDigest(5, "hash5", "acc5"));
+    when(ledgerService.digestAt(3))
+        .thenReturn(Optional.of(new LedgerService.ChainDigest(3, "hash3", "acc3")));
+    when(syncPort.getLatestBlockHeader(peerUrl))
+        .thenReturn(new BlockHeaderResponse(3, "hash3", "node2", Instant.now()));
+    when(syncPort.getChainDigest(peerUrl, 3))
+        .thenReturn(new ChainDigestResponse(3, "hash3", "other"));
+
+    // When
+    DigestComparisonResponse response = syncService.compareDigest(null);
+
+    // Then
+    assertFalse(response.matches());
+    assertEquals(3, response.height());
+    assertEquals(5, response.localHeight());
+    assertEquals("acc3", response.localAccumulator());
+    assertEquals("other", response.remoteAccumulator());
+    verify(logger).logBusinessError(eq("CHAIN_DIGEST_MISMATCH"), anyString(), any());
+  }
+
+  @Test
+  void should_bootstrap_from_the_latest_snapshot_and_sync_the_tail() {
+    // Given
+    String peerUrl = "http://peer1";
+    when(nodeConfig.getPeers()).thenReturn(List.of(peerUrl));
+    when(nodeConfig.getAllowedNodePublicKeys()).thenReturn(Map.of("node-1", "key"));
+    Block block1 = createBlock(1);
+    Block block2 = createBlock(2);
+    Block block3 = createBlock(3);
+    // Local tip before the snapshot, after it, and after the tail
+    when(ledgerService.latestBlock()).thenReturn(createBlock(0), block2, block3);
+    Checkpoint older = new Checkpoint(1, "acc1", "hash1", "node-1", "sig", Instant.now());
+    Checkpoint latest = new Checkpoint(2, "acc2", "hash2", "node-1", "sig", Instant.now());
+    when(syncPort.getSnapshots(peerUrl)).thenReturn(List.of(latest, older));
+    when(syncPort.streamSnapshot(eq(peerUrl), eq(2L), eq(1L), any())).thenAnswer(invocation -> {
+      Consumer<Block> consumer = invocation.getArgument(3);
+      consumer.accept(block1);
+      consumer.accept(block2);
+      return 2L;
+    });
+    when(ledgerService.installSnapshot(eq(latest), any())).thenReturn(2);
+    when(syncPort.getLatestBlockHeader(peerUrl))
+        .thenReturn(new BlockHeaderResponse(3, "hash3", "node-1", Instant.now()));
+    streams(peerUrl, 3, 3, block3);
+
+    // When
+    SyncResponse response = syncService.bootstrap(null);
+
+    // Then
+    assertTrue(response.synced());
+    assertEquals(3, response.appliedBlocks());
+    assertEquals(0, response.fromHeight());
+    assertEquals(3, response.toHeight());
+    verify(ledgerService).installSnapshot(latest, List.of(block1, block2));
+    verify(ledgerService).acceptReplicatedBlocks(List.of(block3));
+  }
+
+  @Test
+  void should_spread_prefetched_ranges_across_peers_that_are_high_enough() {
+    // Given
+    String peer1 = "http://peer1";
+    String peer2 = "http://peer2";
+    String peer3 = "http://peer3";
+    when(nodeConfig.getPeers()).thenReturn(List.of(peer1, peer2, peer3));
+    when(ledgerService.latestBlock()).thenReturn(createBlock(0));
+    when(syncPort.getLatestBlockHeader(peer1))
+        .thenReturn(new BlockHeaderResponse(300, "h", "node1", Instant.now()));
+    when(syncPort.getLatestBlockHeader(peer2))
+        .thenReturn(new BlockHeaderResponse(300, "h", "node1", Instant.now()));
+    when(syncPort.getLatestBlockHeader(peer3)) // too short for any range past 150
+        .thenReturn(new BlockHeaderResponse(150, "h", "node1", Instant.now()));
+    when(syncPort.getBlocks(peer1, 1, 100)).thenReturn(createBlocks(1, 100));
+    when(syncPort.getBlocks(peer2, 101, 100)).thenReturn(createBlocks(101, 100));
+    when(syncPort.getBlocks(peer1, 201, 100)).thenReturn(createBlocks(201, 100));
+
+    // When
+    SyncResponse response = syncService.synchronize(null);
+
+    // Then
+    assertTrue(response.synced());
+    assertEquals(300, response.appliedBlocks());
+    assertEquals(300, response.toHeight());
+    verify(ledgerService, times(3)).acceptReplicatedBlocks(any());
+    verify(syncPort, never()).getBlocks(eq(peer3), anyLong(), anyInt());
+  }
+
+  @Test
+  void should_refetch_range_from_source_when_another_peer_fails() {
+    // Given
+    String peer1 = "http://peer1";
+    String peer2 = "http://peer2";
+    when(nodeConfig.getPeers()).thenReturn(List.of(peer1, peer2));
+    when(ledgerService.latestBlock()).thenReturn(createBlock(0));
+    when(syncPort.getLatestBlockHeader(peer1))
+        .thenReturn(new BlockHeaderResponse(200, "h", "node1", Instant.now()));
+    when(syncPort.getLatestBlockHeader(peer2))
+        .thenReturn(new BlockHeaderResponse(200, "h", "node1", Instant.now()));
+    when(syncPort.getBlocks(peer1, 1, 100)).thenReturn(createBlocks(1, 100));
+    when(syncPort.getBlocks(peer2, 101, 100)).thenThrow(new IllegalStateException("down"));
+    when(syncPort.getBlocks(peer1, 101, 100)).thenReturn(createBlocks(101, 100));
+
+    // When
+    SyncResponse response = syncService.synchronize(null);
+
+    // Then
+    assertTrue(response.synced());
+    assertEquals(200, response.appliedBlocks());
+    assertEquals(200, response.toHeight());
+  }
+
+  @Test
+  void should_tune_batch_size_from_throughput() {
+    SyncService.BatchSizer sizer = new SyncService.BatchSizer();
+    assertEquals(100, sizer.current());
+
+    sizer.record(100, 100_000_000L);   // 1000 blocks/s
+    assertEquals(200, sizer.current());
+    sizer.record(200, 100_000_000L);   // 2000 blocks/s: keep growing
+    assertEquals(400, sizer.current());
+    sizer.record(400, 1_000_000_000L); // 400 blocks/s: back off
+    assertEquals(200, sizer.current());
+    for (int i = 0; i < 10; i++) {
+      // Flat 400 blocks/s: keep shrinking
+      sizer.record(sizer.current(), sizer.current() * 2_500_000L);
+    }
+    assertEquals(SyncService.BatchSizer.MIN_BATCH_SIZE, sizer.current());
+  }
+
+  @Test
+  void should_stream_from_the_only_peer_ahead_in_batches() {
+    // Given: the second peer is behind the local chain
+    String peer1 = "http://peer1";
+    String peer2 = "http://peer2";
+    when(nodeConfig.getPeers()).thenReturn(List.of(peer1, peer2));
+    when(ledgerService.latestBlock()).thenReturn(createBlock(0));
+    when(syncPort.getLatestBlockHeader(peer1))
+        .thenReturn(new BlockHeaderResponse(1500, "h", "node1", Instant.now()));
+    when(syncPort.getLatestBlockHeader(peer2))
+        .thenReturn(new BlockHeaderResponse(0, "h", "node1", Instant.now()));
+    streams(peer1, 1, 1500, createBlocks(1, 1500).toArray(Block[]::new));
+
+    // When
+    SyncResponse response = syncService.synchronize(null);
+
+    // Then
+    assertTrue(response.synced());
+    assertEquals(1500, response.appliedBlocks());
+    assertEquals(1500, response.toHeight());
+    verify(ledgerService).acceptReplicatedBlocks(
+        argThat(batch -> batch.size() == 1000 && batch.get(0).height() == 1));
+    verify(ledgerService).acceptReplicatedBlocks(
+        argThat(batch -> batch.size() == 500 && batch.get(0).height() == 1001));
+    verify(syncPort, never()).getBlocks(anyString(), anyLong(), anyInt());
+  }
+
+  private void streams(String peerUrl, long fromHeight, long toHeight, Block... blocks) {
+    when(syncPort.streamBlocks(eq(peerUrl), eq(fromHeight), eq(toHeight), any()))
+        .thenAnswer(invocation -> {
+          Consumer<Block> consumer = invocation.getArgument(3);
+          for (Block block : blocks) {
+            consumer.accept(block);
+          }
+          return (long) blocks.length;
+        });
+  }
+
+  private List<Block> createBlocks(long fromHeight, int count) {
+    List<Block> blocks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      blocks.add(createBlock(fromHeight + i));
+    }
+    return blocks;
+  }
+
   private Block createBlock(long height) {
     return new Block(height, Instant.now(), List.of(), "prev", "node", "hash" + height, "sig");
   }
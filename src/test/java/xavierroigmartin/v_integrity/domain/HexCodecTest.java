@@ -0,0 +1,69 @@
+package xavierroigmartin.v_integrity.domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HexFormat;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HexCodecTest {
+
+  @Test
+  void should_round_trip_like_the_jdk_hex_format() {
+    Random random = new Random(42);
+    for (int length = 0; length <= 64; length++) {
+      // Given
+      byte[] bytes = new byte[length];
+      random.nextBytes(bytes);
+
+      // When
+      String hex = HexCodec.encode(bytes);
+
+      // Then
+      assertEquals(HexFormat.of().formatHex(bytes), hex);
+      assertArrayEquals(bytes, HexCodec.decode(hex));
+      assertArrayEquals(bytes, HexCodec.decode(hex.toUpperCase()));
+      assertTrue(HexCodec.matches(bytes, hex));
+    }
+  }
+
+  @Test
+  void should_encode_a_slice() {
+    // Given
+    byte[] bytes = {0x00, 0x0f, (byte) 0xa0, (byte) 0xff};
+
+    // When / Then
+    assertEquals("0fa0", HexCodec.encode(bytes, 1, 2));
+  }
+
+  @Test
+  void should_reject_malformed_hex() {
+    // When / Then
+    assertThrows(IllegalArgumentException.class, () -> HexCodec.decode("abc"));
+    assertThrows(IllegalArgumentException.class, () -> HexCodec.decode("zz"));
+    assertNull(HexCodec.tryDecode(null));
+    assertNull(HexCodec.tryDecode("0g"));
+    assertNull(HexCodec.tryDecode("é0"));
+    assertArrayEquals(new byte[] {(byte) 0xab}, HexCodec.tryDecode("AB"));
+    assertNull(HexCodec.tryDecodeLowercase("AB"));
+    assertArrayEquals(new byte[] {(byte) 0xab}, HexCodec.tryDecodeLowercase("ab"));
+  }
+
+  @Test
+  void should_only_match_the_exact_lowercase_form() {
+    // Given
+    byte[] bytes = {(byte) 0xab, 0x01};
+
+    // When / Then
+    assertTrue(HexCodec.matches(bytes, "ab01"));
+    assertFalse(HexCodec.matches(bytes, "AB01"));
+    assertFalse(HexCodec.matches(bytes, "ab02"));
+    assertFalse(HexCodec.matches(bytes, "ab0100"));
+    assertFalse(HexCodec.matches(bytes, null));
+  }
+}
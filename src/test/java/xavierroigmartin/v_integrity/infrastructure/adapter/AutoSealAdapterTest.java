@@ -0,0 +1,118 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import xavierroigmartin.v_integrity.application.LedgerService;
+import xavierroigmartin.v_integrity.application.port.out.LogPort;
+import xavierroigmartin.v_integrity.application.port.out.MetricsPort;
+import xavierroigmartin.v_integrity.application.port.out.NodeConfigurationPort;
+import xavierroigmartin.v_integrity.application.port.out.ReplicationPort;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.infrastructure.config.SealingProperties;
+
+class AutoSealAdapterTest {
+
+  private LedgerService ledger;
+  private SealingProperties properties;
+  private AutoSealAdapter sealer;
+  private SimpleMeterRegistry registry;
+  private long submitted;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    KeyPair kp = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    NodeConfigurationPort nodeConfig = mock(NodeConfigurationPort.class);
+    lenient().when(nodeConfig.isLeader()).thenReturn(true);
+    lenient().when(nodeConfig.getNodeId()).thenReturn("node-1");
+    lenient().when(nodeConfig.getPrivateKeyBase64())
+        .thenReturn(Base64.getEncoder().encodeToString(kp.getPrivate().getEncoded()));
+    lenient().when(nodeConfig.getAllowedNodePublicKeys()).thenReturn(
+        Map.of("node-1", Base64.getEncoder().encodeToString(kp.getPublic().getEncoded())));
+    LogPort logger = mock(LogPort.class);
+    ledger = new LedgerService(nodeConfig, new HashingAdapter(), new CryptoAdapter(),
+        mock(ReplicationPort.class), new InMemoryChainStorageAdapter(), logger,
+        mock(MetricsPort.class));
+
+    properties = new SealingProperties();
+    properties.setMaxEvidences(2);
+    properties.setMaxLatency(Duration.ofHours(1));
+    sealer = new AutoSealAdapter(ledger, nodeConfig, properties, logger);
+    registry = new SimpleMeterRegistry();
+    sealer.bindTo(registry);
+  }
+
+  @Test
+  void should_seal_bounded_blocks_while_count_threshold_is_reached() {
+    // Given
+    submit(5);
+
+    // When
+    int sealed = sealer.sealReadyBlocks();
+
+    // Then
+    assertEquals(2, sealed);
+    List<Block> chain = ledger.chain();
+    assertEquals(2, chain.get(1).evidences().size());
+    assertEquals(2, chain.get(2).evidences().size());
+    assertEquals(1, ledger.pendingEvidences().count());
+    assertEquals(2.0, count("count"));
+  }
+
+  @Test
+  void should_seal_by_size_and_latency() {
+    // Given
+    properties.setMaxEvidences(100);
+    submit(3);
+    properties.setMaxBytes(ledger.pendingEvidences().bytes());
+
+    // When
+    int sealedBySize = sealer.sealReadyBlocks();
+    submit(1);
+    int sealedBeforeLatency = sealer.sealReadyBlocks();
+    properties.setMaxLatency(Duration.ZERO);
+    int sealedByLatency = sealer.sealReadyBlocks();
+
+    // Then
+    assertEquals(1, sealedBySize);
+    assertEquals(3, ledger.chain().get(1).evidences().size());
+    assertEquals(0, sealedBeforeLatency);
+    assertEquals(1, sealedByLatency);
+    assertEquals(0, ledger.pendingEvidences().count());
+    assertEquals(1.0, count("bytes"));
+    assertEquals(1.0, count("latency"));
+  }
+
+  @Test
+  void should_not_seal_an_empty_mempool() {
+    properties.setMaxLatency(Duration.ZERO);
+
+    assertEquals(0, sealer.sealReadyBlocks());
+    assertEquals(1, ledger.chain().size());
+  }
+
+  private void submit(int count) {
+    for (int i = 0; i < count; i++) {
+      ledger.submitEvidence(new EvidenceRecord(UUID.randomUUID().toString(), "HOM-1", "RUN-1",
+          "a.log", "LOG", "SHA-256", String.format("%064x", ++submitted), 1L, "user", null,
+          List.of(), Instant.now()));
+    }
+  }
+
+  private double count(String trigger) {
+    return registry.get("ledger.sealing.blocks").tag("trigger", trigger).functionCounter().count();
+  }
+}
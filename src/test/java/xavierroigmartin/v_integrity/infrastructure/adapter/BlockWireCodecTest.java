@@ -0,0 +1,104 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import tools.jackson.databind.json.JsonMapper;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockWireCodecTest {
+
+  private static final ResolvableType BLOCK_LIST =
+      ResolvableType.forClassWithGenerics(List.class, Block.class);
+
+  @Test
+  void should_round_trip_blocks_and_be_smaller_than_json() throws Exception {
+    // Given
+    List<Block> blocks = List.of(createBlock(1, 50), createBlock(2, 0));
+
+    // When
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BlockWireCodec.writeBlocks(blocks, out);
+    List<Block> decoded = BlockWireCodec.readBlocks(new ByteArrayInputStream(out.toByteArray()));
+
+    // Then
+    assertEquals(blocks, decoded);
+    int jsonBytes = JsonMapper.builder().findAndAddModules().build()
+        .writeValueAsBytes(blocks).length;
+    assertTrue(out.size() * 2 < jsonBytes, out.size() + " vs " + jsonBytes + " JSON bytes");
+  }
+
+  @Test
+  void should_keep_values_that_are_not_canonical_hex_or_base64() throws Exception {
+    // Given
+    EvidenceRecord evidence = new EvidenceRecord("e-1", "HOM-1", "RUN-1", "a.log", "LOG",
+        "SHA-256", "ABCDEF", null, "user", null, List.of(), Instant.ofEpochSecond(-5, 7));
+    Block block = new Block(3, Instant.parse("2025-05-21T10:15:30.123456789Z"), List.of(evidence),
+        "0".repeat(64), "node-1", "not-hex", "not base64!", Block.VERSION_1, null);
+
+    // When
+    Block decoded = BlockWireCodec.decode(BlockWireCodec.encode(block));
+
+    // Then
+    assertEquals(block, decoded);
+  }
+
+  @Test
+  void should_convert_single_blocks_and_lists_over_http() throws Exception {
+    // Given
+    BlockWireHttpMessageConverter converter = new BlockWireHttpMessageConverter();
+    Block block = createBlock(7, 3);
+    MockHttpOutputMessage single = new MockHttpOutputMessage();
+    MockHttpOutputMessage list = new MockHttpOutputMessage();
+
+    // When
+    converter.write(block, ResolvableType.forClass(Block.class), BlockWireHttpMessageConverter.MEDIA_TYPE,
+        single, null);
+    converter.write(List.of(block, block), BLOCK_LIST, BlockWireHttpMessageConverter.MEDIA_TYPE,
+        list, null);
+
+    // Then
+    assertTrue(converter.canRead(ResolvableType.forClass(Block.class),
+        BlockWireHttpMessageConverter.MEDIA_TYPE));
+    assertTrue(converter.canWrite(BLOCK_LIST, List.class, BlockWireHttpMessageConverter.MEDIA_TYPE));
+    assertFalse(converter.canWrite(ResolvableType.forClassWithGenerics(List.class, String.class),
+        List.class, BlockWireHttpMessageConverter.MEDIA_TYPE));
+    assertFalse(converter.canWrite(BLOCK_LIST, List.class, MediaType.APPLICATION_JSON));
+    assertEquals(block, converter.read(ResolvableType.forClass(Block.class),
+        new MockHttpInputMessage(single.getBodyAsBytes()), null));
+    assertEquals(List.of(block, block), converter.read(BLOCK_LIST,
+        new MockHttpInputMessage(list.getBodyAsBytes()), null));
+    assertThrows(HttpMessageNotReadableException.class, () -> converter.read(
+        ResolvableType.forClass(Block.class), new MockHttpInputMessage(list.getBodyAsBytes()),
+        null));
+    assertThrows(HttpMessageNotReadableException.class, () -> converter.read(BLOCK_LIST,
+        new MockHttpInputMessage(new byte[] {BlockWireCodec.WIRE_VERSION, 0, 0, 0, 9, 1}), null));
+  }
+
+  private Block createBlock(long height, int evidenceCount) {
+    List<EvidenceRecord> evidences = new ArrayList<>();
+    for (int i = 0; i < evidenceCount; i++) {
+      evidences.add(new EvidenceRecord(UUID.randomUUID().toString(), "HOM-123", "RUN-456",
+          "report-" + i + ".pdf", "REPORT", "SHA-256", "ab".repeat(32), 1024L + i, "alice",
+          i % 2 == 0 ? "s3://bucket/report-" + i : null, List.of("ISO-26262", "UNECE-R155"),
+          Instant.now()));
+    }
+    return new Block(height, Instant.now(), List.copyOf(evidences), "cd".repeat(32), "node-1",
+        "ef".repeat(32), "c2lnbmF0dXJl", Block.VERSION_2, "01".repeat(32));
+  }
+}
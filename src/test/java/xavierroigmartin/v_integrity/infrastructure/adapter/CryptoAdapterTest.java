@@ -1,10 +1,13 @@
 package xavierroigmartin.v_integrity.infrastructure.adapter;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,4 +52,70 @@ class CryptoAdapterTest {
         // Then
         assertFalse(isValid);
     }
+
+    @Test
+    void should_cache_decoded_keys_and_report_hits_and_misses() throws Exception {
+        // Given
+        CryptoAdapter adapter = new CryptoAdapter(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        adapter.bindTo(registry);
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("Ed25519");
+        KeyPair kp = kpg.generateKeyPair();
+        KeyPair other = kpg.generateKeyPair();
+        String privateKeyBase64 = Base64.getEncoder().encodeToString(kp.getPrivate().getEncoded());
+        String publicKeyBase64 = Base64.getEncoder().encodeToString(kp.getPublic().getEncoded());
+        String otherPublicKeyBase64 = Base64.getEncoder().encodeToString(other.getPublic().getEncoded());
+        byte[] message = "block-hash".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        String signature = adapter.signEd25519(message, privateKeyBase64);   // private miss
+        for (int i = 0; i < 3; i++) {
+            assertTrue(adapter.verifyEd25519(message, signature, publicKeyBase64)); // 1 miss, 2 hits
+        }
+        assertFalse(adapter.verifyEd25519(message, signature, otherPublicKeyBase64)); // miss, evicts
+        assertTrue(adapter.verifyEd25519(message, signature, publicKeyBase64));       // miss again
+        assertFalse(adapter.verifyEd25519(message, signature, "not-a-key"));          // miss, not cached
+
+        // Then
+        assertEquals(2, adapter.cacheHits());
+        assertEquals(5, adapter.cacheMisses());
+        assertEquals(2.0, registry.get("ledger.crypto.key.cache")
+                .tags("type", "public", "result", "hit").functionCounter().count());
+        assertEquals(4.0, registry.get("ledger.crypto.key.cache")
+                .tags("type", "public", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("ledger.crypto.key.cache.size")
+                .tag("type", "public").gauge().value());
+    }
+
+    @Test
+    void should_verify_a_batch_across_workers() throws Exception {
+        // Given
+        CryptoAdapter adapter = new CryptoAdapter(16, 4);
+        KeyPair kp = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String privateKeyBase64 = Base64.getEncoder().encodeToString(kp.getPrivate().getEncoded());
+        String publicKeyBase64 = Base64.getEncoder().encodeToString(kp.getPublic().getEncoded());
+        List<byte[]> messages = new ArrayList<>();
+        List<String> signatures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] message = ("block-" + i).getBytes(StandardCharsets.UTF_8);
+            messages.add(message);
+            signatures.add(adapter.signEd25519(message, privateKeyBase64));
+        }
+        messages.set(73, "tampered".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            // When
+            boolean[] valid = adapter.verifyEd25519Batch(messages, signatures, publicKeyBase64);
+
+            // Then
+            assertEquals(100, valid.length);
+            for (int i = 0; i < valid.length; i++) {
+                assertEquals(i != 73, valid[i], "signature " + i);
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> adapter.verifyEd25519Batch(messages, signatures.subList(0, 1), publicKeyBase64));
+        } finally {
+            adapter.close();
+        }
+    }
 }
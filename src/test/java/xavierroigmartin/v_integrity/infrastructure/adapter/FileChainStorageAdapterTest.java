@@ -0,0 +1,158 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.Checkpoint;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.infrastructure.config.StorageProperties;
+
+class FileChainStorageAdapterTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void should_replay_appended_blocks_after_reopen() {
+    // Given
+    FileChainStorageAdapter storage = new FileChainStorageAdapter(properties(1024 * 1024));
+    for (long h = 0; h < 5; h++) {
+      storage.append(createBlock(h));
+    }
+    storage.close();
+
+    // When
+    FileChainStorageAdapter reopened = new FileChainStorageAdapter(properties(1024 * 1024));
+    List<Block> replayed = new ArrayList<>();
+    long count = reopened.replay(0, replayed::add);
+
+    // Then
+    assertEquals(5, count);
+    assertEquals(createBlock(3), replayed.get(3));
+    reopened.close();
+  }
+
+  @Test
+  void should_roll_segments_and_replay_from_height() throws IOException {
+    // Given: tiny segments force one block per segment
+    FileChainStorageAdapter storage = new FileChainStorageAdapter(properties(64));
+    for (long h = 0; h < 4; h++) {
+      storage.append(createBlock(h));
+    }
+
+    // When
+    List<Block> replayed = new ArrayList<>();
+    storage.replay(2, replayed::add);
+
+    // Then
+    assertEquals(List.of(createBlock(2), createBlock(3)), replayed);
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(4, files.filter(p -> p.toString().endsWith(".log")).count());
+    }
+    storage.close();
+  }
+
+  @Test
+  void should_truncate_torn_tail_on_recovery() throws IOException {
+    // Given
+    FileChainStorageAdapter storage = new FileChainStorageAdapter(properties(1024 * 1024));
+    storage.append(createBlock(0));
+    storage.append(createBlock(1));
+    storage.close();
+
+    Path log;
+    try (Stream<Path> files = Files.list(dir)) {
+      log = files.filter(p -> p.toString().endsWith(".log")).findFirst().orElseThrow();
+    }
+    Files.write(log, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+    // When
+    FileChainStorageAdapter reopened = new FileChainStorageAdapter(properties(1024 * 1024));
+    List<Block> replayed = new ArrayList<>();
+    reopened.replay(0, replayed::add);
+
+    // Then
+    assertEquals(2, replayed.size());
+    reopened.append(createBlock(2));
+    reopened.close();
+  }
+
+  @Test
+  void should_persist_checkpoints_and_drop_a_torn_one() throws IOException {
+    // Given
+    FileChainStorageAdapter storage = new FileChainStorageAdapter(properties(1024 * 1024));
+    for (long h = 0; h <= 20; h++) {
+      storage.append(createBlock(h));
+    }
+    Checkpoint first = createCheckpoint(10);
+    Checkpoint second = createCheckpoint(20);
+    storage.appendCheckpoint(first);
+    storage.appendCheckpoint(second);
+    storage.close();
+    Files.write(dir.resolve("checkpoints.ckp"), new byte[] {0, 0, 0, 42, 1, 2},
+        StandardOpenOption.APPEND);
+
+    // When
+    FileChainStorageAdapter reopened = new FileChainStorageAdapter(properties(1024 * 1024));
+
+    // Then
+    assertEquals(List.of(first, second), reopened.checkpoints());
+    Checkpoint third = createCheckpoint(30);
+    reopened.appendCheckpoint(third);
+    assertEquals(List.of(first, second, third), reopened.checkpoints());
+    reopened.close();
+  }
+
+  @Test
+  void should_reject_out_of_order_append() {
+    FileChainStorageAdapter storage = new FileChainStorageAdapter(properties(1024 * 1024));
+    storage.append(createBlock(0));
+
+    assertThrows(IllegalStateException.class, () -> storage.append(createBlock(5)));
+    assertEquals(1, storage.replay(0, b -> { }));
+    storage.close();
+  }
+
+  private StorageProperties properties(long segmentSize) {
+    StorageProperties properties = new StorageProperties();
+    properties.setEnabled(true);
+    properties.setDirectory(dir.toString());
+    properties.setSegmentSizeBytes(segmentSize);
+    return properties;
+  }
+
+  private Block createBlock(long height) {
+    EvidenceRecord evidence = new EvidenceRecord(
+        "ev-" + height,
+        "HOM-123",
+        "RUN-456",
+        "log.txt",
+        "LOG",
+        "SHA-256",
+        "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+        height == 1 ? null : 1024L,
+        "user1",
+        null,
+        List.of("ISO-27001"),
+        Instant.ofEpochSecond(1_700_000_000L, height)
+    );
+    return new Block(height, Instant.ofEpochSecond(1_700_000_000L + height), List.of(evidence),
+        "prev" + height, "node-1", "hash" + height, "sig" + height);
+  }
+
+  private Checkpoint createCheckpoint(long height) {
+    return new Checkpoint(height, "acc" + height, "hash" + height, "node-1", "sig" + height,
+        Instant.ofEpochSecond(1_700_000_000L, height));
+  }
+}
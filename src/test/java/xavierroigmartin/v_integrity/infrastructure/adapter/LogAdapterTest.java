@@ -1,25 +1,109 @@
 package xavierroigmartin.v_integrity.infrastructure.adapter;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
+import net.logstash.logback.marker.SingleFieldAppendingMarker;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import xavierroigmartin.v_integrity.infrastructure.config.BusinessLogProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.BusinessLogProperties.OverflowPolicy;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class LogAdapterTest {
 
-  private final LogAdapter logAdapter = new LogAdapter();
+  private final LogAdapter logAdapter = new LogAdapter(new BusinessLogProperties());
+
+  @AfterEach
+  void tearDown() {
+    logAdapter.close();
+  }
 
   @Test
-  void should_log_business_event_without_error() {
+  void should_log_business_event_without_error() throws Exception {
+    assertTrue(logAdapter.isBusinessEventEnabled());
     assertDoesNotThrow(() -> 
         logAdapter.logBusinessEvent("TEST_EVENT", Map.of("key", "value"))
     );
+    assertTrue(logAdapter.awaitIdle(Duration.ofSeconds(5)));
   }
 
   @Test
-  void should_log_business_error_without_error() {
+  void should_log_business_error_without_error() throws Exception {
     assertDoesNotThrow(() -> 
         logAdapter.logBusinessError("TEST_ERROR", "Something went wrong", Map.of("context", "details"))
     );
+    assertTrue(logAdapter.awaitIdle(Duration.ofSeconds(5)));
+  }
+
+  @Test
+  void should_write_the_time_thread_and_mdc_of_the_caller() throws Exception {
+    // Given
+    Logger businessLogger = (Logger) LoggerFactory.getLogger("business-logger");
+    ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    appender.start();
+    businessLogger.addAppender(appender);
+    Instant before = Instant.now();
+
+    try {
+      // When
+      MDC.put("node_id", "node-1");
+      try {
+        logAdapter.logBusinessEvent("TEST_EVENT", Map.of("key", "value"));
+      } finally {
+        MDC.remove("node_id");
+      }
+      assertTrue(logAdapter.awaitIdle(Duration.ofSeconds(5)));
+
+      // Then
+      ILoggingEvent written = appender.list.get(0);
+      Map<String, String> fields = new HashMap<>();
+      for (Object argument : written.getArgumentArray()) {
+        SingleFieldAppendingMarker field = (SingleFieldAppendingMarker) argument;
+        fields.put(field.getFieldName(), field.toString());
+      }
+      assertEquals(Thread.currentThread().getName(), fields.get("eventThread"));
+      assertFalse(Instant.parse(fields.get("eventTime")).isBefore(before));
+      assertEquals("node-1", written.getMDCPropertyMap().get("node_id"));
+    } finally {
+      businessLogger.detachAppender(appender);
+    }
+  }
+
+  @Test
+  void should_drop_or_wait_when_queue_is_full() throws Exception {
+    // Given
+    BusinessLogProperties properties = new BusinessLogProperties();
+    properties.setQueueCapacity(1);
+    LogAdapter dropping = new LogAdapter(properties);
+    properties.setOverflowPolicy(OverflowPolicy.BLOCK);
+    LogAdapter blocking = new LogAdapter(properties);
+
+    try {
+      // When
+      for (int i = 0; i < 2_000; i++) {
+        dropping.logBusinessEvent("BURST", Map.of("i", i));
+        blocking.logBusinessEvent("BURST", Map.of("i", i));
+      }
+
+      // Then
+      assertTrue(dropping.awaitIdle(Duration.ofSeconds(10)));
+      assertTrue(blocking.awaitIdle(Duration.ofSeconds(10)));
+      assertTrue(dropping.droppedCount() > 0, "a one-slot queue cannot keep up with a burst");
+      assertEquals(0, blocking.droppedCount());
+    } finally {
+      dropping.close();
+      blocking.close();
+    }
   }
 }
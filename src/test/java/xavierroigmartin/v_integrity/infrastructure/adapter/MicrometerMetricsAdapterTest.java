@@ -0,0 +1,37 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class MicrometerMetricsAdapterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final MicrometerMetricsAdapter metrics = new MicrometerMetricsAdapter(registry);
+
+  @Test
+  void should_publish_gauges_timers_and_counters() {
+    // Given
+    AtomicLong height = new AtomicLong(3);
+    metrics.registerGauge("ledger.chain.height", "Height", height::get);
+
+    // When
+    height.set(7);
+    metrics.recordTime("ledger.evidence.lookup", 2_000_000, "found", "true");
+    metrics.recordTime("ledger.evidence.lookup", 4_000_000, "found", "true");
+    metrics.increment("ledger.blocks.rejected", 1, "reason", "signature");
+    metrics.increment("ledger.blocks.rejected", 2, "reason", "signature");
+
+    // Then
+    assertEquals(7.0, registry.get("ledger.chain.height").gauge().value());
+    Timer lookups = registry.get("ledger.evidence.lookup").tag("found", "true").timer();
+    assertEquals(2, lookups.count());
+    assertEquals(6.0, lookups.totalTime(TimeUnit.MILLISECONDS));
+    assertEquals(3.0, registry.get("ledger.blocks.rejected").tag("reason", "signature")
+        .counter().count());
+  }
+}
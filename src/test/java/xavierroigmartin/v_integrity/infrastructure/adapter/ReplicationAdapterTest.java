@@ -1,69 +1,167 @@
 package xavierroigmartin.v_integrity.infrastructure.adapter;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClient;
 import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.infrastructure.config.ReplicationProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.RestClientConfig;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
-import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 class ReplicationAdapterTest {
 
+  private static final String PEER_URL = "http://peer1:8080";
+
+  private ReplicationProperties properties;
   private ReplicationAdapter replicationAdapter;
   private MockRestServiceServer mockServer;
+  private SimpleMeterRegistry registry;
 
   @BeforeEach
   void setUp() {
-    RestClient.Builder builder = RestClient.builder();
+    properties = new ReplicationProperties();
+    properties.setMaxAttempts(3);
+    properties.setInitialBackoff(Duration.ofMillis(1));
+    properties.setMaxBackoff(Duration.ofMillis(2));
+    RestClient.Builder builder =
+        new RestClientConfig().restClientBuilder(new BlockWireHttpMessageConverter());
     // Bind mock server FIRST to configure the builder with a mock request factory
     mockServer = MockRestServiceServer.bindTo(builder).build();
     // THEN build the client using the configured builder
-    replicationAdapter = new ReplicationAdapter(builder);
+    replicationAdapter = new ReplicationAdapter(builder, properties);
+    registry = new SimpleMeterRegistry();
+    replicationAdapter.bindTo(registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    replicationAdapter.close();
   }
 
   @Test
-  void should_replicate_block_successfully() {
+  void should_replicate_block_successfully() throws Exception {
     // Given
-    Block block = createSampleBlock();
-    String peerUrl = "http://peer1:8080";
+    Block block = createSampleBlock(1);
 
-    mockServer.expect(requestTo(peerUrl + "/api/blocks/receive"))
+    mockServer.expect(requestTo(PEER_URL + "/api/blocks/receive"))
         .andExpect(method(HttpMethod.POST))
+        .andExpect(content().contentType(BlockWireHttpMessageConverter.MEDIA_TYPE))
         .andRespond(withSuccess());
 
     // When
-    replicationAdapter.replicateBlockToPeers(block, List.of(peerUrl));
+    replicationAdapter.replicateBlockToPeers(block, List.of(PEER_URL));
 
     // Then
+    assertTrue(replicationAdapter.awaitIdle(Duration.ofSeconds(5)));
     mockServer.verify();
+    assertEquals(1.0, count("sent"));
+    assertEquals(0.0, registry.get("ledger.replication.lag").tag("peer", PEER_URL).gauge().value());
+    assertEquals(1, registry.get("ledger.replication.latency").tag("peer", PEER_URL).timer()
+        .count());
   }
 
   @Test
-  void should_handle_replication_error_gracefully() {
+  void should_handle_replication_error_gracefully() throws Exception {
     // Given
-    Block block = createSampleBlock();
-    String peerUrl = "http://peer1:8080";
+    Block block = createSampleBlock(1);
 
-    mockServer.expect(requestTo(peerUrl + "/api/blocks/receive"))
+    mockServer.expect(times(3), requestTo(PEER_URL + "/api/blocks/receive"))
         .andRespond(withServerError());
 
     // When
-    // Should not throw exception (logs error instead)
-    replicationAdapter.replicateBlockToPeers(block, List.of(peerUrl));
+    // Should not throw exception (retries, then logs error instead)
+    replicationAdapter.replicateBlockToPeers(block, List.of(PEER_URL));
 
     // Then
+    assertTrue(replicationAdapter.awaitIdle(Duration.ofSeconds(5)));
     mockServer.verify();
+    assertEquals(1.0, count("failed"));
+    assertEquals(1.0, registry.get("ledger.replication.lag").tag("peer", PEER_URL).gauge().value());
+  }
+
+  @Test
+  void should_retry_server_errors_but_not_client_errors() throws Exception {
+    // Given
+    mockServer.expect(once(), requestTo(PEER_URL + "/api/blocks/receive"))
+        .andRespond(withServerError());
+    mockServer.expect(once(), requestTo(PEER_URL + "/api/blocks/receive"))
+        .andRespond(withSuccess());
+    mockServer.expect(once(), requestTo(PEER_URL + "/api/blocks/receive"))
+        .andRespond(withBadRequest());
+
+    // When
+    replicationAdapter.replicateBlockToPeers(createSampleBlock(1), List.of(PEER_URL));
+    replicationAdapter.replicateBlockToPeers(createSampleBlock(2), List.of(PEER_URL));
+
+    // Then
+    assertTrue(replicationAdapter.awaitIdle(Duration.ofSeconds(5)));
+    mockServer.verify();
+    assertEquals(1.0, count("sent"));
+    assertEquals(1.0, count("failed"));
+  }
+
+  @Test
+  void should_drop_blocks_when_peer_queue_is_full() throws Exception {
+    // Given
+    properties.setQueueCapacity(1);
+    CountDownLatch firstRequestStarted = new CountDownLatch(1);
+    CountDownLatch releasePeer = new CountDownLatch(1);
+    mockServer.expect(times(2), requestTo(PEER_URL + "/api/blocks/receive"))
+        .andRespond(request -> {
+          firstRequestStarted.countDown();
+          try {
+            releasePeer.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return withSuccess().createResponse(request);
+        });
+
+    // When
+    long start = System.nanoTime();
+    replicationAdapter.replicateBlockToPeers(createSampleBlock(1), List.of(PEER_URL));
+    assertTrue(firstRequestStarted.await(5, TimeUnit.SECONDS));
+    replicationAdapter.replicateBlockToPeers(createSampleBlock(2), List.of(PEER_URL)); // queued
+    replicationAdapter.replicateBlockToPeers(createSampleBlock(3), List.of(PEER_URL)); // dropped
+    long enqueueMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertEquals(1.0, registry.get("ledger.replication.queue.size").tag("peer", PEER_URL)
+        .gauge().value());
+    releasePeer.countDown();
+
+    // Then
+    assertTrue(replicationAdapter.awaitIdle(Duration.ofSeconds(5)));
+    mockServer.verify();
+    assertTrue(enqueueMillis < 5000, "commits must not wait for the slow peer");
+    assertEquals(2.0, count("sent"));
+    assertEquals(1.0, count("dropped"));
+    assertEquals(1.0, registry.get("ledger.replication.lag").tag("peer", PEER_URL).gauge().value());
+  }
+
+  private double count(String result) {
+    return registry.get("ledger.replication.blocks").tags("peer", PEER_URL, "result", result)
+        .functionCounter().count();
   }
 
-  private Block createSampleBlock() {
-    return new Block(1, Instant.now(), List.of(), "prev", "node1", "hash", "sig");
+  private Block createSampleBlock(long height) {
+    return new Block(height, Instant.now(), List.of(), "prev", "node1", "hash", "sig");
   }
 }
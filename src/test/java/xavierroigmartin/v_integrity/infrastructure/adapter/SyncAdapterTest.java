@@ -0,0 +1,97 @@
+package xavierroigmartin.v_integrity.infrastructure.adapter;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+import xavierroigmartin.v_integrity.domain.Block;
+import xavierroigmartin.v_integrity.domain.EvidenceRecord;
+import xavierroigmartin.v_integrity.infrastructure.config.ReplicationProperties;
+import xavierroigmartin.v_integrity.infrastructure.config.RestClientConfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class SyncAdapterTest {
+
+  private static final String PEER_URL = "http://peer1:8080";
+
+  private final BlockStreamCodec streamCodec = new BlockStreamCodec(JsonMapper.builder().build());
+  private SyncAdapter syncAdapter;
+  private MockRestServiceServer mockServer;
+
+  @BeforeEach
+  void setUp() {
+    RestClient.Builder builder =
+        new RestClientConfig().restClientBuilder(new BlockWireHttpMessageConverter());
+    mockServer = MockRestServiceServer.bindTo(builder).build();
+    syncAdapter = new SyncAdapter(builder, new ReplicationProperties(), streamCodec);
+  }
+
+  @Test
+  void should_stream_binary_blocks_one_by_one() throws Exception {
+    // Given
+    List<Block> blocks = createBlocks(5, 3);
+    mockServer.expect(requestTo(PEER_URL + "/api/blocks/stream?fromHeight=5&toHeight=7"))
+        .andExpect(header(HttpHeaders.ACCEPT, BlockWireHttpMessageConverter.MEDIA_TYPE_VALUE
+            + ", " + MediaType.APPLICATION_NDJSON_VALUE))
+        .andRespond(withSuccess(encode(blocks, BlockWireHttpMessageConverter.MEDIA_TYPE),
+            BlockWireHttpMessageConverter.MEDIA_TYPE));
+
+    // When
+    List<Block> received = new ArrayList<>();
+    long count = syncAdapter.streamBlocks(PEER_URL, 5, 7, received::add);
+
+    // Then
+    mockServer.verify();
+    assertEquals(3, count);
+    assertEquals(blocks, received);
+  }
+
+  @Test
+  void should_stream_ndjson_blocks_from_peers_without_binary_support() throws Exception {
+    // Given
+    List<Block> blocks = createBlocks(1, 2);
+    mockServer.expect(requestTo(PEER_URL + "/api/blocks/stream?fromHeight=1&toHeight="
+            + Long.MAX_VALUE))
+        .andRespond(withSuccess(encode(blocks, MediaType.APPLICATION_NDJSON),
+            MediaType.APPLICATION_NDJSON));
+
+    // When
+    List<Block> received = new ArrayList<>();
+    long count = syncAdapter.streamBlocks(PEER_URL, 1, Long.MAX_VALUE, received::add);
+
+    // Then
+    mockServer.verify();
+    assertEquals(2, count);
+    assertEquals(blocks, received);
+  }
+
+  private byte[] encode(List<Block> blocks, MediaType mediaType) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    streamCodec.write(blocks, mediaType, out);
+    return out.toByteArray();
+  }
+
+  private List<Block> createBlocks(long fromHeight, int count) {
+    List<Block> blocks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      EvidenceRecord evidence = new EvidenceRecord("e-" + i, "HOM-1", "RUN-1", "a.log", "LOG",
+          "SHA-256", "ab".repeat(32), 10L, "user", null, List.of("ISO-26262"),
+          Instant.parse("2025-05-21T10:15:30.5Z"));
+      blocks.add(new Block(fromHeight + i, Instant.parse("2025-05-21T10:16:00Z"),
+          List.of(evidence), "cd".repeat(32), "node-1", "ef".repeat(32), "c2ln",
+          Block.VERSION_2, "01".repeat(32)));
+    }
+    return blocks;
+  }
+}